@@ -0,0 +1,76 @@
+#!/usr/bin/env bash
+#
+# Measures time from JVM launch to the first successful rewards response.
+#
+#   ./mvnw -Pcds package -DskipTests
+#   scripts/startup-benchmark.sh [runs] [mode ...]
+#
+# Modes:
+#   jar  the fat jar as built by the default profile
+#   cds  the extracted jar with Spring AOT and the AppCDS archive from the training run
+#
+# Results are appended to target/startup/startup.csv (timestamp,git commit,mode,run,ms)
+# so successive builds can be compared; a median per mode is printed at the end.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+shift || true
+if (( $# )); then MODES=("$@"); else MODES=(jar cds); fi
+PORT="${PORT:-18082}"
+URL="http://localhost:${PORT}/api/customers/1/rewards"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-180}"
+JAR="target/rewards-0.0.1-SNAPSHOT.jar"
+CDS_DIR="target/application"
+OUT_DIR="target/startup"
+OUT="${OUT_DIR}/startup.csv"
+
+mkdir -p "${OUT_DIR}"
+[[ -f "${OUT}" ]] || echo "timestamp,commit,mode,run,ms" > "${OUT}"
+COMMIT="$(git rev-parse --short HEAD 2>/dev/null || echo unknown)"
+STAMP="$(date -u +%Y-%m-%dT%H:%M:%SZ)"
+
+command_for() {
+  case "$1" in
+    jar) echo "java -jar ${JAR}" ;;
+    cds) echo "java -XX:SharedArchiveFile=${CDS_DIR}/application.jsa -Dspring.aot.enabled=true -jar ${CDS_DIR}/rewards-0.0.1-SNAPSHOT.jar" ;;
+    *) echo "Unknown mode: $1" >&2; exit 1 ;;
+  esac
+}
+
+now_ms() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+for mode in "${MODES[@]}"; do
+  cmd="$(command_for "${mode}")"
+  [[ "${mode}" != cds || -f "${CDS_DIR}/application.jsa" ]] || { echo "Run ./mvnw -Pcds package first" >&2; exit 1; }
+  results=()
+  for run in $(seq 1 "${RUNS}"); do
+    start="$(now_ms)"
+    ${cmd} --server.port="${PORT}" > "${OUT_DIR}/${mode}-${run}.log" 2>&1 &
+    pid=$!
+    elapsed=""
+    while (( $(now_ms) - start < TIMEOUT_SECONDS * 1000 )); do
+      if curl -sf -o /dev/null "${URL}"; then
+        elapsed=$(( $(now_ms) - start ))
+        break
+      fi
+      kill -0 "${pid}" 2>/dev/null || break
+      sleep 0.05
+    done
+    kill "${pid}" 2>/dev/null || true
+    wait "${pid}" 2>/dev/null || true
+    if [[ -z "${elapsed}" ]]; then
+      echo "${mode} run ${run}: no successful response, see ${OUT_DIR}/${mode}-${run}.log" >&2
+      exit 1
+    fi
+    echo "${STAMP},${COMMIT},${mode},${run},${elapsed}" >> "${OUT}"
+    echo "${mode} run ${run}: ${elapsed} ms"
+    results+=("${elapsed}")
+  done
+  median="$(printf '%s\n' "${results[@]}" | sort -n | awk '{a[NR]=$1} END {print (NR % 2) ? a[(NR+1)/2] : int((a[NR/2]+a[NR/2+1])/2)}')"
+  echo "${mode}: median ${median} ms over ${RUNS} runs"
+done
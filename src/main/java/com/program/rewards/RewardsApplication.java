@@ -2,8 +2,10 @@ package com.program.rewards;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC is wired by hand in ReactiveDataConfig; an auto-configured ConnectionFactory would replace the JPA DataSource
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class RewardsApplication {
 
     public static void main(String[] args) {
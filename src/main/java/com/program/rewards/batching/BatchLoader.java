@@ -0,0 +1,165 @@
+package com.program.rewards.batching;
+
+import com.program.rewards.deadline.Deadline;
+import com.program.rewards.exception.DeadlineExceededException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent single-key lookups into one call of a batch function.
+ * <p>
+ * The first caller to arrive opens a batch and becomes its leader. Callers arriving within
+ * {@code window}, up to {@code maxBatchSize} distinct keys, join it. The leader then runs the batch
+ * function for every key on its own thread and hands each caller its own value.
+ * <p>
+ * The leader only waits while joiners are likely: lookups must be arriving faster than the window
+ * (a moving average of the gap between arrivals), and it stops as soon as the batch has been quiet for
+ * twice that gap. A lone lookup therefore runs at once. Every caller waits no longer than its own
+ * {@link Deadline}. If the batch fails, the leader gets the failure and every other caller retries its
+ * key alone, so one caller's timeout does not fail the rest.
+ */
+final class BatchLoader<K, V> {
+
+    /** Weight of the newest gap in the moving average, as a shift: 1/8. */
+    private static final int GAP_SMOOTHING_SHIFT = 3;
+
+    private final Function<List<K>, Map<K, V>> batchFunction;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final LongAdder fallbacks = new LongAdder();
+    private final Object lock = new Object();
+    /** Batch still accepting keys; guarded by {@link #lock}. */
+    private Batch<K, V> open;
+    /** Guarded by {@link #lock}; no estimate until two lookups have arrived. */
+    private long lastArrivalNanos;
+    private long meanGapNanos = Long.MAX_VALUE;
+
+    BatchLoader(Function<List<K>, Map<K, V>> batchFunction, long windowNanos, int maxBatchSize) {
+        this.batchFunction = batchFunction;
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Loads the value of {@code key}, or {@code null} when the batch function has none for it.
+     * With a {@code deadline}, throws {@link DeadlineExceededException} rather than wait past it.
+     */
+    V load(K key, Deadline deadline) {
+        Batch<K, V> batch;
+        CompletableFuture<V> result;
+        boolean leader;
+        synchronized (lock) {
+            long now = System.nanoTime();
+            recordArrival(now);
+            leader = open == null;
+            if (leader) {
+                open = new Batch<>(now + windowNanos);
+            }
+            batch = open;
+            batch.lastJoinNanos = now;
+            result = batch.results.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (batch.results.size() >= maxBatchSize) {
+                open = null;
+                lock.notifyAll();
+            }
+        }
+        if (leader) {
+            awaitFollowers(batch, deadline);
+            return run(batch, key);
+        }
+        try {
+            if (deadline == null) {
+                return result.get();
+            }
+            return result.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException(String.format(
+                    "Deadline of %d ms exceeded waiting for a batched lookup", deadline.getTimeout().toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a batched lookup", e);
+        } catch (ExecutionException e) {
+            fallbacks.increment();
+            if (deadline != null) {
+                deadline.check("retrying a failed batched lookup");
+            }
+            return batchFunction.apply(List.of(key)).get(key);
+        }
+    }
+
+    private void recordArrival(long now) {
+        if (lastArrivalNanos != 0) {
+            long gap = now - lastArrivalNanos;
+            meanGapNanos = meanGapNanos == Long.MAX_VALUE
+                    ? gap
+                    : meanGapNanos + ((gap - meanGapNanos) >> GAP_SMOOTHING_SHIFT);
+        }
+        lastArrivalNanos = now;
+    }
+
+    private void awaitFollowers(Batch<K, V> batch, Deadline deadline) {
+        synchronized (lock) {
+            try {
+                long closesAt = batch.closesAt;
+                if (deadline != null) {
+                    closesAt = Math.min(closesAt, System.nanoTime() + deadline.remaining().toNanos());
+                }
+                // Lookups arriving slower than the window would rarely find company: run at once
+                while (open == batch && meanGapNanos < windowNanos) {
+                    long wakeAt = Math.min(closesAt, batch.lastJoinNanos + 2 * meanGapNanos);
+                    long remaining = wakeAt - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    lock.wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (open == batch) {
+                    open = null;
+                }
+            }
+        }
+    }
+
+    private V run(Batch<K, V> batch, K leaderKey) {
+        List<K> keys = new ArrayList<>(batch.results.keySet());
+        Map<K, V> values;
+        try {
+            values = batchFunction.apply(keys);
+        } catch (RuntimeException | Error e) {
+            batch.results.values().forEach(f -> f.completeExceptionally(e));
+            throw e;
+        }
+        batch.results.forEach((k, f) -> f.complete(values.get(k)));
+        return values.get(leaderKey);
+    }
+
+    /** Followers that retried alone after their batch failed. */
+    long fallbacks() {
+        return fallbacks.sum();
+    }
+
+    private static final class Batch<K, V> {
+
+        final long closesAt;
+        /** Guarded by the loader's lock. */
+        long lastJoinNanos;
+        /** Written under the loader's lock until the batch closes, then only read by its leader. */
+        final Map<K, CompletableFuture<V>> results = new LinkedHashMap<>();
+
+        Batch(long closesAt) {
+            this.closesAt = closesAt;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.program.rewards.batching;
+
+import com.program.rewards.deadline.DeadlineContext;
+import com.program.rewards.entity.Customer;
+import com.program.rewards.entity.Transaction;
+import com.program.rewards.repository.CustomerRepository;
+import com.program.rewards.repository.TransactionRepository;
+import com.program.rewards.service.RewardsService;
+import com.program.rewards.util.RewardsUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Coalesces the per-customer lookups of concurrent rewards requests into {@code IN (...)} queries:
+ * customers by ID, and eligible transactions of customers asking for the same window. Lookups
+ * arriving within {@code rewards.batching.window} of each other, up to
+ * {@code rewards.batching.max-batch-size} customers, share one query; see {@link BatchLoader}.
+ * <p>
+ * The batch query runs on the thread of the first caller. Callers inside a transaction are only
+ * batched with each other, and callers outside one likewise: a leader outside a transaction needs a
+ * pooled connection for its query, which must not be held by followers waiting for it. Entities loaded
+ * inside the leader's transaction are detached before they are handed out, so no caller holds an
+ * entity of another request's persistence context. Each caller waits no longer than its own request
+ * deadline.
+ * <p>
+ * A customer held in the Hibernate second-level cache is read from there and never batched: the
+ * {@code IN (...)} query would bypass the cache and go to the database.
+ */
+@Component
+public class RewardsLookupBatcher implements MeterBinder {
+
+    private final CustomerRepository customerRepository;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionRepository transactionRepository;
+    private final boolean enabled;
+    private final BatchLoader<Long, Customer> customers;
+    private final BatchLoader<Long, Customer> customersInTransaction;
+    private final BatchLoader<WindowKey, List<Transaction>> transactions;
+    private final BatchLoader<WindowKey, List<Transaction>> transactionsInTransaction;
+    private DistributionSummary customerBatchSizes;
+    private DistributionSummary transactionBatchSizes;
+
+    public RewardsLookupBatcher(CustomerRepository customerRepository,
+                                TransactionRepository transactionRepository,
+                                EntityManager entityManager,
+                                EntityManagerFactory entityManagerFactory,
+                                @Value("${rewards.batching.enabled:true}") boolean enabled,
+                                @Value("${rewards.batching.window:2ms}") Duration window,
+                                @Value("${rewards.batching.max-batch-size:100}") int maxBatchSize) {
+        this.customerRepository = customerRepository;
+        this.transactionRepository = transactionRepository;
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.enabled = enabled;
+        long windowNanos = window.toNanos();
+        this.customers = new BatchLoader<>(this::loadCustomers, windowNanos, maxBatchSize);
+        this.customersInTransaction = new BatchLoader<>(this::loadCustomers, windowNanos, maxBatchSize);
+        this.transactions = new BatchLoader<>(this::loadTransactions, windowNanos, maxBatchSize);
+        this.transactionsInTransaction = new BatchLoader<>(this::loadTransactions, windowNanos, maxBatchSize);
+    }
+
+    public Optional<Customer> findCustomer(Long id) {
+        if (!enabled || isInSecondLevelCache(id)) {
+            return customerRepository.findById(id);
+        }
+        return Optional.ofNullable(
+                (TransactionSynchronizationManager.isActualTransactionActive() ? customersInTransaction : customers)
+                        .load(id, DeadlineContext.current()));
+    }
+
+    private boolean isInSecondLevelCache(Long id) {
+        return entityManagerFactory != null && entityManagerFactory.getCache().contains(Customer.class, id);
+    }
+
+    /** Reward-eligible transactions of the customer in the window, newest first. */
+    public List<Transaction> findEligibleTransactions(Long customerId, LocalDateTime startDate, LocalDateTime endDate) {
+        if (!enabled) {
+            return transactionRepository.findEligibleTransactions(customerId, RewardsService.COMPLETED_STATUS,
+                    RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS, startDate, endDate);
+        }
+        return (TransactionSynchronizationManager.isActualTransactionActive() ? transactionsInTransaction : transactions)
+                .load(new WindowKey(customerId, startDate, endDate), DeadlineContext.current());
+    }
+
+    private Map<Long, Customer> loadCustomers(List<Long> ids) {
+        if (customerBatchSizes != null) {
+            customerBatchSizes.record(ids.size());
+        }
+        Map<Long, Customer> byId = new HashMap<>();
+        customerRepository.findAllById(ids).forEach(customer -> byId.put(customer.getId(), detached(customer)));
+        return byId;
+    }
+
+    /** One query per distinct window in the batch; requests for relative windows share them once aligned. */
+    private Map<WindowKey, List<Transaction>> loadTransactions(List<WindowKey> keys) {
+        Map<List<LocalDateTime>, List<Long>> customersByWindow = new LinkedHashMap<>();
+        for (WindowKey key : keys) {
+            customersByWindow.computeIfAbsent(Arrays.asList(key.startDate(), key.endDate()),
+                    w -> new ArrayList<>()).add(key.customerId());
+        }
+        Map<WindowKey, List<Transaction>> byKey = new HashMap<>();
+        customersByWindow.forEach((window, customerIds) -> {
+            if (transactionBatchSizes != null) {
+                transactionBatchSizes.record(customerIds.size());
+            }
+            LocalDateTime startDate = window.get(0);
+            LocalDateTime endDate = window.get(1);
+            for (Long customerId : customerIds) {
+                byKey.put(new WindowKey(customerId, startDate, endDate), new ArrayList<>());
+            }
+            // Rows arrive newest first, so each customer's list keeps that order
+            transactionRepository.findEligibleTransactionsForCustomers(customerIds, RewardsService.COMPLETED_STATUS,
+                            RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS, startDate, endDate)
+                    .forEach(t -> byKey.get(new WindowKey(t.getCustomerId(), startDate, endDate)).add(detached(t)));
+        });
+        return byKey;
+    }
+
+    /** Outside a transaction the repository's own session is already closed and the entity detached. */
+    private <T> T detached(T entity) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.detach(entity);
+        }
+        return entity;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        customerBatchSizes = batchSizes(registry, "customers");
+        transactionBatchSizes = batchSizes(registry, "transactions");
+        FunctionCounter.builder("rewards.batching.fallbacks", this,
+                        b -> b.customers.fallbacks() + b.customersInTransaction.fallbacks()
+                                + b.transactions.fallbacks() + b.transactionsInTransaction.fallbacks())
+                .description("Lookups retried alone after the batch they joined failed")
+                .register(registry);
+    }
+
+    private static DistributionSummary batchSizes(MeterRegistry registry, String lookup) {
+        return DistributionSummary.builder("rewards.batching.batch.size")
+                .description("Keys per batched lookup query; the count is the number of queries")
+                .tag("lookup", lookup)
+                .register(registry);
+    }
+
+    private record WindowKey(Long customerId, LocalDateTime startDate, LocalDateTime endDate) {
+    }
+}
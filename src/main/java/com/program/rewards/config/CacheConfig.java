@@ -1,31 +1,41 @@
 package com.program.rewards.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.program.rewards.invalidation.CustomerIndexedCache;
+import com.program.rewards.service.RewardsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.List;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
     
+    /**
+     * Entries of a changed customer are evicted on every node by
+     * {@link com.program.rewards.invalidation.RewardsCacheInvalidator}, so the TTL only bounds staleness from
+     * writes that bypass JPA.
+     */
     @Bean
-    public Caffeine<Object, Object> caffeineConfig() {
+    public Caffeine<Object, Object> caffeineConfig(@Value("${rewards.cache.ttl:1h}") Duration ttl) {
         return Caffeine.newBuilder()
                 .initialCapacity(10)
                 .maximumSize(50)
-                .expireAfterWrite(1, TimeUnit.HOURS)
+                .expireAfterWrite(ttl)
                 .recordStats();
     }
 
+    /** The rewards cache indexes its keys by customer, so invalidating a customer does not scan it. */
     @Bean
     public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
-        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager("rewards");
-        caffeineCacheManager.setCaffeine(caffeine);
-        return caffeineCacheManager;
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(CustomerIndexedCache.build(RewardsService.REWARDS_CACHE, caffeine)));
+        return cacheManager;
     }
 }
@@ -0,0 +1,48 @@
+package com.program.rewards.config;
+
+import com.program.rewards.invalidation.InvalidationBus;
+import com.program.rewards.invalidation.LocalInvalidationBus;
+import com.program.rewards.invalidation.UdpInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Transport of rewards cache invalidations, chosen with {@code rewards.cache.invalidation.transport}:
+ * {@code local} for a single instance, or {@code udp} to exchange them with the listed peers.
+ */
+@Configuration
+public class CacheInvalidationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "rewards.cache.invalidation.transport", havingValue = "local", matchIfMissing = true)
+    public InvalidationBus localInvalidationBus() {
+        return new LocalInvalidationBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "rewards.cache.invalidation.transport", havingValue = "udp")
+    public InvalidationBus udpInvalidationBus(
+            @Value("${rewards.cache.invalidation.udp.bind:0.0.0.0:9701}") String bind,
+            @Value("${rewards.cache.invalidation.udp.peers:}") String peers) {
+        List<InetSocketAddress> peerAddresses = Arrays.stream(peers.split(","))
+                .map(String::trim)
+                .filter(peer -> !peer.isEmpty())
+                .map(CacheInvalidationConfig::parseAddress)
+                .toList();
+        return new UdpInvalidationBus(parseAddress(bind), peerAddresses);
+    }
+
+    private static InetSocketAddress parseAddress(String hostAndPort) {
+        int colon = hostAndPort.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Expected host:port but got '" + hostAndPort + "'");
+        }
+        return new InetSocketAddress(hostAndPort.substring(0, colon), Integer.parseInt(hostAndPort.substring(colon + 1)));
+    }
+}
@@ -2,13 +2,16 @@ package com.program.rewards.config;
 
 import com.program.rewards.entity.Customer;
 import com.program.rewards.entity.Transaction;
+import com.program.rewards.loading.DataLoadTracker;
 import com.program.rewards.repository.CustomerRepository;
 import com.program.rewards.repository.TransactionRepository;
+import com.program.rewards.util.RewardsUtil;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
 import java.io.BufferedReader;
 import java.io.InputStream;
@@ -19,25 +22,56 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
+/**
+ * Seeds the sample customers and the transactions from {@code data/transactions.csv}. The load runs on
+ * a background thread so the web server starts straight away; {@link DataLoadTracker} keeps the
+ * readiness probe down until it finishes and lets customers be served as soon as their rows are in.
+ */
 @Configuration
-@Profile("!test") // Exclude from tests unless specifically needed
+@Profile("!test & !generator") // Exclude from tests and synthetic data runs
 public class DataInitializer {
 
     @Bean
-    public CommandLineRunner loadData(TransactionRepository transactionRepository,CustomerRepository customerRepository) {
-        return args -> {
-            // Initialize customers first
-            initializeCustomers(customerRepository);
-            // Only insert if database is empty
-            if (transactionRepository.count() == 0) {
-                List<Transaction> transactions = loadTransactionsFromCsv();
-                transactionRepository.saveAll(transactions);
-                System.out.println("Loaded " + transactions.size() + " transactions from CSV file.");
+    public CommandLineRunner loadData(TransactionRepository transactionRepository, CustomerRepository customerRepository,
+                                      DataLoadTracker dataLoadTracker) {
+        dataLoadTracker.pending("csv");
+        return args -> new SimpleAsyncTaskExecutor("data-load-").execute(() -> {
+            try {
+                load(transactionRepository, customerRepository, dataLoadTracker);
+            } catch (RuntimeException e) {
+                dataLoadTracker.failed(e);
             }
-        };
+        });
     }
-    
+
+    private void load(TransactionRepository transactionRepository, CustomerRepository customerRepository,
+                      DataLoadTracker dataLoadTracker) {
+        // Initialize customers first
+        initializeCustomers(customerRepository);
+        // Only insert if database is empty
+        if (transactionRepository.count() == 0) {
+            List<Transaction> transactions = loadTransactionsFromCsv();
+            dataLoadTracker.started(transactions.size());
+
+            // Save one customer at a time so each becomes available as soon as its history is complete
+            Map<Long, List<Transaction>> byCustomer = transactions.stream()
+                    .collect(Collectors.groupingBy(Transaction::getCustomerId, TreeMap::new, Collectors.toList()));
+            byCustomer.forEach((customerId, customerTransactions) -> {
+                transactionRepository.saveAll(customerTransactions);
+                dataLoadTracker.rowsLoaded(customerTransactions.size());
+                dataLoadTracker.customersLoaded(customerId, customerId);
+            });
+            System.out.println("Loaded " + transactions.size() + " transactions from CSV file.");
+        } else {
+            dataLoadTracker.started(0);
+        }
+        dataLoadTracker.completed();
+    }
+
     private List<Transaction> loadTransactionsFromCsv() {
         List<Transaction> transactions = new ArrayList<>();
         DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
@@ -79,7 +113,7 @@ public class DataInitializer {
                     }
                     
                     Transaction transaction = new Transaction();
-                    transaction.setAmount(Double.parseDouble(values[0].trim()));
+                    transaction.setAmountCents(RewardsUtil.parseCents(values[0]));
                     transaction.setStatus(values[1].trim());
                     transaction.setTransactionDate(LocalDateTime.parse(values[2].trim(), formatter));
                     transaction.setCustomerId(Long.parseLong(values[3].trim()));
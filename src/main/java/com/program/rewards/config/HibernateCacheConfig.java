@@ -0,0 +1,68 @@
+package com.program.rewards.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for {@link com.program.rewards.entity.Customer}.
+ * The JCache manager is created here and handed to Hibernate so the region can be
+ * sized explicitly and its statistics bound to Micrometer ({@code cache.gets}, {@code cache.puts}, ...
+ * tagged {@code cache=customers}).
+ * <p>
+ * The manager is private to this context, under a URI of its own: the provider's default manager is shared
+ * by everything in the JVM, so closing it with the context would close it for them too.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String CUSTOMER_REGION = "customers";
+
+    @Value("${rewards.customer-cache.max-size:10000}")
+    private long customerCacheMaxSize;
+
+    @Value("${rewards.customer-cache.ttl:1h}")
+    private Duration customerCacheTtl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create(HibernateCacheConfig.class.getName() + ":" + UUID.randomUUID()),
+                HibernateCacheConfig.class.getClassLoader());
+
+        CaffeineConfiguration<Object, Object> customerRegion = new CaffeineConfiguration<>();
+        customerRegion.setMaximumSize(OptionalLong.of(customerCacheMaxSize));
+        customerRegion.setExpireAfterWrite(OptionalLong.of(customerCacheTtl.toNanos()));
+        customerRegion.setStatisticsEnabled(true);
+        cacheManager.createCache(CUSTOMER_REGION, customerRegion);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    @Bean
+    public MeterBinder customerRegionMetrics(CacheManager hibernateCacheManager) {
+        Cache<Object, Object> region = hibernateCacheManager.getCache(CUSTOMER_REGION);
+        return new JCacheMetrics<>(region, Tags.of("region", CUSTOMER_REGION));
+    }
+}
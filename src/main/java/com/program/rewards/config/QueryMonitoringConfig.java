@@ -0,0 +1,37 @@
+package com.program.rewards.config;
+
+import com.program.rewards.monitoring.RepositoryQueryAspect;
+import com.program.rewards.monitoring.SlowQueriesEndpoint;
+import com.program.rewards.monitoring.SlowQueryLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Opt-in JPA visibility, enabled with {@code rewards.jpa.statistics.enabled=true}.
+ * The same flag turns on Hibernate statistics, which Boot publishes as {@code hibernate.*} meters.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rewards.jpa.statistics.enabled", havingValue = "true")
+public class QueryMonitoringConfig {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${rewards.jpa.slow-query.threshold:50ms}") Duration threshold,
+                                     @Value("${rewards.jpa.slow-query.capacity:50}") int capacity) {
+        return new SlowQueryLog(threshold.toNanos(), capacity);
+    }
+
+    @Bean
+    public RepositoryQueryAspect repositoryQueryAspect(SlowQueryLog slowQueryLog, MeterRegistry meterRegistry) {
+        return new RepositoryQueryAspect(slowQueryLog, meterRegistry);
+    }
+
+    @Bean
+    public SlowQueriesEndpoint slowQueriesEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueriesEndpoint(slowQueryLog);
+    }
+}
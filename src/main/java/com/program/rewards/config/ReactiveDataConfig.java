@@ -0,0 +1,48 @@
+package com.program.rewards.config;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Reactive access to the same H2 database the JPA side uses, for the non-blocking
+ * rewards endpoint. The connection settings are derived from {@code spring.datasource.*}
+ * so both stacks always see the same data.
+ * <p>
+ * The R2DBC {@code ConnectionFactory} is deliberately not exposed as a bean: Boot backs off
+ * its JDBC {@code DataSource} as soon as one exists, which would take JPA down with it.
+ * For the same reason {@code R2dbcAutoConfiguration} is excluded on the application class.
+ * <p>
+ * r2dbc-h2 ignores {@code Connection.setStatementTimeout} and does not stop a running statement when
+ * its subscriber cancels, so reactive sessions carry H2's {@code QUERY_TIMEOUT} instead, set to the
+ * longest deadline a request can have.
+ */
+@Configuration
+public class ReactiveDataConfig {
+
+    private static final String JDBC_H2_PREFIX = "jdbc:h2:";
+    private static final String QUERY_TIMEOUT = "QUERY_TIMEOUT";
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(
+            @Value("${spring.datasource.url}") String jdbcUrl,
+            @Value("${spring.datasource.username:sa}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${rewards.deadline.max-timeout:30s}") Duration maxTimeout) {
+        if (!jdbcUrl.startsWith(JDBC_H2_PREFIX)) {
+            throw new IllegalStateException("The reactive rewards endpoint requires an H2 datasource, got " + jdbcUrl);
+        }
+        H2ConnectionConfiguration configuration = H2ConnectionConfiguration.builder()
+                .url(jdbcUrl.substring(JDBC_H2_PREFIX.length()))
+                .username(username)
+                .password(password)
+                .property(QUERY_TIMEOUT, String.valueOf(maxTimeout.toMillis()))
+                .build();
+        return DatabaseClient.create(new H2ConnectionFactory(configuration));
+    }
+}
@@ -0,0 +1,35 @@
+package com.program.rewards.config;
+
+import com.program.rewards.routing.CustomerRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Customer affinity routing across instances, enabled with {@code rewards.routing.enabled=true}; see
+ * {@link com.program.rewards.routing.CustomerRoutingInterceptor}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rewards.routing.enabled", havingValue = "true")
+public class RoutingConfig {
+
+    @Bean
+    public CustomerRouter customerRouter(
+            @Value("${rewards.routing.self:http://localhost:${server.port:8080}}") String self,
+            @Value("${rewards.routing.members:}") String members,
+            @Value("${rewards.routing.virtual-nodes:160}") int virtualNodes,
+            @Value("${rewards.routing.health-check-interval:2s}") Duration healthCheckInterval,
+            @Value("${rewards.routing.connect-timeout:500ms}") Duration connectTimeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+        return new CustomerRouter(self, Arrays.stream(members.split(",")).filter(member -> !member.isBlank()).toList(),
+                virtualNodes, healthCheckInterval, connectTimeout, httpClient);
+    }
+}
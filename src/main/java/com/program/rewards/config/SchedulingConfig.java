@@ -0,0 +1,12 @@
+package com.program.rewards.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} jobs: the rewards cache clear and the month-close snapshot job.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,79 @@
+package com.program.rewards.config;
+
+import com.program.rewards.generator.SyntheticDataGenerator;
+import com.program.rewards.loading.DataLoadTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Seeds a large synthetic dataset instead of the sample CSV when the {@code generator} profile is active,
+ * e.g. {@code --spring.profiles.active=generator --rewards.generator.customers=1000000}.
+ * Generation runs in the background and is reported through {@link DataLoadTracker}.
+ */
+@Slf4j
+@Configuration
+@Profile("generator")
+public class SyntheticDataInitializer {
+
+    @Bean
+    public CommandLineRunner generateData(
+            JdbcTemplate jdbcTemplate,
+            @Value("${rewards.generator.customers:10000}") int customers,
+            @Value("${rewards.generator.transactions-per-customer:20}") double transactionsPerCustomer,
+            @Value("${rewards.generator.max-transactions-per-customer:10000}") int maxTransactionsPerCustomer,
+            @Value("${rewards.generator.zipf-exponent:1.0}") double zipfExponent,
+            @Value("${rewards.generator.months:24}") int months,
+            @Value("${rewards.generator.end-date:}") String endDate,
+            @Value("${rewards.generator.seed:42}") long seed,
+            @Value("${rewards.generator.failed-rate:0.05}") double failedRate,
+            @Value("${rewards.generator.batch-size:1000}") int batchSize,
+            @Value("${rewards.generator.threads:0}") int threads,
+            DataLoadTracker dataLoadTracker) {
+        dataLoadTracker.pending("generator");
+        return args -> new SimpleAsyncTaskExecutor("data-load-").execute(() -> {
+            SyntheticDataGenerator.Settings settings = new SyntheticDataGenerator.Settings(
+                    customers,
+                    transactionsPerCustomer,
+                    maxTransactionsPerCustomer,
+                    zipfExponent,
+                    months,
+                    endDate.isBlank() ? LocalDate.now() : LocalDate.parse(endDate),
+                    seed,
+                    failedRate,
+                    batchSize,
+                    threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+            try {
+                SyntheticDataGenerator.Summary summary = new SyntheticDataGenerator(jdbcTemplate, settings)
+                        .generate(new TrackingListener(dataLoadTracker));
+                log.info("Generated {} customers and {} transactions in {} ms ({} rows/s)",
+                        summary.customers(), summary.transactions(), summary.elapsedMs(),
+                        (summary.customers() + summary.transactions()) * 1000 / Math.max(summary.elapsedMs(), 1));
+                dataLoadTracker.completed();
+            } catch (RuntimeException e) {
+                dataLoadTracker.failed(e);
+            }
+        });
+    }
+
+    private record TrackingListener(DataLoadTracker tracker) implements SyntheticDataGenerator.Listener {
+
+        @Override
+        public void started(long customers, long transactions) {
+            tracker.started(customers + transactions);
+        }
+
+        @Override
+        public void chunkWritten(int firstCustomerId, int lastCustomerId, long rows) {
+            tracker.rowsLoaded(rows);
+            tracker.customersLoaded(firstCustomerId, lastCustomerId);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.program.rewards.config;
+
+import com.program.rewards.tracing.TailSamplingSpanProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanProcessors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Tail-based trace sampling, enabled with {@code rewards.tracing.tail-sampling.enabled=true}.
+ * <p>
+ * Every request is recorded ({@code management.tracing.sampling.probability} no longer applies) and
+ * the span processors Boot would otherwise install directly, including the batch exporter, are put
+ * behind a {@link TailSamplingSpanProcessor} that only passes on slow, failed and randomly sampled
+ * traces.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rewards.tracing.tail-sampling.enabled", havingValue = "true")
+public class TracingConfig {
+
+    @Bean
+    public Sampler otelSampler() {
+        return Sampler.parentBased(Sampler.alwaysOn());
+    }
+
+    @Bean
+    public SpanProcessors spanProcessors(
+            ObjectProvider<SpanProcessor> spanProcessors,
+            MeterRegistry meterRegistry,
+            @Value("${rewards.tracing.tail-sampling.latency-threshold:500ms}") Duration latencyThreshold,
+            @Value("${rewards.tracing.tail-sampling.base-rate:0.01}") double baseRate,
+            @Value("${rewards.tracing.tail-sampling.max-pending-traces:10000}") int maxPendingTraces,
+            @Value("${rewards.tracing.tail-sampling.max-spans-per-trace:256}") int maxSpansPerTrace,
+            @Value("${rewards.tracing.tail-sampling.max-trace-duration:60s}") Duration maxTraceDuration) {
+        SpanProcessor downstream = SpanProcessor.composite(spanProcessors.orderedStream().toList());
+        return SpanProcessors.of(new TailSamplingSpanProcessor(downstream, latencyThreshold, baseRate,
+                maxPendingTraces, maxSpansPerTrace, maxTraceDuration, meterRegistry));
+    }
+}
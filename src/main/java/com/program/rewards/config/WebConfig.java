@@ -0,0 +1,64 @@
+package com.program.rewards.config;
+
+import com.program.rewards.deadline.DeadlineFilter;
+import com.program.rewards.limit.AdaptiveConcurrencyLimiter;
+import com.program.rewards.limit.ConcurrencyLimitInterceptor;
+import com.program.rewards.loading.DataLoadInterceptor;
+import com.program.rewards.loading.DataLoadTracker;
+import com.program.rewards.routing.CustomerRouter;
+import com.program.rewards.routing.CustomerRoutingInterceptor;
+import com.program.rewards.service.RewardsService;
+import com.program.rewards.window.RewardsWindowResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final DataLoadTracker dataLoadTracker;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final CacheManager cacheManager;
+    private final RewardsWindowResolver windowResolver;
+    private final ObjectProvider<CustomerRouter> customerRouter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rewards.deadline.header:X-Request-Timeout}")
+    private String deadlineHeader;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // First, so requests served by another instance take no local permit
+        customerRouter.ifAvailable(router -> registry.addInterceptor(
+                        new CustomerRoutingInterceptor(router, deadlineHeader, meterRegistry))
+                .addPathPatterns("/api/customers/*/rewards"));
+        registry.addInterceptor(new DataLoadInterceptor(dataLoadTracker)).addPathPatterns("/api/**");
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(concurrencyLimiter,
+                        cacheManager.getCache(RewardsService.REWARDS_CACHE), windowResolver))
+                .addPathPatterns("/api/customers/*/rewards");
+        // The reactive endpoint does not use the cache, so every call takes a permit
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(concurrencyLimiter, null, windowResolver))
+                .addPathPatterns("/api/reactive/customers/*/rewards");
+    }
+
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(
+            @Value("${rewards.deadline.header:X-Request-Timeout}") String header,
+            @Value("${rewards.deadline.default-timeout:10s}") Duration defaultTimeout,
+            @Value("${rewards.deadline.max-timeout:30s}") Duration maxTimeout) {
+        FilterRegistrationBean<DeadlineFilter> registration =
+                new FilterRegistrationBean<>(new DeadlineFilter(header, defaultTimeout, maxTimeout));
+        registration.addUrlPatterns("/api/customers/*", "/api/reactive/*");
+        return registration;
+    }
+}
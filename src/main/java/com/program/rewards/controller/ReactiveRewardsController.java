@@ -0,0 +1,132 @@
+package com.program.rewards.controller;
+
+import com.program.rewards.config.EncodingConfig;
+import com.program.rewards.deadline.Deadline;
+import com.program.rewards.deadline.DeadlineContext;
+import com.program.rewards.dto.ErrorResponse;
+import com.program.rewards.dto.RewardsResponse;
+import com.program.rewards.exception.DeadlineExceededException;
+import com.program.rewards.service.ReactiveRewardsService;
+import com.program.rewards.window.DateWindow;
+import com.program.rewards.window.NamedWindow;
+import com.program.rewards.window.RewardsWindowResolver;
+import io.micrometer.core.annotation.Timed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking variant of {@code GET /api/customers/{customerId}/rewards} for fan-out callers.
+ * The request thread is released while the {@link Mono} completes, see {@link ReactiveRewardsService}.
+ * Parameters and response are identical to the servlet endpoint, but every request streams its
+ * transactions: the rewards cache, the closed-month snapshots and the points history index are bypassed.
+ * The request deadline is applied as a timeout on the {@link Mono}.
+ */
+@Slf4j
+@Tag(name = "Rewards (reactive)", description = "Non-blocking variant of the rewards API")
+@RestController
+@RequiredArgsConstructor
+@Validated
+@RequestMapping("/api/reactive")
+public class ReactiveRewardsController {
+
+    private final ReactiveRewardsService reactiveRewardsService;
+    private final RewardsWindowResolver windowResolver;
+
+    @Operation(
+            summary = "Get customer rewards (non-blocking)",
+            description = "Streams the customer's eligible transactions from the database and folds them into " +
+                    "monthly points. Accepts the same parameters as /api/customers/{customerId}/rewards"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved rewards",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = RewardsResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input parameters",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Customer not found with the specified ID",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @Timed(value = "customer.rewards.reactive", description = "Track count and latency")
+    @GetMapping(value = "/customers/{customerId}/rewards", produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            EncodingConfig.APPLICATION_SMILE_VALUE
+    })
+    public Mono<RewardsResponse> getMonthlyRewards(
+            @Parameter(description = "ID of the customer", required = true, example = "1")
+            @Min(value = 1, message = "Customer ID must be a positive number")
+            @PathVariable Long customerId,
+
+            @Parameter(description = "Number of days back from endDate", example = "30")
+            @Min(value = 1, message = "Days must be a positive number")
+            @Max(value = 1000, message = "Can only rewards details for last 1000 days")
+            @RequestParam(required = false)
+            Integer days,
+
+            @Parameter(description = "Number of months back from endDate, used when startDate and days are absent",
+                    example = "6")
+            @Min(value = 1, message = "Months must be a positive number")
+            @Max(value = 36, message = "Can only rewards details for last 36 months")
+            @RequestParam(required = false)
+            Integer months,
+
+            @Parameter(description = "Named calendar window, used when startDate is absent; takes precedence over days and months",
+                    example = "LAST_3_MONTHS")
+            @RequestParam(required = false)
+            NamedWindow window,
+
+            @Parameter(description = "Start date (format: yyyy-MM-dd'T'HH:mm:ss)", example = "2023-01-01T00:00:00")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime startDate,
+
+            @Parameter(description = "End date (format: yyyy-MM-dd'T'HH:mm:ss), defaults to now",
+                    example = "2023-12-31T23:59:59")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime endDate,
+
+            @Parameter(description = "Whether to include the list of transactions in the response", example = "false")
+            @RequestParam(defaultValue = "false")
+            boolean showTransactions) {
+
+        DateWindow effectiveWindow = windowResolver.resolve(startDate, endDate, days, months, window);
+        Mono<RewardsResponse> rewards = reactiveRewardsService.calculateMonthlyRewards(
+                customerId, effectiveWindow.start(), effectiveWindow.end(), showTransactions);
+        Deadline deadline = DeadlineContext.current();
+        if (deadline == null) {
+            return rewards;
+        }
+        // Answers 504 at the deadline; a running H2 statement is only bounded by QUERY_TIMEOUT, see ReactiveDataConfig
+        return rewards.timeout(deadline.remaining(), Mono.error(() -> new DeadlineExceededException(String.format(
+                "Deadline of %d ms exceeded calculating rewards for customer %d",
+                deadline.getTimeout().toMillis(), customerId))));
+    }
+}
@@ -1,7 +1,12 @@
 package com.program.rewards.controller;
 
+import com.program.rewards.config.EncodingConfig;
 import com.program.rewards.dto.RewardsResponse;
+import com.program.rewards.dto.TransactionPage;
 import com.program.rewards.service.RewardsService;
+import com.program.rewards.window.DateWindow;
+import com.program.rewards.window.NamedWindow;
+import com.program.rewards.window.RewardsWindowResolver;
 import io.micrometer.core.annotation.Timed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -33,6 +38,7 @@ import java.time.LocalDateTime;
 public class RewardsController {
 
     private final RewardsService rewardsService;
+    private final RewardsWindowResolver windowResolver;
 
     @Operation(
             summary = "Get customer rewards",
@@ -41,9 +47,15 @@ public class RewardsController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "Successfully retrieved rewards",
-                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
-                            schema = @Schema(implementation = RewardsResponse.class))
+                    description = "Successfully retrieved rewards. Binary encodings (CBOR, Smile) are returned when requested via the Accept header",
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = RewardsResponse.class)),
+                            @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE,
+                                    schema = @Schema(implementation = RewardsResponse.class)),
+                            @Content(mediaType = EncodingConfig.APPLICATION_SMILE_VALUE,
+                                    schema = @Schema(implementation = RewardsResponse.class))
+                    }
             ),
             @ApiResponse(
                     responseCode = "400",
@@ -106,10 +118,26 @@ public class RewardsController {
                                             }
                                             """
                             ))
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Too many concurrent requests or data still loading; retry after the Retry-After delay",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "504",
+                    description = "The request deadline (X-Request-Timeout header or the configured default) passed",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))
             )
     })
     @Timed(value = "customer.rewards", description = "Track count and latency")
-    @GetMapping(value = "/customers/{customerId}/rewards", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/customers/{customerId}/rewards", produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            EncodingConfig.APPLICATION_SMILE_VALUE
+    })
     public ResponseEntity<RewardsResponse> getMonthlyRewards(
             @Parameter(description = "ID of the customer", required = true, example = "1")
             @Min(value = 1, message = "Customer ID must be a positive number")
@@ -131,8 +159,14 @@ public class RewardsController {
             @RequestParam(required = false)
             Integer months,
 
+            @Parameter(description = "Named calendar window, e.g. LAST_3_MONTHS or YTD. Takes precedence over 'days' and " +
+                    "'months' and is only used when startDate is not provided.",
+                    example = "LAST_3_MONTHS")
+            @RequestParam(required = false)
+            NamedWindow window,
+
             @Parameter(description = "Start date for filtering transactions (format: yyyy-MM-dd'T'HH:mm:ss). " +
-                    "If not provided, 'days' or 'months' parameters will be used if available.",
+                    "If not provided, 'window', 'days' or 'months' parameters will be used if available.",
                     example = "2023-01-01T00:00:00")
             @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
@@ -149,24 +183,72 @@ public class RewardsController {
             @RequestParam(defaultValue = "false")
             boolean showTransactions) {
 
-        LocalDateTime effectiveEndDate = endDate != null ? endDate : LocalDateTime.now();
-        LocalDateTime effectiveStartDate = startDate;
-
-        // Only use days parameter if startDate is not provided
-        if (effectiveStartDate == null) {
-            if (days != null) {
-                effectiveStartDate = effectiveEndDate.minusDays(days);
-            } else if (months != null) {
-                effectiveStartDate = effectiveEndDate.minusMonths(months);
-            }
-        }
+        DateWindow effectiveWindow = windowResolver.resolve(startDate, endDate, days, months, window);
 
         RewardsResponse response = rewardsService.calculateMonthlyRewards(
                 customerId,
-                effectiveStartDate,
-                effectiveEndDate,
+                effectiveWindow.start(),
+                effectiveWindow.end(),
                 showTransactions
         );
         return ResponseEntity.ok(response);
     }
+
+    @Operation(
+            summary = "List customer transactions",
+            description = "Returns reward-eligible transactions newest first, one bounded page at a time. " +
+                    "Pass the returned nextCursor to fetch the following page."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved a page of transactions",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = TransactionPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input parameters (e.g., invalid cursor, page size out of range)",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Customer not found with the specified ID",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @Timed(value = "customer.transactions", description = "Track count and latency")
+    @GetMapping(value = "/customers/{customerId}/transactions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TransactionPage> getTransactions(
+            @Parameter(description = "ID of the customer", required = true, example = "1")
+            @Min(value = 1, message = "Customer ID must be a positive number")
+            @PathVariable Long customerId,
+
+            @Parameter(description = "Start date for filtering transactions (format: yyyy-MM-dd'T'HH:mm:ss)",
+                    example = "2023-01-01T00:00:00")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime startDate,
+
+            @Parameter(description = "End date for filtering transactions (format: yyyy-MM-dd'T'HH:mm:ss)",
+                    example = "2023-12-31T23:59:59")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime endDate,
+
+            @Parameter(description = "Cursor returned as nextCursor by the previous page; omit for the first page")
+            @RequestParam(required = false)
+            String cursor,
+
+            @Parameter(description = "Maximum number of transactions per page", example = "20")
+            @Min(value = 1, message = "Page size must be a positive number")
+            @Max(value = 100, message = "Page size can be at most 100")
+            @RequestParam(defaultValue = "20")
+            int size) {
+
+        TransactionPage page = rewardsService.getTransactionPage(customerId, startDate, endDate, cursor, size);
+        return ResponseEntity.ok(page);
+    }
 }
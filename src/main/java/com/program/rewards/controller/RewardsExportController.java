@@ -0,0 +1,105 @@
+package com.program.rewards.controller;
+
+import com.program.rewards.dto.ErrorResponse;
+import com.program.rewards.exception.InvalidDateRangeException;
+import com.program.rewards.service.RewardsExportService;
+import io.micrometer.core.annotation.Timed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Bulk export of monthly points for every customer. Rows are written to the response as they
+ * are produced, so the export is not buffered and memory use does not depend on the period.
+ */
+@Slf4j
+@Tag(name = "Rewards export", description = "Bulk export of monthly rewards for all customers")
+@RestController
+@RequiredArgsConstructor
+@Validated
+@RequestMapping("/api/rewards")
+public class RewardsExportController {
+
+    private final RewardsExportService rewardsExportService;
+
+    @Operation(
+            summary = "Export monthly rewards for all customers",
+            description = "Streams one row per customer and month with the points earned and the number of " +
+                    "eligible transactions, ordered by customer ID and month. CSV starts with a header row"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Export streamed",
+                    content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input parameters",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @Timed(value = "rewards.export", description = "Track count and latency")
+    @GetMapping("/export")
+    public void exportRewards(
+            @Parameter(description = "Start date (format: yyyy-MM-dd'T'HH:mm:ss)", required = true,
+                    example = "2023-01-01T00:00:00")
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime startDate,
+
+            @Parameter(description = "End date (format: yyyy-MM-dd'T'HH:mm:ss), defaults to now",
+                    example = "2023-12-31T23:59:59")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime endDate,
+
+            @Parameter(description = "Output format, csv or ndjson", example = "csv")
+            @Pattern(regexp = "(?i)csv|ndjson", message = "Format must be csv or ndjson")
+            @RequestParam(defaultValue = "csv")
+            String format,
+
+            @Parameter(description = "Number of customer ID ranges exported in parallel", example = "1")
+            @Min(value = 1, message = "Partitions must be a positive number")
+            @Max(value = 16, message = "Can only export with up to 16 partitions")
+            @RequestParam(defaultValue = "1")
+            int partitions,
+
+            HttpServletResponse response) throws IOException {
+
+        LocalDateTime effectiveEndDate = endDate != null ? endDate : LocalDateTime.now();
+        // Before the content type is set, so the error can still be written as JSON
+        if (startDate.isAfter(effectiveEndDate)) {
+            throw new InvalidDateRangeException(String.format(
+                    "startDate %s must not be after endDate %s", startDate, effectiveEndDate));
+        }
+        RewardsExportService.Format exportFormat =
+                RewardsExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"rewards-"
+                + startDate.toLocalDate() + "-" + effectiveEndDate.toLocalDate() + "." + exportFormat.getExtension() + "\"");
+        rewardsExportService.export(startDate, effectiveEndDate, exportFormat, partitions, response.getOutputStream());
+    }
+}
@@ -0,0 +1,54 @@
+package com.program.rewards.deadline;
+
+import com.program.rewards.exception.DeadlineExceededException;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which the caller needs an answer. Work still running past it is of no use to
+ * anyone and should be abandoned.
+ */
+public final class Deadline {
+
+    private final long deadlineNanos;
+    private final Duration timeout;
+
+    private Deadline(long deadlineNanos, Duration timeout) {
+        this.deadlineNanos = deadlineNanos;
+        this.timeout = timeout;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos(), timeout);
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /** Time left, never negative. */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Time left in whole seconds, rounded up and at least one, for APIs such as transaction and
+     * JDBC query timeouts that only take seconds.
+     */
+    public int remainingSeconds() {
+        long millis = remaining().toMillis();
+        return (int) Math.max(1, (millis + 999) / 1000);
+    }
+
+    /** Throws {@link DeadlineExceededException} if the deadline has passed before {@code operation} starts. */
+    public void check(String operation) {
+        if (isExpired()) {
+            throw new DeadlineExceededException(
+                    String.format("Deadline of %d ms exceeded before %s", timeout.toMillis(), operation));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.program.rewards.deadline;
+
+/**
+ * Holds the {@link Deadline} of the request being processed on the current thread, set by
+ * {@link DeadlineFilter}.
+ */
+public final class DeadlineContext {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private DeadlineContext() {
+    }
+
+    /** The current request's deadline, or {@code null} outside a request with a deadline. */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static void set(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,55 @@
+package com.program.rewards.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Starts each request's {@link Deadline}: the timeout in milliseconds from the configured header
+ * when the client sends one, otherwise the default, and never more than the maximum.
+ */
+@Slf4j
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final String header;
+    private final Duration defaultTimeout;
+    private final Duration maxTimeout;
+
+    public DeadlineFilter(String header, Duration defaultTimeout, Duration maxTimeout) {
+        this.header = header;
+        this.defaultTimeout = defaultTimeout;
+        this.maxTimeout = maxTimeout;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        DeadlineContext.set(Deadline.after(resolveTimeout(request.getHeader(header))));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DeadlineContext.clear();
+        }
+    }
+
+    Duration resolveTimeout(String value) {
+        Duration timeout = defaultTimeout;
+        if (value != null) {
+            try {
+                timeout = Duration.ofMillis(Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring invalid {} header: {}", header, value);
+            }
+        }
+        if (timeout.isNegative() || timeout.compareTo(maxTimeout) > 0) {
+            return maxTimeout;
+        }
+        return timeout;
+    }
+}
@@ -0,0 +1,22 @@
+package com.program.rewards.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.program.rewards.entity.Transaction;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of reward-eligible transactions, newest first")
+public class TransactionPage {
+    private List<Transaction> transactions;
+
+    @Schema(description = "Cursor for the next page; absent on the last page")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+}
@@ -1,14 +1,21 @@
 package com.program.rewards.entity;
 
+import com.program.rewards.invalidation.RewardsCacheInvalidationListener;
+import com.program.rewards.lookup.CustomerExistenceListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "CUSTOMERS")
+@EntityListeners({CustomerExistenceListener.class, RewardsCacheInvalidationListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "customers")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,14 +1,21 @@
 package com.program.rewards.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.program.rewards.index.PointsHistoryListener;
+import com.program.rewards.invalidation.RewardsCacheInvalidationListener;
+import com.program.rewards.util.RewardsUtil;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "TRANSACTIONS")
+@EntityListeners({RewardsCacheInvalidationListener.class, PointsHistoryListener.class})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,8 +24,15 @@ public class Transaction {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
     
-    private Double amount;
+    /** Amount in whole cents; exposed to API clients as a decimal {@code amount}. */
+    @JsonIgnore
+    private long amountCents;
     private String status;
     private LocalDateTime transactionDate;
     private Long customerId;
+
+    @JsonProperty("amount")
+    public BigDecimal getAmount() {
+        return RewardsUtil.toAmount(amountCents);
+    }
 }
@@ -0,0 +1,19 @@
+package com.program.rewards.exception;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Thrown for unknown customer IDs and mapped to 404. Bad clients can send these at a high rate, so the
+ * exception does not capture a stack trace. It remains a {@link NoSuchElementException} for existing callers.
+ */
+public class CustomerNotFoundException extends NoSuchElementException {
+
+    public CustomerNotFoundException(long customerId) {
+        super("Customer not found with id: " + customerId);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,11 @@
+package com.program.rewards.exception;
+
+/**
+ * Thrown while the initial data load is still running and the requested data is not available yet.
+ */
+public class DataNotReadyException extends RuntimeException {
+
+    public DataNotReadyException(String message) {
+        super(message);
+    }
+}
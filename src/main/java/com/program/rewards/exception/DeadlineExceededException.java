@@ -0,0 +1,16 @@
+package com.program.rewards.exception;
+
+/**
+ * Thrown when a request's deadline passes before its work completes, either between steps or
+ * because a database query was cancelled by its timeout.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.program.rewards.exception;
+
+/**
+ * Thrown when a pagination cursor supplied by the client cannot be decoded.
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
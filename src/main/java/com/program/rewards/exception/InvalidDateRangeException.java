@@ -0,0 +1,11 @@
+package com.program.rewards.exception;
+
+/**
+ * Thrown when a request's start date lies after its end date.
+ */
+public class InvalidDateRangeException extends IllegalArgumentException {
+
+    public InvalidDateRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.program.rewards.exception;
+
+/**
+ * Thrown when the concurrency limiter sheds a request. Rejections happen exactly when the service
+ * is under pressure, so the exception skips capturing a stack trace to keep the 503 path cheap.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(String message) {
+        super(message, null, false, false);
+    }
+}
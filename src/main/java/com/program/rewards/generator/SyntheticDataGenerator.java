@@ -0,0 +1,253 @@
+package com.program.rewards.generator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates a reproducible synthetic dataset of customers and transactions and writes it
+ * straight to the database with batched JDBC inserts.
+ * <p>
+ * Every value (including primary keys) is derived from the seed and the customer ID alone,
+ * so the same settings always produce the same rows regardless of thread scheduling:
+ * <ul>
+ *     <li>Transactions per customer follow a Zipf distribution over a seeded permutation of the
+ *     customer IDs, so heavy customers are spread across the ID space.</li>
+ *     <li>Transaction months are drawn with seasonal weights (holiday peak in November/December).</li>
+ *     <li>Amounts are log-normal around a ~$80 median.</li>
+ * </ul>
+ */
+@Slf4j
+public class SyntheticDataGenerator {
+
+    public record Settings(
+            int customers,
+            double meanTransactionsPerCustomer,
+            int maxTransactionsPerCustomer,
+            double zipfExponent,
+            int months,
+            LocalDate endDate,
+            long seed,
+            double failedRate,
+            int batchSize,
+            int threads) {
+    }
+
+    public record Summary(long customers, long transactions, long elapsedMs) {
+    }
+
+    /** Progress callbacks; {@link #chunkWritten} is called from the writer threads. */
+    public interface Listener {
+
+        Listener NONE = new Listener() {
+        };
+
+        default void started(long customers, long transactions) {
+        }
+
+        /** Customers {@code firstCustomerId..lastCustomerId} and all their transactions have been written. */
+        default void chunkWritten(int firstCustomerId, int lastCustomerId, long rows) {
+        }
+    }
+
+    /** Relative transaction volume per calendar month, January first. */
+    static final double[] SEASONAL_WEIGHTS = {0.80, 0.75, 0.90, 0.90, 0.95, 0.95, 1.00, 1.00, 0.90, 1.00, 1.30, 1.60};
+
+    /** Hibernate's pooled sequence optimizer hands out IDs up to this far below the sequence value. */
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+    private static final int CHUNK_SIZE = 1_000;
+    private static final double MEDIAN_LOG_AMOUNT = Math.log(80);
+    private static final double LOG_AMOUNT_SIGMA = 0.9;
+
+    private static final String INSERT_CUSTOMER =
+            "INSERT INTO CUSTOMERS (id, name, email, join_date, phone, address) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TRANSACTION =
+            "INSERT INTO TRANSACTIONS (id, amount_cents, status, transaction_date, customer_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Settings settings;
+    private final YearMonth firstMonth;
+    private final double[] cumulativeMonthWeights;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, Settings settings) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = settings;
+        this.firstMonth = YearMonth.from(settings.endDate()).minusMonths(settings.months() - 1L);
+        this.cumulativeMonthWeights = new double[settings.months()];
+        double cumulative = 0;
+        for (int i = 0; i < settings.months(); i++) {
+            cumulative += SEASONAL_WEIGHTS[firstMonth.plusMonths(i).getMonthValue() - 1];
+            cumulativeMonthWeights[i] = cumulative;
+        }
+    }
+
+    public Summary generate() {
+        return generate(Listener.NONE);
+    }
+
+    public Summary generate(Listener listener) {
+        long start = System.currentTimeMillis();
+        int[] counts = transactionCounts(settings);
+        // First transaction ID of each customer, so IDs do not depend on insertion order
+        long[] firstTransactionIds = new long[counts.length + 1];
+        firstTransactionIds[0] = 1;
+        for (int i = 0; i < counts.length; i++) {
+            firstTransactionIds[i + 1] = firstTransactionIds[i] + counts[i];
+        }
+        long totalTransactions = firstTransactionIds[counts.length] - 1;
+        log.info("Generating {} customers and {} transactions with seed {} on {} threads",
+                settings.customers(), totalTransactions, settings.seed(), settings.threads());
+        listener.started(settings.customers(), totalTransactions);
+
+        AtomicLong written = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(settings.threads());
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int from = 1; from <= settings.customers(); from += CHUNK_SIZE) {
+                int first = from;
+                int last = Math.min(from + CHUNK_SIZE - 1, settings.customers());
+                chunks.add(executor.submit(() -> {
+                    long rows = writeChunk(first, last, counts, firstTransactionIds, written);
+                    listener.chunkWritten(first, last, rows);
+                }));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Synthetic data generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Synthetic data generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        restartSequence("customers_seq", settings.customers());
+        restartSequence("transactions_seq", totalTransactions);
+        return new Summary(settings.customers(), totalTransactions, System.currentTimeMillis() - start);
+    }
+
+    /** Writes one chunk of customers and their transactions, returning the number of rows inserted. */
+    private long writeChunk(int firstCustomerId, int lastCustomerId, int[] counts, long[] firstTransactionIds,
+                            AtomicLong written) {
+        List<Object[]> customers = new ArrayList<>(lastCustomerId - firstCustomerId + 1);
+        for (int id = firstCustomerId; id <= lastCustomerId; id++) {
+            customers.add(customerRow(id));
+        }
+        jdbcTemplate.batchUpdate(INSERT_CUSTOMER, customers);
+
+        long rows = customers.size();
+        List<Object[]> batch = new ArrayList<>(settings.batchSize());
+        for (int id = firstCustomerId; id <= lastCustomerId; id++) {
+            batch.addAll(transactionRows(id, counts[id - 1], firstTransactionIds[id - 1]));
+            if (batch.size() >= settings.batchSize()) {
+                jdbcTemplate.batchUpdate(INSERT_TRANSACTION, batch);
+                written.addAndGet(batch.size());
+                rows += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION, batch);
+            written.addAndGet(batch.size());
+            rows += batch.size();
+        }
+        log.debug("Wrote customers {}-{}; {} transactions so far", firstCustomerId, lastCustomerId, written.get());
+        return rows;
+    }
+
+    private void restartSequence(String sequence, long maxId) {
+        jdbcTemplate.execute("ALTER SEQUENCE IF EXISTS " + sequence
+                + " RESTART WITH " + (maxId + SEQUENCE_ALLOCATION_SIZE + 1));
+    }
+
+    Object[] customerRow(int customerId) {
+        SplittableRandom random = randomFor(customerId);
+        LocalDate joinDate = firstMonth.atDay(1).minusDays(random.nextInt(365));
+        return new Object[]{
+                (long) customerId,
+                "Customer " + customerId,
+                "customer" + customerId + "@example.com",
+                joinDate,
+                String.format("+1-555-%07d", customerId % 10_000_000),
+                customerId + " Synthetic Ave, Loadtown, USA"
+        };
+    }
+
+    List<Object[]> transactionRows(int customerId, int count, long firstTransactionId) {
+        // Offset the stream so transaction values are independent of the customer row draws
+        SplittableRandom random = randomFor(customerId).split();
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double amount = Math.exp(MEDIAN_LOG_AMOUNT + LOG_AMOUNT_SIGMA * random.nextGaussian());
+            long amountCents = Math.round(Math.min(Math.max(amount, 1.0), 5_000.0) * 100);
+            String status = random.nextDouble() < settings.failedRate() ? "FAILED" : "COMPLETED";
+            rows.add(new Object[]{firstTransactionId + i, amountCents, status, transactionDate(random), (long) customerId});
+        }
+        return rows;
+    }
+
+    private LocalDateTime transactionDate(SplittableRandom random) {
+        double pick = random.nextDouble() * cumulativeMonthWeights[cumulativeMonthWeights.length - 1];
+        int monthIndex = 0;
+        while (cumulativeMonthWeights[monthIndex] < pick) {
+            monthIndex++;
+        }
+        YearMonth month = firstMonth.plusMonths(monthIndex);
+        int lastDay = month.equals(YearMonth.from(settings.endDate()))
+                ? settings.endDate().getDayOfMonth()
+                : month.lengthOfMonth();
+        return month.atDay(1 + random.nextInt(lastDay)).atStartOfDay().plusSeconds(random.nextInt(86_400));
+    }
+
+    private SplittableRandom randomFor(int customerId) {
+        return new SplittableRandom(settings.seed() ^ (customerId * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Transaction count per customer (index = customer ID - 1): customer ranks are a seeded
+     * permutation of the IDs and counts fall off as {@code rank^-zipfExponent}, scaled so the
+     * total matches {@code customers * meanTransactionsPerCustomer} before capping.
+     */
+    static int[] transactionCounts(Settings settings) {
+        int n = settings.customers();
+        double harmonic = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            harmonic += Math.pow(rank, -settings.zipfExponent());
+        }
+        double total = n * settings.meanTransactionsPerCustomer();
+        long stride = coprimeStride(n, settings.seed());
+        long offset = Math.floorMod(settings.seed(), n);
+        int[] counts = new int[n];
+        for (int i = 0; i < n; i++) {
+            long rank = (i * stride + offset) % n + 1;
+            double expected = total * Math.pow(rank, -settings.zipfExponent()) / harmonic;
+            counts[i] = (int) Math.min(Math.round(expected), settings.maxTransactionsPerCustomer());
+        }
+        return counts;
+    }
+
+    private static long coprimeStride(int n, long seed) {
+        long stride = Math.floorMod(seed * 0x9E3779B97F4A7C15L, Math.max(n, 1)) | 1;
+        while (n > 1 && gcd(stride, n) != 1) {
+            stride += 2;
+        }
+        return stride;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,98 @@
+package com.program.rewards.index;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.NavigableMap;
+
+/**
+ * Fenwick trees over one customer's eligible points and transaction counts per day, indexed by the day's
+ * offset from {@code baseDay} (the earlier of the customer's join date and first transaction). Adding a
+ * transaction and summing any range of days both take O(log n) for n days of history, and the trees are plain
+ * {@code int[]}s: 8 bytes per day.
+ * <p>
+ * Capacity is a power of two, so growing keeps every existing node valid: the only new non-empty node is the
+ * root of the doubled tree, which covers all old days.
+ */
+final class DailyPointsTree {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int baseDay;
+    private int[] points;
+    private int[] counts;
+
+    DailyPointsTree(int baseDay) {
+        this.baseDay = baseDay;
+        this.points = new int[INITIAL_CAPACITY + 1];
+        this.counts = new int[INITIAL_CAPACITY + 1];
+    }
+
+    int baseDay() {
+        return baseDay;
+    }
+
+    /** Last day the trees can currently hold. */
+    synchronized int lastDay() {
+        return baseDay + capacity() - 1;
+    }
+
+    /** Returns {@code false} for days before {@link #baseDay()}, which the trees cannot hold. */
+    synchronized boolean add(int epochDay, int transactionPoints) {
+        int offset = epochDay - baseDay;
+        if (offset < 0) {
+            return false;
+        }
+        while (offset >= capacity()) {
+            grow();
+        }
+        for (int i = offset + 1; i <= capacity(); i += i & -i) {
+            points[i] += transactionPoints;
+            counts[i]++;
+        }
+        return true;
+    }
+
+    /**
+     * Adds the points of days {@code fromDay..toDay} to their months, with one pair of range sums per month.
+     * Months with eligible transactions are present even when those earn no points, matching the scan.
+     */
+    synchronized void addPointsByMonth(int fromDay, int toDay, NavigableMap<YearMonth, Integer> pointsByMonth) {
+        int from = Math.max(fromDay, baseDay);
+        int to = Math.min(toDay, lastDay());
+        while (from <= to) {
+            YearMonth month = YearMonth.from(LocalDate.ofEpochDay(from));
+            int monthEnd = Math.min(to, (int) month.atEndOfMonth().toEpochDay());
+            int transactions = rangeSum(counts, from, monthEnd);
+            if (transactions > 0) {
+                pointsByMonth.merge(month, rangeSum(points, from, monthEnd), Integer::sum);
+            }
+            from = monthEnd + 1;
+        }
+    }
+
+    private int rangeSum(int[] tree, int fromDay, int toDay) {
+        return prefixSum(tree, toDay - baseDay) - prefixSum(tree, fromDay - baseDay - 1);
+    }
+
+    /** Sum of offsets {@code 0..offset}. */
+    private static int prefixSum(int[] tree, int offset) {
+        int sum = 0;
+        for (int i = offset + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private int capacity() {
+        return points.length - 1;
+    }
+
+    private void grow() {
+        int capacity = capacity();
+        points = Arrays.copyOf(points, 2 * capacity + 1);
+        counts = Arrays.copyOf(counts, 2 * capacity + 1);
+        points[2 * capacity] = points[capacity];
+        counts[2 * capacity] = counts[capacity];
+    }
+}
@@ -0,0 +1,181 @@
+package com.program.rewards.index;
+
+import com.program.rewards.entity.Transaction;
+import com.program.rewards.loading.DataLoadTracker;
+import com.program.rewards.service.RewardsService;
+import com.program.rewards.util.RewardsUtil;
+import com.program.rewards.window.WindowAlignment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-customer prefix sums of daily points over the whole transaction history, answering any window made of
+ * whole days, explicit or relative, without scanning {@code TRANSACTIONS}: each month of the breakdown costs
+ * two O(log n) range sums. See {@link DailyPointsTree}.
+ * <p>
+ * Built from {@code TRANSACTIONS} once the initial data load has completed and kept current by
+ * {@link PointsHistoryListener} as transactions are inserted. Each customer's tree starts at the earlier of their
+ * join date and their first eligible transaction. A customer whose transactions are updated or deleted, or who
+ * is appended a transaction before the start of their tree, is answered by the scan from then on, as is every
+ * customer while the index is being built.
+ */
+@Slf4j
+@Component
+public class PointsHistoryIndex implements MeterBinder {
+
+    private static final String ELIGIBLE =
+            "SELECT customer_id, amount_cents, transaction_date FROM TRANSACTIONS WHERE status = ? AND amount_cents > ? " +
+            "ORDER BY customer_id, transaction_date";
+    private final JdbcTemplate jdbcTemplate;
+    private final DataLoadTracker dataLoadTracker;
+    private final boolean enabled;
+
+    /** Trees plus the customers they cannot answer for. */
+    private record Trees(Map<Long, DailyPointsTree> byCustomer, Set<Long> unindexed) {
+        Trees() {
+            this(new ConcurrentHashMap<>(), ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    private volatile Trees trees;
+    /** Set while a rebuild reads {@code TRANSACTIONS}; writes in that time leave their customer unindexed. */
+    private volatile Trees building;
+    private Counter hits;
+
+    public PointsHistoryIndex(JdbcTemplate jdbcTemplate, DataLoadTracker dataLoadTracker,
+                              @Value("${rewards.points-index.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataLoadTracker = dataLoadTracker;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            dataLoadTracker.whenReady(this::rebuild);
+        }
+    }
+
+    public void rebuild() {
+        Trees fresh = new Trees();
+        building = fresh;
+        long start = System.currentTimeMillis();
+        Map<Long, Integer> joinDays = new HashMap<>();
+        jdbcTemplate.query("SELECT id, join_date FROM CUSTOMERS",
+                (RowCallbackHandler) rs -> joinDays.put(rs.getLong(1), (int) rs.getDate(2).toLocalDate().toEpochDay()));
+        jdbcTemplate.query(ELIGIBLE, (RowCallbackHandler) rs -> {
+                    long customerId = rs.getLong(1);
+                    int day = (int) rs.getTimestamp(3).toLocalDateTime().toLocalDate().toEpochDay();
+                    // Rows come oldest first, so the tree created by a customer's first row can hold all of them
+                    add(fresh, customerId, Math.min(joinDays.getOrDefault(customerId, day), day), day, rs.getLong(2));
+                },
+                RewardsService.COMPLETED_STATUS, RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS);
+        trees = fresh;
+        building = null;
+        log.info("Points history index built for {} customers ({} left to the scan) in {} ms", indexed(fresh),
+                fresh.unindexed().size(), System.currentTimeMillis() - start);
+    }
+
+    /** Adds a newly committed transaction. A customer new to the index is based on their first transaction day. */
+    public void added(Transaction transaction) {
+        if (transaction.getCustomerId() == null) {
+            return;
+        }
+        Trees pending = building;
+        if (pending != null) {
+            pending.unindexed().add(transaction.getCustomerId());
+        }
+        Trees current = trees;
+        if (current != null && RewardsService.COMPLETED_STATUS.equals(transaction.getStatus())
+                && transaction.getAmountCents() > RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS
+                && transaction.getTransactionDate() != null) {
+            int day = (int) transaction.getTransactionDate().toLocalDate().toEpochDay();
+            add(current, transaction.getCustomerId(), day, day, transaction.getAmountCents());
+        }
+    }
+
+    /** A transaction of the customer was updated or deleted; their sums can no longer be trusted. */
+    public void changed(long customerId) {
+        Trees pending = building;
+        if (pending != null) {
+            pending.unindexed().add(customerId);
+        }
+        Trees current = trees;
+        if (current != null) {
+            current.unindexed().add(customerId);
+            current.byCustomer().remove(customerId);
+        }
+    }
+
+    private static void add(Trees target, long customerId, int baseDay, int day, long amountCents) {
+        DailyPointsTree tree = target.byCustomer().computeIfAbsent(customerId, id -> new DailyPointsTree(baseDay));
+        if (!tree.add(day, RewardsUtil.calculatePoints(amountCents))) {
+            target.unindexed().add(customerId);
+        }
+    }
+
+    /** Customers the index answers for; an unindexed customer may still have a tree. */
+    private static int indexed(Trees target) {
+        return Math.max(0, target.byCustomer().size() - target.unindexed().size());
+    }
+
+    /**
+     * Eligible points per month within the window, or empty when the index cannot answer it: the window must
+     * start at midnight and end no earlier than {@link WindowAlignment#END_OF_DAY}, the last instant a
+     * {@code TIMESTAMP} column holds, or be open on either side. A window ending at {@code 23:59:59} is left to
+     * the scan, which excludes transactions in that day's last second.
+     */
+    public Optional<NavigableMap<YearMonth, Integer>> pointsByMonth(long customerId, LocalDateTime startDate,
+                                                                    LocalDateTime endDate) {
+        Trees current = trees;
+        if (current == null
+                || startDate != null && !startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                || endDate != null && endDate.toLocalTime().isBefore(WindowAlignment.END_OF_DAY)
+                || current.unindexed().contains(customerId)) {
+            return Optional.empty();
+        }
+        NavigableMap<YearMonth, Integer> pointsByMonth = new TreeMap<>();
+        DailyPointsTree tree = current.byCustomer().get(customerId);
+        if (tree != null) {
+            tree.addPointsByMonth(
+                    startDate != null ? (int) startDate.toLocalDate().toEpochDay() : Integer.MIN_VALUE,
+                    endDate != null ? (int) endDate.toLocalDate().toEpochDay() : Integer.MAX_VALUE,
+                    pointsByMonth);
+        }
+        if (hits != null) {
+            hits.increment();
+        }
+        return Optional.of(pointsByMonth);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        hits = Counter.builder("rewards.points-index.hits")
+                .description("Rewards requests answered from the per-customer points history index")
+                .register(registry);
+        Gauge.builder("rewards.points-index.customers", this,
+                        index -> index.trees != null ? indexed(index.trees) : 0)
+                .description("Customers in the points history index")
+                .register(registry);
+    }
+}
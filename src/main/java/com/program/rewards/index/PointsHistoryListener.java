@@ -0,0 +1,34 @@
+package com.program.rewards.index;
+
+import com.program.rewards.entity.Transaction;
+import com.program.rewards.util.AfterCommit;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA entity listener feeding transaction writes into the {@link PointsHistoryIndex} once they are committed.
+ */
+public class PointsHistoryListener {
+
+    private final ObjectProvider<PointsHistoryIndex> index;
+
+    public PointsHistoryListener(ObjectProvider<PointsHistoryIndex> index) {
+        this.index = index;
+    }
+
+    @PostPersist
+    public void transactionPersisted(Transaction transaction) {
+        AfterCommit.run(() -> index.ifAvailable(historyIndex -> historyIndex.added(transaction)));
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void transactionChanged(Transaction transaction) {
+        Long customerId = transaction.getCustomerId();
+        if (customerId != null) {
+            AfterCommit.run(() -> index.ifAvailable(historyIndex -> historyIndex.changed(customerId)));
+        }
+    }
+}
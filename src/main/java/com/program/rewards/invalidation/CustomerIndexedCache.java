@@ -0,0 +1,129 @@
+package com.program.rewards.invalidation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.program.rewards.service.RewardsService;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caffeine-backed rewards cache that also indexes its keys by customer, so a customer's entries are evicted
+ * without scanning the cache. Keys are matched on their first element, the customer ID of
+ * {@link RewardsService#rewardsCacheKey}; other keys are cached but not indexed.
+ * <p>
+ * A key is indexed both before and after its entry is stored, and dropped when Caffeine evicts the entry for size
+ * or age, so the index may briefly name a key that is not stored, never the other way round: an
+ * {@link #evictCustomer} racing a store either finds the key or is followed by its re-indexing.
+ */
+public class CustomerIndexedCache extends CaffeineCache {
+
+    private final Map<Long, Set<Object>> keysByCustomer;
+
+    private CustomerIndexedCache(String name, Cache<Object, Object> cache, Map<Long, Set<Object>> keysByCustomer) {
+        super(name, cache);
+        this.keysByCustomer = keysByCustomer;
+    }
+
+    public static CustomerIndexedCache build(String name, Caffeine<Object, Object> caffeine) {
+        Map<Long, Set<Object>> keysByCustomer = new ConcurrentHashMap<>();
+        Cache<Object, Object> cache = caffeine
+                .evictionListener((key, value, cause) -> forget(keysByCustomer, key))
+                .build();
+        return new CustomerIndexedCache(name, cache, keysByCustomer);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        stored(key, () -> {
+            super.put(key, value);
+            return null;
+        });
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return stored(key, () -> super.putIfAbsent(key, value));
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return stored(key, () -> super.get(key, valueLoader));
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        forget(keysByCustomer, key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = super.evictIfPresent(key);
+        forget(keysByCustomer, key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        keysByCustomer.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = super.invalidate();
+        keysByCustomer.clear();
+        return notEmpty;
+    }
+
+    /** Evicts every entry of the customer. */
+    public void evictCustomer(long customerId) {
+        Set<Object> keys = keysByCustomer.remove(customerId);
+        if (keys != null) {
+            getNativeCache().invalidateAll(keys);
+        }
+    }
+
+    private <T> T stored(Object key, Supplier<T> store) {
+        remember(key);
+        T result = store.get();
+        // Again, in case the customer was evicted between the first remember and the store
+        remember(key);
+        return result;
+    }
+
+    private void remember(Object key) {
+        Long customerId = customerId(key);
+        if (customerId != null) {
+            // Inside compute, so a concurrent forget cannot drop the set this key goes into
+            keysByCustomer.compute(customerId, (id, keys) -> {
+                Set<Object> updated = keys != null ? keys : new HashSet<>();
+                updated.add(key);
+                return updated;
+            });
+        }
+    }
+
+    private static void forget(Map<Long, Set<Object>> keysByCustomer, Object key) {
+        Long customerId = customerId(key);
+        if (customerId != null) {
+            keysByCustomer.computeIfPresent(customerId, (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private static Long customerId(Object key) {
+        return key instanceof List<?> parts && !parts.isEmpty() && parts.get(0) instanceof Long customerId
+                ? customerId
+                : null;
+    }
+}
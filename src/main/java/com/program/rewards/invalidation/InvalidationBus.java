@@ -0,0 +1,18 @@
+package com.program.rewards.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts rewards cache invalidations to every node of the cluster. Delivery is best effort: a lost
+ * message leaves entries stale until the scheduled cache clear or their TTL, never serves wrong data forever.
+ * Messages a node published itself may be delivered back to it.
+ */
+public interface InvalidationBus extends AutoCloseable {
+
+    void publish(InvalidationMessage message);
+
+    void subscribe(Consumer<InvalidationMessage> listener);
+
+    @Override
+    void close();
+}
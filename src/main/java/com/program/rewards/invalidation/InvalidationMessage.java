@@ -0,0 +1,109 @@
+package com.program.rewards.invalidation;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A batch of customers whose cached rewards are stale, or {@link #all} of them.
+ * <p>
+ * Wire format: version byte, flags byte, the sender's node id as 8 bytes, then the customer count and the
+ * ascending customer IDs as unsigned varints, each after the first encoded as the difference to the previous
+ * one. Dense ID ranges therefore cost about one byte per customer.
+ */
+public record InvalidationMessage(long sender, boolean all, long[] customerIds) {
+
+    private static final byte VERSION = 1;
+    private static final byte FLAG_ALL = 1;
+
+    public InvalidationMessage {
+        customerIds = customerIds.clone();
+        Arrays.sort(customerIds);
+    }
+
+    public static InvalidationMessage customers(long sender, long... customerIds) {
+        return new InvalidationMessage(sender, false, customerIds);
+    }
+
+    public static InvalidationMessage everything(long sender) {
+        return new InvalidationMessage(sender, true, new long[0]);
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(10 + customerIds.length * 2);
+        out.write(VERSION);
+        out.write(all ? FLAG_ALL : 0);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (sender >>> shift));
+        }
+        writeVarLong(out, customerIds.length);
+        long previous = 0;
+        for (long customerId : customerIds) {
+            writeVarLong(out, customerId - previous);
+            previous = customerId;
+        }
+        return out.toByteArray();
+    }
+
+    public static InvalidationMessage decode(byte[] data, int offset, int length) {
+        ByteBuffer in = ByteBuffer.wrap(data, offset, length);
+        try {
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported invalidation message version " + version);
+            }
+            boolean all = (in.get() & FLAG_ALL) != 0;
+            long sender = in.getLong();
+            long count = readVarLong(in);
+            if (count < 0 || count > in.remaining()) {
+                throw new IllegalArgumentException("Invalid customer count " + count);
+            }
+            long[] customerIds = new long[(int) count];
+            long previous = 0;
+            for (int i = 0; i < customerIds.length; i++) {
+                previous += readVarLong(in);
+                customerIds[i] = previous;
+            }
+            return new InvalidationMessage(sender, all, customerIds);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated invalidation message", e);
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof InvalidationMessage message && sender == message.sender && all == message.all
+                && Arrays.equals(customerIds, message.customerIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Long.hashCode(sender) + Boolean.hashCode(all)) + Arrays.hashCode(customerIds);
+    }
+
+    @Override
+    public String toString() {
+        return "InvalidationMessage[sender=" + sender + ", all=" + all + ", customers=" + customerIds.length + "]";
+    }
+}
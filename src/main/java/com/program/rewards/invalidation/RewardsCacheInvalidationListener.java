@@ -0,0 +1,41 @@
+package com.program.rewards.invalidation;
+
+import com.program.rewards.entity.Customer;
+import com.program.rewards.entity.Transaction;
+import com.program.rewards.util.AfterCommit;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA entity listener that invalidates a customer's cached rewards when their customer record or one of their
+ * transactions is written. Inside a transaction the invalidation waits for the commit, so no node can re-cache
+ * the old data in between.
+ */
+public class RewardsCacheInvalidationListener {
+
+    private final ObjectProvider<RewardsCacheInvalidator> invalidator;
+
+    public RewardsCacheInvalidationListener(ObjectProvider<RewardsCacheInvalidator> invalidator) {
+        this.invalidator = invalidator;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void entityChanged(Object entity) {
+        Long customerId = null;
+        if (entity instanceof Transaction transaction) {
+            customerId = transaction.getCustomerId();
+        } else if (entity instanceof Customer customer) {
+            customerId = customer.getId();
+        }
+        if (customerId == null) {
+            return;
+        }
+        long committedCustomerId = customerId;
+        AfterCommit.run(() -> invalidator.ifAvailable(
+                cacheInvalidator -> cacheInvalidator.invalidate(committedCustomerId)));
+    }
+}
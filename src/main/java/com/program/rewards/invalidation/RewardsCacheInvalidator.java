@@ -0,0 +1,172 @@
+package com.program.rewards.invalidation;
+
+import com.program.rewards.service.RewardsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link RewardsService#REWARDS_CACHE rewards cache} coherent across instances. A change to a
+ * customer's data evicts that customer's entries locally straight away and queues the customer ID; queued IDs
+ * are broadcast over the {@link InvalidationBus} every {@code batch-interval}, or sooner once
+ * {@code max-batch-size} are pending, so a burst of writes costs a few small messages. Every other node evicts
+ * the same customers when the message arrives.
+ * <p>
+ * Entries are found through the {@link CustomerIndexedCache} key index, by the customer ID that starts
+ * {@link RewardsService#rewardsCacheKey}.
+ */
+@Slf4j
+@Component
+public class RewardsCacheInvalidator implements MeterBinder, AutoCloseable {
+
+    private final CustomerIndexedCache cache;
+    private final InvalidationBus bus;
+    private final int maxBatchSize;
+    private final long nodeId = new SecureRandom().nextLong();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher;
+    private Counter customersSent;
+    private Counter customersReceived;
+    private Counter messagesSent;
+    private Counter messagesReceived;
+
+    public RewardsCacheInvalidator(
+            CacheManager cacheManager,
+            InvalidationBus bus,
+            @Value("${rewards.cache.invalidation.batch-interval:50ms}") Duration batchInterval,
+            @Value("${rewards.cache.invalidation.max-batch-size:1000}") int maxBatchSize) {
+        Cache rewardsCache = cacheManager.getCache(RewardsService.REWARDS_CACHE);
+        if (!(rewardsCache instanceof CustomerIndexedCache indexedCache)) {
+            throw new IllegalStateException("The rewards cache must be a CustomerIndexedCache, see CacheConfig");
+        }
+        this.cache = indexedCache;
+        this.bus = bus;
+        this.maxBatchSize = maxBatchSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, batchInterval.toMillis(), batchInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        bus.subscribe(this::onMessage);
+    }
+
+    /** Evicts the customer's cached rewards here and, with the next batch, on every other node. */
+    public void invalidate(long customerId) {
+        evict(new long[]{customerId});
+        pending.add(customerId);
+        if (pending.size() >= maxBatchSize) {
+            flusher.execute(this::flushSafely);
+        }
+    }
+
+    /** Clears the rewards cache on every node; called by {@code RuleRecomputeJob} when the points rules change. */
+    public void invalidateAll() {
+        cache.invalidate();
+        bus.publish(InvalidationMessage.everything(nodeId));
+        count(messagesSent, 1);
+    }
+
+    /** Publishes the queued customer IDs. */
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long[] batch = new long[maxBatchSize];
+        int size = 0;
+        for (Iterator<Long> it = pending.iterator(); it.hasNext(); ) {
+            batch[size++] = it.next();
+            it.remove();
+            if (size == batch.length) {
+                publish(batch, size);
+                size = 0;
+            }
+        }
+        if (size > 0) {
+            publish(batch, size);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Publishing cache invalidations failed", e);
+        }
+    }
+
+    private void publish(long[] batch, int size) {
+        bus.publish(InvalidationMessage.customers(nodeId, Arrays.copyOf(batch, size)));
+        count(messagesSent, 1);
+        count(customersSent, size);
+    }
+
+    void onMessage(InvalidationMessage message) {
+        if (message.sender() == nodeId) {
+            return;
+        }
+        count(messagesReceived, 1);
+        if (message.all()) {
+            log.info("Clearing rewards cache on request of node {}", message.sender());
+            cache.invalidate();
+            return;
+        }
+        count(customersReceived, message.customerIds().length);
+        evict(message.customerIds());
+    }
+
+    private void evict(long[] customerIds) {
+        for (long customerId : customerIds) {
+            cache.evictCustomer(customerId);
+        }
+    }
+
+    private static void count(Counter counter, double amount) {
+        if (counter != null) {
+            counter.increment(amount);
+        }
+    }
+
+    /** Sends what is still queued before the bus goes away. */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        flushSafely();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        customersSent = Counter.builder("rewards.cache.invalidation.customers")
+                .description("Customers whose cached rewards were invalidated through the invalidation bus")
+                .tag("direction", "sent")
+                .register(registry);
+        customersReceived = Counter.builder("rewards.cache.invalidation.customers")
+                .description("Customers whose cached rewards were invalidated through the invalidation bus")
+                .tag("direction", "received")
+                .register(registry);
+        messagesSent = Counter.builder("rewards.cache.invalidation.messages")
+                .description("Invalidation messages exchanged with other nodes")
+                .tag("direction", "sent")
+                .register(registry);
+        messagesReceived = Counter.builder("rewards.cache.invalidation.messages")
+                .description("Invalidation messages exchanged with other nodes")
+                .tag("direction", "received")
+                .register(registry);
+    }
+}
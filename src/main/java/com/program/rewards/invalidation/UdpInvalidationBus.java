@@ -0,0 +1,94 @@
+package com.program.rewards.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Sends each message as one UDP datagram to a fixed list of peers and receives theirs on a background thread.
+ * No broker is needed, which makes it suitable for a handful of instances or several instances on one host.
+ * Datagrams can be lost; see {@link InvalidationBus}.
+ */
+@Slf4j
+public class UdpInvalidationBus implements InvalidationBus {
+
+    /** Largest UDP payload; the invalidator keeps batches well below it. */
+    static final int MAX_DATAGRAM_SIZE = 65_507;
+
+    private final DatagramSocket socket;
+    private final List<InetSocketAddress> peers;
+    private final List<Consumer<InvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+    private final Thread receiver;
+
+    public UdpInvalidationBus(InetSocketAddress bindAddress, List<InetSocketAddress> peers) {
+        this(open(bindAddress), peers);
+    }
+
+    UdpInvalidationBus(DatagramSocket socket, List<InetSocketAddress> peers) {
+        this.socket = socket;
+        this.peers = List.copyOf(peers);
+        this.receiver = new Thread(this::receive, "cache-invalidation-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+        log.info("Cache invalidation bus listening on udp {} with peers {}", socket.getLocalSocketAddress(), peers);
+    }
+
+    private static DatagramSocket open(InetSocketAddress bindAddress) {
+        try {
+            return new DatagramSocket(bindAddress);
+        } catch (SocketException e) {
+            throw new UncheckedIOException("Cannot bind cache invalidation socket to " + bindAddress, e);
+        }
+    }
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        byte[] data = message.encode();
+        for (InetSocketAddress peer : peers) {
+            try {
+                socket.send(new DatagramPacket(data, data.length, peer));
+            } catch (IOException e) {
+                log.warn("Could not send cache invalidation to {}: {}", peer, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[MAX_DATAGRAM_SIZE];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!socket.isClosed()) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                InvalidationMessage message = InvalidationMessage.decode(buffer, packet.getOffset(), packet.getLength());
+                listeners.forEach(listener -> listener.accept(message));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring malformed cache invalidation from {}: {}", packet.getSocketAddress(), e.getMessage());
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.warn("Cache invalidation receive failed: {}", e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                log.error("Cache invalidation listener failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        socket.close();
+    }
+}
@@ -0,0 +1,231 @@
+package com.program.rewards.limit;
+
+import com.program.rewards.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of rewards requests doing database work at once, with a limit that adapts to
+ * observed latency (a gradient limiter in the style of Netflix's Gradient2).
+ * <p>
+ * Latencies are averaged over windows of {@code rewards.limiter.window-size} completions. Each
+ * window's average (the short-term RTT) is compared with an exponentially smoothed long-term RTT:
+ * while the two agree the limit grows by roughly its square root per window, and once requests
+ * start queueing on the database the short-term RTT rises and the limit shrinks in proportion
+ * ({@code limit * longRtt / shortRtt}, never by more than half). Requests beyond the limit are
+ * rejected immediately instead of waiting for a thread or connection.
+ * <p>
+ * {@link Priority#LOW} requests may only use {@code rewards.limiter.low-priority-share} of the
+ * limit, so they are shed first and leave headroom for normal requests.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    public enum Priority {
+        NORMAL,
+        LOW
+    }
+
+    /** Cap on how far the long-term RTT may drift above the short-term one before it is pulled back. */
+    private static final double MAX_LONG_TO_SHORT_RTT = 2.0;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double lowPriorityShare;
+    private final int windowSize;
+    private final int longWindow;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+
+    // Window state, guarded by this
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInflight;
+    private double shortRtt;
+    private double longRtt;
+
+    private final Map<Priority, Counter> acceptedCounters = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejectedCounters = new EnumMap<>(Priority.class);
+    private Counter bypassedCounter;
+
+    public AdaptiveConcurrencyLimiter(@Value("${rewards.limiter.enabled:true}") boolean enabled,
+                                      @Value("${rewards.limiter.initial-limit:20}") int initialLimit,
+                                      @Value("${rewards.limiter.min-limit:4}") int minLimit,
+                                      @Value("${rewards.limiter.max-limit:200}") int maxLimit,
+                                      @Value("${rewards.limiter.tolerance:1.5}") double tolerance,
+                                      @Value("${rewards.limiter.smoothing:0.2}") double smoothing,
+                                      @Value("${rewards.limiter.low-priority-share:0.75}") double lowPriorityShare,
+                                      @Value("${rewards.limiter.window-size:20}") int windowSize,
+                                      @Value("${rewards.limiter.long-window:100}") int longWindow) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.lowPriorityShare = lowPriorityShare;
+        this.windowSize = windowSize;
+        this.longWindow = longWindow;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Admits a request or throws {@link ServiceOverloadedException}. The returned permit must be
+     * closed when the request completes, successfully or not.
+     */
+    public Permit acquire(Priority priority) {
+        if (!enabled) {
+            inflight.incrementAndGet();
+            return new Permit(priority);
+        }
+        int allowed = getAllowed(priority);
+        int current;
+        do {
+            current = inflight.get();
+            if (current >= allowed) {
+                count(rejectedCounters, priority);
+                throw new ServiceOverloadedException(String.format(
+                        "Too many concurrent rewards requests (limit %d), retry shortly", allowed));
+            }
+        } while (!inflight.compareAndSet(current, current + 1));
+        count(acceptedCounters, priority);
+        return new Permit(priority);
+    }
+
+    /** Records a request that was answered from the cache without taking a permit. */
+    public void bypassed() {
+        if (bypassedCounter != null) {
+            bypassedCounter.increment();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    int getAllowed(Priority priority) {
+        int current = getLimit();
+        return priority == Priority.LOW ? Math.max(1, (int) (current * lowPriorityShare)) : current;
+    }
+
+    synchronized void onSample(long rttNanos, int inflightAtStart) {
+        windowRttSum += rttNanos;
+        windowMaxInflight = Math.max(windowMaxInflight, inflightAtStart);
+        if (++windowCount < windowSize) {
+            return;
+        }
+        shortRtt = (double) windowRttSum / windowCount;
+        int maxInflight = windowMaxInflight;
+        windowRttSum = 0;
+        windowCount = 0;
+        windowMaxInflight = 0;
+
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / longWindow;
+        if (longRtt / shortRtt > MAX_LONG_TO_SHORT_RTT) {
+            // Latency has dropped well below the baseline (e.g. after an incident); recover quickly
+            longRtt *= 0.95;
+        }
+        double current = limit;
+        if (maxInflight < current / 2) {
+            return; // not using the limit, so latency says nothing about whether it could grow
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = current * gradient + Math.sqrt(current);
+        newLimit = current * (1 - smoothing) + newLimit * smoothing;
+        newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        if ((int) newLimit != (int) current && log.isDebugEnabled()) {
+            log.debug("Concurrency limit {} -> {} (shortRtt={}ms, longRtt={}ms, inflight={})",
+                    (int) current, (int) newLimit, String.format("%.1f", shortRtt / 1e6),
+                    String.format("%.1f", longRtt / 1e6), maxInflight);
+        }
+        limit = newLimit;
+    }
+
+    private static void count(Map<Priority, Counter> counters, Priority priority) {
+        Counter counter = counters.get(priority);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rewards.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit of the rewards endpoints")
+                .register(registry);
+        Gauge.builder("rewards.limiter.inflight", this, AdaptiveConcurrencyLimiter::getInflight)
+                .description("Rewards requests currently holding a permit")
+                .register(registry);
+        Gauge.builder("rewards.limiter.rtt.short", this, limiter -> limiter.shortRtt / 1e6)
+                .description("Average latency of the last sample window")
+                .baseUnit("ms")
+                .register(registry);
+        Gauge.builder("rewards.limiter.rtt.long", this, limiter -> limiter.longRtt / 1e6)
+                .description("Smoothed long-term latency the limit is measured against")
+                .baseUnit("ms")
+                .register(registry);
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            acceptedCounters.put(priority, Counter.builder("rewards.limiter.requests")
+                    .tag("priority", tag).tag("outcome", "accepted")
+                    .description("Rewards requests seen by the concurrency limiter")
+                    .register(registry));
+            rejectedCounters.put(priority, Counter.builder("rewards.limiter.requests")
+                    .tag("priority", tag).tag("outcome", "rejected")
+                    .description("Rewards requests seen by the concurrency limiter")
+                    .register(registry));
+        }
+        bypassedCounter = Counter.builder("rewards.limiter.requests")
+                .tag("priority", "cached").tag("outcome", "bypassed")
+                .description("Rewards requests seen by the concurrency limiter")
+                .register(registry);
+    }
+
+    /** One admitted request; closing it releases the slot and feeds its latency to the limit. */
+    public final class Permit implements AutoCloseable {
+
+        private final Priority priority;
+        private final long startNanos = System.nanoTime();
+        private final int inflightAtStart = inflight.get();
+        private boolean closed;
+
+        private Permit(Priority priority) {
+            this.priority = priority;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            inflight.decrementAndGet();
+            if (enabled) {
+                onSample(System.nanoTime() - startNanos, inflightAtStart);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.program.rewards.limit;
+
+import com.program.rewards.service.RewardsService;
+import com.program.rewards.window.DateWindow;
+import com.program.rewards.window.NamedWindow;
+import com.program.rewards.window.RewardsWindowResolver;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Puts the rewards endpoints behind the {@link AdaptiveConcurrencyLimiter}.
+ * <p>
+ * When a {@code rewardsCache} is given, requests whose response is already cached skip the limiter:
+ * they do no database work, so shedding them would not relieve anything. Misses with
+ * {@code showTransactions=true} fetch and serialise every transaction and run at
+ * {@link AdaptiveConcurrencyLimiter.Priority#LOW}. The permit is held until the request completes,
+ * including the asynchronous dispatch of a reactive handler.
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Cache rewardsCache;
+    private final RewardsWindowResolver windowResolver;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true; // permit taken on the initial dispatch
+        }
+        boolean showTransactions = Boolean.parseBoolean(request.getParameter("showTransactions"));
+        if (rewardsCache != null && isCached(request, showTransactions)) {
+            limiter.bypassed();
+            return true;
+        }
+        AdaptiveConcurrencyLimiter.Priority priority = showTransactions
+                ? AdaptiveConcurrencyLimiter.Priority.LOW
+                : AdaptiveConcurrencyLimiter.Priority.NORMAL;
+        request.setAttribute(PERMIT_ATTRIBUTE, limiter.acquire(priority));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof AdaptiveConcurrencyLimiter.Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.close();
+        }
+    }
+
+    /** Resolves the cache key the same way the controller and {@link RewardsService} do. */
+    private boolean isCached(HttpServletRequest request, boolean showTransactions) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String customerId = pathVariables != null ? pathVariables.get("customerId") : null;
+        if (customerId == null) {
+            return false;
+        }
+        try {
+            String window = request.getParameter("window");
+            DateWindow effectiveWindow = windowResolver.resolve(parseDate(request.getParameter("startDate")),
+                    parseDate(request.getParameter("endDate")), parseInt(request.getParameter("days")),
+                    parseInt(request.getParameter("months")), window != null ? NamedWindow.valueOf(window) : null);
+            Object key = RewardsService.rewardsCacheKey(Long.parseLong(customerId), effectiveWindow.start(),
+                    effectiveWindow.end(), showTransactions);
+            return rewardsCache.get(key) != null;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return false; // let the controller report the bad parameter
+        }
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
+
+    private static Integer parseInt(String value) {
+        return value != null ? Integer.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.program.rewards.loading;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the initial data load as the {@code dataLoad} health component. It is part of the
+ * readiness group, so {@code /actuator/health/readiness} stays OUT_OF_SERVICE until the load is done.
+ */
+@Component
+@RequiredArgsConstructor
+public class DataLoadHealthIndicator implements HealthIndicator {
+
+    private final DataLoadTracker tracker;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = switch (tracker.getState()) {
+            case IDLE, COMPLETED -> Health.up();
+            case PENDING, LOADING -> Health.status(Status.OUT_OF_SERVICE);
+            case FAILED -> Health.down(tracker.getFailure());
+        };
+        builder.withDetail("state", tracker.getState());
+        if (tracker.getSource() != null) {
+            builder.withDetail("source", tracker.getSource())
+                    .withDetail("rowsLoaded", tracker.getRowsLoaded())
+                    .withDetail("rowsExpected", tracker.getRowsExpected())
+                    .withDetail("progress", String.format("%.1f%%", tracker.getProgress() * 100))
+                    .withDetail("elapsedMs", tracker.getElapsedMs());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.program.rewards.loading;
+
+import com.program.rewards.exception.DataNotReadyException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Rejects API calls with 503 while the initial data load is running, except for customers
+ * whose data has already been written completely.
+ */
+@RequiredArgsConstructor
+public class DataLoadInterceptor implements HandlerInterceptor {
+
+    private final DataLoadTracker tracker;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (tracker.isReady()) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String customerId = pathVariables != null ? pathVariables.get("customerId") : null;
+        if (customerId != null) {
+            try {
+                if (tracker.isCustomerAvailable(Long.parseLong(customerId))) {
+                    return true;
+                }
+            } catch (NumberFormatException e) {
+                return true; // let argument conversion report the bad ID
+            }
+        }
+        throw new DataNotReadyException(String.format("Data is still loading (%.0f%% complete), retry shortly",
+                tracker.getProgress() * 100));
+    }
+}
@@ -0,0 +1,175 @@
+package com.program.rewards.loading;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the initial data load. Loaders announce themselves while the context starts
+ * ({@link #pending}), then report rows and finished customers from their background thread.
+ * <p>
+ * Until the load completes the readiness probe reports OUT_OF_SERVICE, and API calls are only
+ * served for customers whose data has been fully written, so pods can take traffic for those
+ * customers early without ever returning partial rewards. Without a loader (e.g. in tests)
+ * the tracker stays {@link State#IDLE}, which counts as ready.
+ */
+@Slf4j
+@Component
+public class DataLoadTracker implements MeterBinder {
+
+    public enum State { IDLE, PENDING, LOADING, COMPLETED, FAILED }
+
+    private volatile State state = State.IDLE;
+    private volatile String source;
+    private volatile long rowsExpected;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile Throwable failure;
+    private final AtomicLong rowsLoaded = new AtomicLong();
+    private final BitSet loadedCustomers = new BitSet();
+    private final List<Runnable> readyActions = new ArrayList<>();
+
+    /** Called while the context starts, so the app never looks ready before the load has begun. */
+    public void pending(String source) {
+        this.source = source;
+        this.state = State.PENDING;
+    }
+
+    public void started(long rowsExpected) {
+        this.rowsExpected = rowsExpected;
+        this.startedAt = System.currentTimeMillis();
+        this.state = State.LOADING;
+        log.info("Loading data from {}: {} rows expected", source, rowsExpected);
+    }
+
+    public void rowsLoaded(long rows) {
+        rowsLoaded.addAndGet(rows);
+    }
+
+    /** Marks customers {@code fromId..toId} (inclusive) as fully written and safe to serve. */
+    public void customersLoaded(long fromId, long toId) {
+        if (fromId < 0 || toId >= Integer.MAX_VALUE) {
+            return; // served once the whole load completes
+        }
+        synchronized (loadedCustomers) {
+            loadedCustomers.set((int) fromId, (int) toId + 1);
+        }
+    }
+
+    public void completed() {
+        finishedAt = System.currentTimeMillis();
+        state = State.COMPLETED;
+        synchronized (loadedCustomers) {
+            loadedCustomers.clear();
+        }
+        log.info("Data load from {} completed: {} rows in {} ms", source, rowsLoaded.get(), finishedAt - startedAt);
+        List<Runnable> actions;
+        synchronized (readyActions) {
+            actions = new ArrayList<>(readyActions);
+            readyActions.clear();
+        }
+        actions.forEach(DataLoadTracker::runReadyAction);
+    }
+
+    /**
+     * Runs {@code action} once the load has completed, or right away if the tracker is already ready. Actions
+     * registered while a load is running run on the loader's thread; after a failed load they never run.
+     */
+    public void whenReady(Runnable action) {
+        synchronized (readyActions) {
+            if (!isReady()) {
+                readyActions.add(action);
+                return;
+            }
+        }
+        runReadyAction(action);
+    }
+
+    private static void runReadyAction(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.error("Action waiting for the data load failed", e);
+        }
+    }
+
+    public void failed(Throwable e) {
+        finishedAt = System.currentTimeMillis();
+        failure = e;
+        state = State.FAILED;
+        log.error("Data load from {} failed after {} rows", source, rowsLoaded.get(), e);
+    }
+
+    public boolean isReady() {
+        State current = state;
+        return current == State.IDLE || current == State.COMPLETED;
+    }
+
+    public boolean isCustomerAvailable(long customerId) {
+        if (isReady()) {
+            return true;
+        }
+        if (customerId < 0 || customerId >= Integer.MAX_VALUE) {
+            return false;
+        }
+        synchronized (loadedCustomers) {
+            return loadedCustomers.get((int) customerId);
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public long getRowsLoaded() {
+        return rowsLoaded.get();
+    }
+
+    public long getRowsExpected() {
+        return rowsExpected;
+    }
+
+    /** Fraction of expected rows written, 1.0 once complete or when nothing is being loaded. */
+    public double getProgress() {
+        return switch (state) {
+            case IDLE, COMPLETED -> 1.0;
+            case PENDING -> 0.0;
+            case LOADING, FAILED -> rowsExpected > 0 ? Math.min(1.0, (double) rowsLoaded.get() / rowsExpected) : 0.0;
+        };
+    }
+
+    public long getElapsedMs() {
+        if (startedAt == 0) {
+            return 0;
+        }
+        return (finishedAt != 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rewards.data.load.rows", this, DataLoadTracker::getRowsLoaded)
+                .description("Rows written by the initial data load")
+                .register(registry);
+        Gauge.builder("rewards.data.load.progress", this, DataLoadTracker::getProgress)
+                .description("Fraction of the initial data load completed")
+                .register(registry);
+        Gauge.builder("rewards.data.load.ready", this, tracker -> tracker.isReady() ? 1 : 0)
+                .description("1 once the initial data load has completed")
+                .register(registry);
+    }
+}
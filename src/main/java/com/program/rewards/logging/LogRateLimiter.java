@@ -0,0 +1,82 @@
+package com.program.rewards.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Logback turbo filter that lets at most {@code maxEventsPerSecond} events per logger and second
+ * through at {@code maxLevel} and below; the rest are dropped before an event is even created.
+ * {@code WARN} and {@code ERROR} (with the default {@code maxLevel} of {@code INFO}) always pass.
+ * <p>
+ * Turbo filters run on every logging call, including disabled ones, so this path allocates nothing
+ * once a logger has been seen. Level checks such as {@code isInfoEnabled()} also consult turbo
+ * filters: they report {@code false} while a logger's budget is spent, so guarded call sites skip
+ * building their arguments too, but they do not use up the budget themselves.
+ */
+public class LogRateLimiter extends TurboFilter {
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private int maxEventsPerSecond = 50;
+    private Level maxLevel = Level.INFO;
+    private LongSupplier clock = System::currentTimeMillis;
+
+    public void setMaxEventsPerSecond(int maxEventsPerSecond) {
+        this.maxEventsPerSecond = maxEventsPerSecond;
+    }
+
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.INFO);
+    }
+
+    void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /** Events dropped since the filter started. */
+    public long getDroppedEvents() {
+        return dropped.sum();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (!isStarted() || level == null || level.levelInt > maxLevel.levelInt
+                || level.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL; // not sampled, or disabled anyway
+        }
+        Window window = windows.get(logger.getName());
+        if (window == null) {
+            window = windows.computeIfAbsent(logger.getName(), name -> new Window());
+        }
+        long second = clock.getAsLong() / 1000;
+        if (window.second != second) {
+            // Racy reset; a few extra events at a window boundary are fine for sampling
+            window.second = second;
+            window.count.set(0);
+        }
+        if (format == null) {
+            // isXxxEnabled() check: report the state without consuming the budget
+            return window.count.get() < maxEventsPerSecond ? FilterReply.NEUTRAL : FilterReply.DENY;
+        }
+        if (window.count.incrementAndGet() <= maxEventsPerSecond) {
+            return FilterReply.NEUTRAL;
+        }
+        dropped.increment();
+        return FilterReply.DENY;
+    }
+
+    private static final class Window {
+        private volatile long second;
+        private final AtomicInteger count = new AtomicInteger();
+    }
+}
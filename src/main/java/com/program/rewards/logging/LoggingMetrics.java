@@ -0,0 +1,28 @@
+package com.program.rewards.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/** Publishes the events dropped by {@link LogRateLimiter} when it is configured (the {@code prod} profile). */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        context.getTurboFilterList().stream()
+                .filter(LogRateLimiter.class::isInstance)
+                .map(LogRateLimiter.class::cast)
+                .findFirst()
+                .ifPresent(limiter -> FunctionCounter.builder("rewards.logging.dropped", limiter,
+                                LogRateLimiter::getDroppedEvents)
+                        .description("Log events dropped by per-logger rate sampling")
+                        .register(registry));
+    }
+}
@@ -0,0 +1,152 @@
+package com.program.rewards.lookup;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.program.rewards.loading.DataLoadTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Answers "is this customer ID known not to exist?" without touching the database, so requests for
+ * unknown IDs (scrapers, stale links, bad clients) are rejected before any query or transaction.
+ * <p>
+ * A Bloom filter of every customer ID is built once the initial data load has completed and kept up to
+ * date by {@link CustomerExistenceListener} as customers are inserted; an ID it has never seen is definitely
+ * absent. IDs the filter lets through (false positives) but the database does not know are remembered in a
+ * short-lived negative cache. Until the filter is built every ID is assumed to exist.
+ * <p>
+ * A lookup that missed a customer committed while it ran must not record them as absent, so IDs added within
+ * the negative-cache TTL are remembered and {@link #recordAbsent} leaves them out.
+ */
+@Slf4j
+@Component
+public class CustomerExistenceFilter implements MeterBinder {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataLoadTracker dataLoadTracker;
+    private final boolean enabled;
+    private final long expectedCustomers;
+    private final double falsePositiveRate;
+    private final Cache<Long, Boolean> knownAbsent;
+    private final Cache<Long, Boolean> recentlyAdded;
+
+    private volatile LongBloomFilter filter;
+    /** Filter being built; concurrent inserts are added to it as well so none is missed by the swap. */
+    private volatile LongBloomFilter building;
+    private Counter rejectedByFilter;
+    private Counter rejectedByNegativeCache;
+
+    public CustomerExistenceFilter(
+            JdbcTemplate jdbcTemplate,
+            DataLoadTracker dataLoadTracker,
+            @Value("${rewards.customer-filter.enabled:true}") boolean enabled,
+            @Value("${rewards.customer-filter.expected-customers:1000000}") long expectedCustomers,
+            @Value("${rewards.customer-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${rewards.customer-filter.negative-ttl:30s}") Duration negativeTtl,
+            @Value("${rewards.customer-filter.negative-max-size:100000}") long negativeMaxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataLoadTracker = dataLoadTracker;
+        this.enabled = enabled;
+        this.expectedCustomers = expectedCustomers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.knownAbsent = Caffeine.newBuilder()
+                .expireAfterWrite(negativeTtl)
+                .maximumSize(negativeMaxSize)
+                .build();
+        this.recentlyAdded = Caffeine.newBuilder()
+                .expireAfterWrite(negativeTtl)
+                .maximumSize(negativeMaxSize)
+                .build();
+    }
+
+    /** Loaders register while the context starts, so by now the tracker knows whether a load is running. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            dataLoadTracker.whenReady(this::rebuild);
+        }
+    }
+
+    /** Rebuilds the Bloom filter from {@code CUSTOMERS}. */
+    public void rebuild() {
+        long customers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM CUSTOMERS", Long.class);
+        LongBloomFilter fresh = new LongBloomFilter(Math.max(expectedCustomers, customers * 2), falsePositiveRate);
+        building = fresh;
+        long start = System.nanoTime();
+        jdbcTemplate.query("SELECT id FROM CUSTOMERS", (RowCallbackHandler) rs -> fresh.add(rs.getLong(1)));
+        filter = fresh;
+        building = null;
+        log.info("Customer existence filter built over {} customers ({} hash functions) in {} ms",
+                customers, fresh.hashCount(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    /** {@code true} only when the customer certainly does not exist. */
+    public boolean isKnownAbsent(long customerId) {
+        LongBloomFilter current = filter;
+        if (current == null) {
+            return false;
+        }
+        if (!current.mightContain(customerId)) {
+            count(rejectedByFilter);
+            return true;
+        }
+        if (knownAbsent.getIfPresent(customerId) != null) {
+            count(rejectedByNegativeCache);
+            return true;
+        }
+        return false;
+    }
+
+    /** Remembers an ID the database did not find, for the negative-cache TTL. */
+    public void recordAbsent(long customerId) {
+        if (filter != null) {
+            knownAbsent.put(customerId, Boolean.TRUE);
+            // Checked after the put: an add either shows up here or invalidates the entry after us
+            if (recentlyAdded.getIfPresent(customerId) != null) {
+                knownAbsent.invalidate(customerId);
+            }
+        }
+    }
+
+    /** Registers a newly inserted customer. */
+    public void added(long customerId) {
+        LongBloomFilter next = building;
+        if (next != null) {
+            next.add(customerId);
+        }
+        LongBloomFilter current = filter;
+        if (current != null) {
+            current.add(customerId);
+        }
+        recentlyAdded.put(customerId, Boolean.TRUE);
+        knownAbsent.invalidate(customerId);
+    }
+
+    private static void count(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rejectedByFilter = Counter.builder("rewards.customer.lookups.rejected")
+                .description("Lookups of unknown customer IDs answered without a database query")
+                .tag("by", "bloom-filter")
+                .register(registry);
+        rejectedByNegativeCache = Counter.builder("rewards.customer.lookups.rejected")
+                .description("Lookups of unknown customer IDs answered without a database query")
+                .tag("by", "negative-cache")
+                .register(registry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.program.rewards.lookup;
+
+import com.program.rewards.entity.Customer;
+import com.program.rewards.util.AfterCommit;
+import jakarta.persistence.PostPersist;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA entity listener that adds inserted customers to the {@link CustomerExistenceFilter} once they are committed,
+ * so a lookup cannot find the customer missing after it was added. Created by Hibernate through Spring's bean
+ * container; the filter is optional so JPA test slices work without it.
+ */
+public class CustomerExistenceListener {
+
+    private final ObjectProvider<CustomerExistenceFilter> filter;
+
+    public CustomerExistenceListener(ObjectProvider<CustomerExistenceFilter> filter) {
+        this.filter = filter;
+    }
+
+    @PostPersist
+    public void customerPersisted(Customer customer) {
+        Long customerId = customer.getId();
+        AfterCommit.run(() -> filter.ifAvailable(existenceFilter -> existenceFilter.added(customerId)));
+    }
+}
@@ -0,0 +1,114 @@
+package com.program.rewards.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call on the application's Spring Data repositories, inherited methods included, publishing
+ * {@code rewards.repository.query} timers per method and feeding the {@link SlowQueryLog}.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class RepositoryQueryAspect {
+
+    static final String DERIVED_QUERY = "derived";
+    private static final String APPLICATION_PACKAGE = "com.program.rewards.";
+
+    private final SlowQueryLog slowQueryLog;
+    private final MeterRegistry meterRegistry;
+
+    // Any Spring Data repository method, including those inherited from JpaRepository (findById, saveAll, ...).
+    // within() would test the target class, which is Spring Data's SimpleJpaRepository, so the restriction to
+    // the application's repositories is applied to the proxied interfaces instead.
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object monitor(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Class<?> repository = applicationRepository(joinPoint.getThis(), signature);
+        if (repository == null) {
+            return joinPoint.proceed();
+        }
+        String method = repository.getSimpleName() + "." + signature.getName();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            Object result = joinPoint.proceed();
+            long elapsed = System.nanoTime() - start;
+            if (slowQueryLog.isSlow(elapsed)) {
+                Query query = signature.getMethod().getAnnotation(Query.class);
+                slowQueryLog.record(new SlowQuery(
+                        method,
+                        query != null ? query.value() : DERIVED_QUERY,
+                        parameterShapes(joinPoint.getArgs()),
+                        rowCount(result),
+                        elapsed / 1_000_000.0,
+                        Instant.now()));
+            }
+            return result;
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Timer.builder("rewards.repository.query")
+                    .description("Repository call latency")
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * The application repository the call was made on, so inherited methods (save, findAll, ...) are named
+     * after it; {@code null} for repositories outside the application.
+     */
+    private static Class<?> applicationRepository(Object proxy, MethodSignature signature) {
+        for (Class<?> repositoryInterface : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+            if (repositoryInterface.getName().startsWith(APPLICATION_PACKAGE)
+                    && signature.getDeclaringType().isAssignableFrom(repositoryInterface)) {
+                return repositoryInterface;
+            }
+        }
+        return null;
+    }
+
+    static List<String> parameterShapes(Object[] args) {
+        List<String> shapes = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            if (arg == null) {
+                shapes.add("null");
+            } else if (arg instanceof Collection<?> collection) {
+                shapes.add(arg.getClass().getSimpleName() + "[" + collection.size() + "]");
+            } else {
+                shapes.add(arg.getClass().getSimpleName());
+            }
+        }
+        return shapes;
+    }
+
+    static int rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,23 @@
+package com.program.rewards.monitoring;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A repository call that took at least the configured slow-query threshold.
+ *
+ * @param repositoryMethod repository interface and method, e.g. {@code TransactionRepository.findEligibleTransactions}
+ * @param query            the JPQL from {@code @Query}, or {@code derived} for derived/inherited queries
+ * @param parameterShapes  simple type of each bind parameter ({@code null} when the value was null)
+ * @param rows             number of rows returned
+ * @param durationMs       wall-clock duration of the call
+ * @param timestamp        when the call completed
+ */
+public record SlowQuery(
+        String repositoryMethod,
+        String query,
+        List<String> parameterShapes,
+        int rows,
+        double durationMs,
+        Instant timestamp) {
+}
@@ -0,0 +1,59 @@
+package com.program.rewards.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the slowest repository calls seen since startup (or the last reset).
+ * Backed by a bounded min-heap so only the {@code capacity} slowest entries are retained.
+ */
+@Slf4j
+public class SlowQueryLog {
+
+    private static final Comparator<SlowQuery> BY_DURATION = Comparator.comparingDouble(SlowQuery::durationMs);
+
+    private final long thresholdNanos;
+    private final int capacity;
+    private final PriorityQueue<SlowQuery> slowest;
+
+    public SlowQueryLog(long thresholdNanos, int capacity) {
+        this.thresholdNanos = thresholdNanos;
+        this.capacity = capacity;
+        this.slowest = new PriorityQueue<>(capacity + 1, BY_DURATION);
+    }
+
+    public boolean isSlow(long durationNanos) {
+        return durationNanos >= thresholdNanos;
+    }
+
+    public void record(SlowQuery query) {
+        log.warn("Slow query: {} took {} ms, {} rows, parameters {}",
+                query.repositoryMethod(), query.durationMs(), query.rows(), query.parameterShapes());
+        synchronized (slowest) {
+            slowest.offer(query);
+            if (slowest.size() > capacity) {
+                slowest.poll();
+            }
+        }
+    }
+
+    /** Returns the retained queries, slowest first. */
+    public List<SlowQuery> getSlowest() {
+        List<SlowQuery> snapshot;
+        synchronized (slowest) {
+            snapshot = new ArrayList<>(slowest);
+        }
+        snapshot.sort(BY_DURATION.reversed());
+        return snapshot;
+    }
+
+    public void clear() {
+        synchronized (slowest) {
+            slowest.clear();
+        }
+    }
+}
@@ -1,25 +1,75 @@
 package com.program.rewards.repository;
 
 import com.program.rewards.entity.Transaction;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
-    @Query("SELECT t FROM Transaction t WHERE t.status = :status AND t.customerId = :customerId AND t.amount > :amount " +
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status AND t.customerId = :customerId AND t.amountCents > :amountCents " +
            "AND (:startDate IS NULL OR t.transactionDate >= :startDate) " +
-           "AND (:endDate IS NULL OR t.transactionDate <= :endDate)")
+           "AND (:endDate IS NULL OR t.transactionDate <= :endDate) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
     List<Transaction> findEligibleTransactions(
             @Param("customerId") Long customerId,
             @Param("status") String status,
-            @Param("amount") Double amount,
+            @Param("amountCents") long amountCents,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
+    /** {@link #findEligibleTransactions} for several customers at once, used to batch concurrent lookups. */
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status AND t.customerId IN :customerIds AND t.amountCents > :amountCents " +
+           "AND (:startDate IS NULL OR t.transactionDate >= :startDate) " +
+           "AND (:endDate IS NULL OR t.transactionDate <= :endDate) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findEligibleTransactionsForCustomers(
+            @Param("customerIds") Collection<Long> customerIds,
+            @Param("status") String status,
+            @Param("amountCents") long amountCents,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Eligible transactions from {@code startDate} (inclusive, or the beginning when null) up to
+     * {@code endExclusive}. Used for the part of a window that lies before the closed months.
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status AND t.customerId = :customerId AND t.amountCents > :amountCents " +
+           "AND (:startDate IS NULL OR t.transactionDate >= :startDate) " +
+           "AND t.transactionDate < :endExclusive")
+    List<Transaction> findEligibleTransactionsBefore(
+            @Param("customerId") Long customerId,
+            @Param("status") String status,
+            @Param("amountCents") long amountCents,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endExclusive") LocalDateTime endExclusive);
+
+    /**
+     * Keyset page of eligible transactions, newest first. Rows strictly after the
+     * cursor position ({@code cursorDate}, {@code cursorId}) in that order are returned,
+     * so each page is an index range scan of at most {@code limit} rows.
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status AND t.customerId = :customerId AND t.amountCents > :amountCents " +
+           "AND (:startDate IS NULL OR t.transactionDate >= :startDate) " +
+           "AND (:endDate IS NULL OR t.transactionDate <= :endDate) " +
+           "AND (:cursorDate IS NULL OR t.transactionDate < :cursorDate " +
+           "OR (t.transactionDate = :cursorDate AND t.id < :cursorId)) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findEligibleTransactionsPage(
+            @Param("customerId") Long customerId,
+            @Param("status") String status,
+            @Param("amountCents") long amountCents,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("cursorDate") LocalDateTime cursorDate,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
 }
@@ -0,0 +1,78 @@
+package com.program.rewards.routing;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring mapping customer IDs to members. Each member is placed at
+ * {@code virtualNodes} points on the ring, which evens out the share of customers each one owns; when a member
+ * joins or leaves, only the customers of the points it takes over or gives up change owner.
+ * <p>
+ * Point positions depend only on the member names, so every node builds the same ring from the same members.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> members;
+    private final long[] points;
+    private final int[] owners;
+
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("A ring needs at least one member");
+        }
+        this.members = List.copyOf(new TreeSet<>(members));
+        long[][] entries = new long[this.members.size() * virtualNodes][];
+        for (int member = 0; member < this.members.size(); member++) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                entries[member * virtualNodes + replica] =
+                        new long[]{pointHash(this.members.get(member) + "#" + replica), member};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        this.points = new long[entries.length];
+        this.owners = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            points[i] = entries[i][0];
+            owners[i] = (int) entries[i][1];
+        }
+    }
+
+    /** The member owning {@code customerId}: the first point at or after the customer's hash, wrapping round. */
+    public String owner(long customerId) {
+        int index = Arrays.binarySearch(points, keyHash(customerId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return members.get(owners[index == points.length ? 0 : index]);
+    }
+
+    public List<String> members() {
+        return members;
+    }
+
+    /** SplitMix64 finaliser, so consecutive IDs spread over the whole ring. */
+    static long keyHash(long customerId) {
+        long z = customerId + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long pointHash(String point) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(point.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is required by every Java platform", e);
+        }
+    }
+}
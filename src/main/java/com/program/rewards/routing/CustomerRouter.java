@@ -0,0 +1,142 @@
+package com.program.rewards.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which instance owns a customer. Members are identified by their base URL; this node is always a
+ * member, the configured peers only while their readiness probe answers 200. Peers are probed every
+ * {@code healthCheckInterval} and the ring is rebuilt whenever the set of live members changes, so a node
+ * that stops or starts moves only its own share of customers.
+ */
+@Slf4j
+public class CustomerRouter implements MeterBinder, AutoCloseable {
+
+    private final String self;
+    private final List<String> peers;
+    private final int virtualNodes;
+    private final Duration probeTimeout;
+    private final HttpClient httpClient;
+    private final Set<String> livePeers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService healthChecker;
+    private volatile ConsistentHashRing ring;
+
+    public CustomerRouter(String self, Collection<String> members, int virtualNodes, Duration healthCheckInterval,
+                          Duration probeTimeout, HttpClient httpClient) {
+        this.self = normalize(self);
+        this.peers = members.stream().map(CustomerRouter::normalize).filter(member -> !member.equals(this.self))
+                .distinct().toList();
+        this.virtualNodes = virtualNodes;
+        this.probeTimeout = probeTimeout;
+        this.httpClient = httpClient;
+        this.ring = new ConsistentHashRing(List.of(this.self), virtualNodes);
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "routing-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!peers.isEmpty()) {
+            healthChecker.scheduleWithFixedDelay(this::checkPeers, 0, healthCheckInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public String owner(long customerId) {
+        return ring.owner(customerId);
+    }
+
+    public boolean isSelf(String member) {
+        return self.equals(member);
+    }
+
+    public String self() {
+        return self;
+    }
+
+    public List<String> members() {
+        return ring.members();
+    }
+
+    public HttpClient httpClient() {
+        return httpClient;
+    }
+
+    /** Takes a peer out of the ring after a failed forward; the next successful probe brings it back. */
+    public void markDown(String member) {
+        if (livePeers.remove(member)) {
+            log.warn("Routing peer {} is unreachable, removed from the ring", member);
+            rebuild();
+        }
+    }
+
+    /** Probes every peer's readiness and rebuilds the ring if membership changed. */
+    void checkPeers() {
+        boolean changed = false;
+        for (String peer : peers) {
+            boolean up = isReady(peer);
+            if (up ? livePeers.add(peer) : livePeers.remove(peer)) {
+                log.info("Routing peer {} is {}", peer, up ? "up" : "down");
+                changed = true;
+            }
+        }
+        if (changed) {
+            rebuild();
+        }
+    }
+
+    private boolean isReady(String peer) {
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(peer + "/actuator/health/readiness"))
+                .timeout(probeTimeout)
+                .GET()
+                .build();
+        try {
+            return httpClient.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private synchronized void rebuild() {
+        Set<String> members = new LinkedHashSet<>(livePeers);
+        members.add(self);
+        ring = new ConsistentHashRing(members, virtualNodes);
+        log.info("Routing ring rebuilt with members {}", ring.members());
+    }
+
+    private static String normalize(String member) {
+        String trimmed = member.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rewards.routing.members", this, router -> router.members().size())
+                .description("Instances currently in the customer routing ring, including this one")
+                .register(registry);
+    }
+}
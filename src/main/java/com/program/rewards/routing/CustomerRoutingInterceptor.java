@@ -0,0 +1,147 @@
+package com.program.rewards.routing;
+
+import com.program.rewards.deadline.Deadline;
+import com.program.rewards.deadline.DeadlineContext;
+import com.program.rewards.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves a customer's rewards on the instance that owns the customer, so each customer is cached on one node
+ * and the cluster's cache capacity grows with its size. Requests for customers owned elsewhere are forwarded
+ * once, marked with {@link #FORWARDED_HEADER} so the receiving node answers them itself, and the owner's
+ * response is relayed unchanged. If the owner cannot be reached the request is served locally.
+ */
+@Slf4j
+public class CustomerRoutingInterceptor implements HandlerInterceptor {
+
+    public static final String FORWARDED_HEADER = "X-Rewards-Forwarded-By";
+    public static final String SERVED_BY_HEADER = "X-Rewards-Served-By";
+    private static final List<String> FORWARDED_REQUEST_HEADERS =
+            List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE);
+    private static final List<String> RELAYED_RESPONSE_HEADERS =
+            List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_ENCODING, HttpHeaders.RETRY_AFTER, HttpHeaders.VARY);
+
+    private final CustomerRouter router;
+    private final String deadlineHeader;
+    private final Counter local;
+    private final Counter forwarded;
+    private final Counter fallback;
+
+    public CustomerRoutingInterceptor(CustomerRouter router, String deadlineHeader, MeterRegistry registry) {
+        this.router = router;
+        this.deadlineHeader = deadlineHeader;
+        this.local = requests(registry, "local");
+        this.forwarded = requests(registry, "forwarded");
+        this.fallback = requests(registry, "fallback");
+    }
+
+    private static Counter requests(MeterRegistry registry, String outcome) {
+        return Counter.builder("rewards.routing.requests")
+                .description("Rewards requests by where they were served")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        Long customerId = customerId(request);
+        if (customerId == null || request.getHeader(FORWARDED_HEADER) != null) {
+            return serveLocally(response);
+        }
+        String owner = router.owner(customerId);
+        if (router.isSelf(owner)) {
+            return serveLocally(response);
+        }
+        try {
+            HttpResponse<byte[]> forwardedResponse = forward(request, owner);
+            relay(forwardedResponse, owner, response);
+            forwarded.increment();
+            return false;
+        } catch (HttpTimeoutException e) {
+            // Only the request deadline bounds the wait, so there is no time left to serve it here either
+            throw new DeadlineExceededException(String.format("Deadline exceeded waiting for %s to calculate " +
+                    "rewards for customer %d", owner, customerId), e);
+        } catch (IOException e) {
+            log.warn("Forwarding customer {} to {} failed, serving locally: {}", customerId, owner, e.getMessage());
+            router.markDown(owner);
+            fallback.increment();
+            response.setHeader(SERVED_BY_HEADER, router.self());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted forwarding customer " + customerId, e);
+        }
+    }
+
+    private boolean serveLocally(HttpServletResponse response) {
+        local.increment();
+        response.setHeader(SERVED_BY_HEADER, router.self());
+        return true;
+    }
+
+    private HttpResponse<byte[]> forward(HttpServletRequest request, String owner)
+            throws IOException, InterruptedException {
+        String query = request.getQueryString();
+        URI target = URI.create(owner + request.getRequestURI() + (query != null ? "?" + query : ""));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target)
+                .header(FORWARDED_HEADER, router.self())
+                .GET();
+        for (String header : FORWARDED_REQUEST_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                builder.header(header, value);
+            }
+        }
+        Deadline deadline = DeadlineContext.current();
+        if (deadline != null) {
+            // The owner gets what is left of this request's deadline, and we stop waiting when it runs out
+            Duration remaining = deadline.remaining();
+            builder.header(deadlineHeader, Long.toString(Math.max(1, remaining.toMillis())));
+            builder.timeout(remaining.isZero() ? Duration.ofMillis(1) : remaining);
+        }
+        return router.httpClient().send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static void relay(HttpResponse<byte[]> source, String owner, HttpServletResponse response)
+            throws IOException {
+        response.setStatus(source.statusCode());
+        for (String header : RELAYED_RESPONSE_HEADERS) {
+            source.headers().allValues(header).forEach(value -> response.addHeader(header, value));
+        }
+        response.setHeader(SERVED_BY_HEADER, owner);
+        response.setContentLength(source.body().length);
+        response.getOutputStream().write(source.body());
+    }
+
+    private static Long customerId(HttpServletRequest request) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String customerId = pathVariables != null ? pathVariables.get("customerId") : null;
+        if (customerId == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(customerId);
+        } catch (NumberFormatException e) {
+            return null; // let argument conversion report the bad ID
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.program.rewards.service;
+
+import com.program.rewards.dto.RewardsResponse;
+import com.program.rewards.entity.Customer;
+import com.program.rewards.entity.Transaction;
+import com.program.rewards.exception.CustomerNotFoundException;
+import com.program.rewards.lookup.CustomerExistenceFilter;
+import com.program.rewards.util.RewardsUtil;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Non-blocking counterpart of {@link RewardsService#calculateMonthlyRewards}. Transactions are
+ * streamed from R2DBC and folded into monthly points as they arrive, so unless the caller asks
+ * for the transactions themselves only the per-month totals are held in memory.
+ * <p>
+ * r2dbc-h2 executes each statement synchronously on the subscribing thread, so the work is subscribed on the
+ * bounded elastic scheduler; otherwise the request thread would block for the whole query.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveRewardsService {
+
+    private static final String CUSTOMER_QUERY =
+            "SELECT id, name, email, join_date, phone, address FROM CUSTOMERS WHERE id = :id";
+
+    private final DatabaseClient reactiveDatabaseClient;
+    private final CustomerExistenceFilter customerExistenceFilter;
+
+    public Mono<RewardsResponse> calculateMonthlyRewards(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                                                         boolean showTransactions) {
+        if (log.isDebugEnabled()) {
+            log.debug("Calculating rewards reactively for customer: {} between {} and {}. Include transactions: {}",
+                    customerId, startDate, endDate, showTransactions);
+        }
+        return getCustomerById(customerId).flatMap(customer -> {
+            Flux<Transaction> transactions = streamEligibleTransactions(customerId, startDate, endDate);
+            if (showTransactions) {
+                return transactions.collectList()
+                        .map(list -> toResponse(customer,
+                                RewardsUtil.getMonthlyPoints(list, RewardsUtil.MONTH_YEAR_FORMATTER), list));
+            }
+            return transactions
+                    .collect(() -> (NavigableMap<YearMonth, Integer>) new TreeMap<YearMonth, Integer>(),
+                            RewardsUtil::addPoints)
+                    .map(pointsByMonth -> toResponse(customer,
+                            RewardsUtil.formatMonthlyPoints(pointsByMonth, RewardsUtil.MONTH_YEAR_FORMATTER), null));
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Customer> getCustomerById(Long id) {
+        if (customerExistenceFilter.isKnownAbsent(id)) {
+            return Mono.error(new CustomerNotFoundException(id));
+        }
+        return reactiveDatabaseClient.sql(CUSTOMER_QUERY)
+                .bind("id", id)
+                .map(ReactiveRewardsService::toCustomer)
+                .one()
+                .switchIfEmpty(Mono.error(() -> {
+                    log.debug("Customer not found with id: {}", id);
+                    customerExistenceFilter.recordAbsent(id);
+                    return new CustomerNotFoundException(id);
+                }));
+    }
+
+    /**
+     * Same filter and order as {@code TransactionRepository.findEligibleTransactions}, emitted row by row.
+     */
+    public Flux<Transaction> streamEligibleTransactions(Long customerId, LocalDateTime startDate, LocalDateTime endDate) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, amount_cents, status, transaction_date, customer_id FROM TRANSACTIONS " +
+                "WHERE customer_id = :customerId AND status = :status AND amount_cents > :amountCents");
+        if (startDate != null) {
+            sql.append(" AND transaction_date >= :startDate");
+        }
+        if (endDate != null) {
+            sql.append(" AND transaction_date <= :endDate");
+        }
+        sql.append(" ORDER BY transaction_date DESC, id DESC");
+
+        DatabaseClient.GenericExecuteSpec spec = reactiveDatabaseClient.sql(sql.toString())
+                .bind("customerId", customerId)
+                .bind("status", RewardsService.COMPLETED_STATUS)
+                .bind("amountCents", RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS);
+        if (startDate != null) {
+            spec = spec.bind("startDate", startDate);
+        }
+        if (endDate != null) {
+            spec = spec.bind("endDate", endDate);
+        }
+        return spec.map(ReactiveRewardsService::toTransaction).all();
+    }
+
+    private static RewardsResponse toResponse(Customer customer, Map<String, Integer> monthlyPoints,
+                                              List<Transaction> transactions) {
+        return new RewardsResponse(customer, RewardsUtil.getTotalPoints(monthlyPoints), monthlyPoints, transactions);
+    }
+
+    private static Customer toCustomer(Readable row) {
+        Customer customer = new Customer(
+                row.get("name", String.class),
+                row.get("email", String.class),
+                row.get("join_date", LocalDate.class),
+                row.get("phone", String.class),
+                row.get("address", String.class));
+        customer.setId(row.get("id", Long.class));
+        return customer;
+    }
+
+    private static Transaction toTransaction(Readable row) {
+        return new Transaction(
+                row.get("id", Long.class),
+                row.get("amount_cents", Long.class),
+                row.get("status", String.class),
+                row.get("transaction_date", LocalDateTime.class),
+                row.get("customer_id", Long.class));
+    }
+}
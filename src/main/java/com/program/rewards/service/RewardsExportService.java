@@ -0,0 +1,240 @@
+package com.program.rewards.service;
+
+import com.program.rewards.util.BatchPoints;
+import com.program.rewards.util.PointsBuffer;
+import com.program.rewards.util.RewardsUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Exports points per customer and month for every customer in a period.
+ * <p>
+ * Eligible transactions are scrolled in {@code customer_id} order and folded with the same rules as
+ * {@link RewardsUtil#calculatePoints}, one customer's amounts per {@link BatchPoints} call; a customer's rows
+ * are written as soon as the scan moves past it, so only one customer's months are held in memory at a time.
+ * With more than one partition the customer-ID space is split into ranges that are exported in parallel to
+ * temporary files and then concatenated in order, so the output is identical to a sequential export.
+ */
+@Slf4j
+@Service
+public class RewardsExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final String CSV_HEADER = "customer_id,month,points,transaction_count\n";
+    private static final String ELIGIBLE_TRANSACTIONS =
+            "SELECT customer_id, amount_cents, transaction_date FROM TRANSACTIONS " +
+            "WHERE status = ? AND amount_cents > ? AND transaction_date >= ? AND transaction_date <= ? " +
+            "AND customer_id BETWEEN ? AND ? ORDER BY customer_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxPartitions;
+
+    public RewardsExportService(DataSource dataSource,
+                                @Value("${rewards.export.fetch-size:1000}") int fetchSize,
+                                @Value("${rewards.export.max-partitions:8}") int maxPartitions) {
+        // Dedicated template so the fetch size only applies to the export scans
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.maxPartitions = maxPartitions;
+    }
+
+    /**
+     * Writes the export to {@code out} and returns the number of data rows written.
+     * {@code out} is flushed but not closed.
+     */
+    public long export(LocalDateTime startDate, LocalDateTime endDate, Format format, int partitions,
+                       OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        long rows;
+        Long[] bounds = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM CUSTOMERS",
+                (rs, rowNum) -> new Long[]{(Long) rs.getObject(1), (Long) rs.getObject(2)});
+        if (bounds == null || bounds[0] == null) {
+            rows = 0;
+        } else if (partitions <= 1) {
+            rows = exportRange(startDate, endDate, format, bounds[0], bounds[1], writer);
+        } else {
+            writer.flush();
+            rows = exportPartitioned(startDate, endDate, format, Math.min(partitions, maxPartitions),
+                    bounds[0], bounds[1], out);
+        }
+        writer.flush();
+        log.info("Exported {} reward rows for {} to {} as {} in {} ms",
+                rows, startDate, endDate, format, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    private long exportPartitioned(LocalDateTime startDate, LocalDateTime endDate, Format format, int partitions,
+                                   long minId, long maxId, OutputStream out) throws IOException {
+        long span = (maxId - minId) / partitions + 1;
+        ExecutorService executor = Executors.newFixedThreadPool(partitions);
+        List<Path> parts = new ArrayList<>(partitions);
+        try {
+            List<Future<Long>> results = new ArrayList<>(partitions);
+            for (long from = minId; from <= maxId; from += span) {
+                long first = from;
+                long last = Math.min(from + span - 1, maxId);
+                Path part = Files.createTempFile("rewards-export-", ".part");
+                parts.add(part);
+                results.add(executor.submit(() -> {
+                    try (Writer writer = Files.newBufferedWriter(part, StandardCharsets.UTF_8)) {
+                        return exportRange(startDate, endDate, format, first, last, writer);
+                    }
+                }));
+            }
+
+            // Copy each part as soon as it is done, in range order
+            long rows = 0;
+            for (int i = 0; i < parts.size(); i++) {
+                rows += results.get(i).get();
+                Files.copy(parts.get(i), out);
+            }
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Export partition failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    private long exportRange(LocalDateTime startDate, LocalDateTime endDate, Format format,
+                             long fromCustomerId, long toCustomerId, Writer writer) {
+        CustomerMonthAggregator aggregator = new CustomerMonthAggregator(
+                YearMonth.from(startDate), YearMonth.from(endDate), format, writer);
+        jdbcTemplate.query(ELIGIBLE_TRANSACTIONS, aggregator,
+                RewardsService.COMPLETED_STATUS, RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS,
+                Timestamp.valueOf(startDate), Timestamp.valueOf(endDate), fromCustomerId, toCustomerId);
+        aggregator.flush();
+        return aggregator.rows;
+    }
+
+    /**
+     * Buffers the amounts of one customer at a time, bucketed by month of the window, and turns them into
+     * per-month totals with one {@link PointsBuffer} batch when the scan moves to the next customer.
+     */
+    private static final class CustomerMonthAggregator implements RowCallbackHandler {
+
+        private final YearMonth firstMonth;
+        private final Format format;
+        private final Writer writer;
+        private final PointsBuffer amounts = new PointsBuffer(64);
+        private final long[] points;
+        private final int[] transactionCounts;
+        private int minMonth = Integer.MAX_VALUE;
+        private int maxMonth = -1;
+        private long customerId = -1;
+        private long rows;
+
+        CustomerMonthAggregator(YearMonth firstMonth, YearMonth lastMonth, Format format, Writer writer) {
+            this.firstMonth = firstMonth;
+            this.format = format;
+            this.writer = writer;
+            int months = Math.toIntExact(ChronoUnit.MONTHS.between(firstMonth, lastMonth) + 1);
+            this.points = new long[months];
+            this.transactionCounts = new int[months];
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            if (id != customerId) {
+                flush();
+                customerId = id;
+            }
+            int month = (int) ChronoUnit.MONTHS.between(firstMonth,
+                    YearMonth.from(rs.getTimestamp(3).toLocalDateTime()));
+            amounts.add(rs.getLong(2), month);
+            transactionCounts[month]++;
+            minMonth = Math.min(minMonth, month);
+            maxMonth = Math.max(maxMonth, month);
+        }
+
+        void flush() {
+            if (amounts.size() == 0) {
+                return;
+            }
+            amounts.addPointsTo(points);
+            try {
+                for (int month = minMonth; month <= maxMonth; month++) {
+                    if (transactionCounts[month] > 0) {
+                        writeRow(firstMonth.plusMonths(month), points[month], transactionCounts[month]);
+                        rows++;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Arrays.fill(points, minMonth, maxMonth + 1, 0);
+            Arrays.fill(transactionCounts, minMonth, maxMonth + 1, 0);
+            amounts.clear();
+            minMonth = Integer.MAX_VALUE;
+            maxMonth = -1;
+        }
+
+        private void writeRow(YearMonth month, long points, long transactions) throws IOException {
+            if (format == Format.CSV) {
+                writer.write(customerId + "," + month + "," + points + "," + transactions + "\n");
+            } else {
+                writer.write("{\"customerId\":" + customerId + ",\"month\":\"" + month + "\",\"points\":" + points
+                        + ",\"transactionCount\":" + transactions + "}\n");
+            }
+        }
+    }
+}
@@ -1,58 +1,90 @@
 package com.program.rewards.service;
 
+import com.program.rewards.batching.RewardsLookupBatcher;
+import com.program.rewards.deadline.Deadline;
+import com.program.rewards.deadline.DeadlineContext;
 import com.program.rewards.dto.RewardsResponse;
+import com.program.rewards.dto.TransactionCursor;
+import com.program.rewards.dto.TransactionPage;
 import com.program.rewards.entity.Customer;
 import com.program.rewards.entity.Transaction;
-import com.program.rewards.repository.CustomerRepository;
+import com.program.rewards.exception.CustomerNotFoundException;
+import com.program.rewards.exception.DeadlineExceededException;
+import com.program.rewards.index.PointsHistoryIndex;
+import com.program.rewards.lookup.CustomerExistenceFilter;
 import com.program.rewards.repository.TransactionRepository;
+import com.program.rewards.snapshot.MonthRange;
+import com.program.rewards.snapshot.MonthlySnapshotStore;
 import com.program.rewards.util.RewardsUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RewardsService {
 
-    private final CustomerRepository customerRepository;
     private final TransactionRepository transactionRepository;
+    private final MonthlySnapshotStore monthlySnapshotStore;
+    private final PlatformTransactionManager transactionManager;
+    private final CustomerExistenceFilter customerExistenceFilter;
+    private final PointsHistoryIndex pointsHistoryIndex;
+    private final RewardsLookupBatcher rewardsLookupBatcher;
 
     public static final String REWARDS_CACHE = "rewards";
     public static final String COMPLETED_STATUS = "COMPLETED";
 
     public Customer getCustomerById(Long id) {
         log.debug("Looking up customer with id: {}", id);
-        return customerRepository.findById(id)
+        rejectKnownAbsent(id);
+        // Concurrent lookups of different customers share one query
+        return rewardsLookupBatcher.findCustomer(id)
                 .orElseThrow(() -> {
-                    log.error("Customer not found with id: {}", id);
-                    return new NoSuchElementException("Customer not found with id: " + id);
+                    log.debug("Customer not found with id: {}", id);
+                    customerExistenceFilter.recordAbsent(id);
+                    return new CustomerNotFoundException(id);
                 });
     }
 
+    /** Fails fast, without a query, for IDs the existence filter knows do not exist. */
+    private void rejectKnownAbsent(Long id) {
+        if (customerExistenceFilter.isKnownAbsent(id)) {
+            log.debug("Customer not found with id: {} (known absent)", id);
+            throw new CustomerNotFoundException(id);
+        }
+    }
+
     public List<Transaction> getRewardEligibleTransactions(Long customerId, LocalDateTime startDate, LocalDateTime endDate) {
-        log.debug("Fetching reward-eligible transactions for customer: {}, startDate: {}, endDate: {}",
-                customerId, startDate, endDate);
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching reward-eligible transactions for customer: {}, startDate: {}, endDate: {}",
+                    customerId, startDate, endDate);
+        }
         try {
-            List<Transaction> transactions = transactionRepository.findEligibleTransactions(
-                    customerId,
-                    COMPLETED_STATUS,
-                    RewardsUtil.MIN_AMOUNT_FOR_REWARDS,
-                    startDate,
-                    endDate);
-
-            log.debug("Found {} eligible transactions for customer: {}", transactions.size(), customerId);
+            List<Transaction> transactions = rewardsLookupBatcher.findEligibleTransactions(customerId, startDate, endDate);
+
+            if (log.isDebugEnabled()) {
+                log.debug("Found {} eligible transactions for customer: {}", transactions.size(), customerId);
+            }
             return transactions;
         } catch (Exception e) {
             log.error("Error fetching reward-eligible transactions for customer: {}", customerId, e);
@@ -60,30 +92,132 @@ public class RewardsService {
         }
     }
 
+    /**
+     * Returns one keyset page of eligible transactions ordered by {@code transactionDate DESC, id DESC}.
+     * The database does the ordering and limiting, so memory use is bounded by the page size
+     * regardless of the customer's history length.
+     */
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactionPage(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                                              String cursor, int pageSize) {
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching transaction page for customer: {}, startDate: {}, endDate: {}, cursor: {}, pageSize: {}",
+                    customerId, startDate, endDate, cursor, pageSize);
+        }
+        getCustomerById(customerId);
+        TransactionCursor position = cursor != null ? TransactionCursor.decode(cursor) : null;
+
+        // Fetch one extra row to learn whether another page exists
+        List<Transaction> rows = transactionRepository.findEligibleTransactionsPage(
+                customerId,
+                COMPLETED_STATUS,
+                RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS,
+                startDate,
+                endDate,
+                position != null ? position.transactionDate() : null,
+                position != null ? position.id() : null,
+                Limit.of(pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            return new TransactionPage(rows, null);
+        }
+        List<Transaction> page = rows.subList(0, pageSize);
+        return new TransactionPage(page, TransactionCursor.of(page.get(pageSize - 1)).encode());
+    }
+
+    /**
+     * Key of a {@link #calculateMonthlyRewards} result in the rewards cache. The window is part of the key
+     * exactly as queried, so a cached response always answers precisely its own window; relative windows
+     * share entries because {@link com.program.rewards.window.RewardsWindowResolver} aligns them.
+     * Shared with callers that need to know whether a request would be a cache hit.
+     */
+    public static List<Object> rewardsCacheKey(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                                               boolean showTransactions) {
+        return Arrays.asList(customerId, startDate, endDate, showTransactions);
+    }
+
     @Cacheable(
             value = REWARDS_CACHE,
-            key = "{#customerId, #startDate?.toLocalDate(), #endDate?.toLocalDate(), #showTransactions}",
+            key = "T(com.program.rewards.service.RewardsService).rewardsCacheKey(#customerId, #startDate, #endDate, #showTransactions)",
             unless = "#result == null || #result.getTotalPoints() < 0"
     )
-    @Transactional(readOnly = true)
     public RewardsResponse calculateMonthlyRewards(Long customerId, LocalDateTime startDate, LocalDateTime endDate, boolean showTransactions) {
-        log.info("Calculating rewards for customer: {} between {} and {}. Include transactions: {}",
-                customerId, startDate, endDate, showTransactions);
+        // Before the transaction is opened, so unknown IDs cost no connection either
+        rejectKnownAbsent(customerId);
+        // Guarded: varargs calls allocate even when the level is off or the logger is being sampled
+        if (log.isInfoEnabled()) {
+            log.info("Calculating rewards for customer: {} between {} and {}. Include transactions: {}",
+                    customerId, startDate, endDate, showTransactions);
+        }
+        Deadline deadline = DeadlineContext.current();
         try {
-            Customer customer = getCustomerById(customerId);
-            List<Transaction> transactions = getRewardEligibleTransactions(customerId, startDate, endDate);
-            RewardsResponse response = calculateMonthlyBreakdown(customer, transactions, showTransactions);
-
+            // Whole-day windows come from the in-memory points history, without a transaction or a scan
+            Optional<NavigableMap<YearMonth, Integer>> indexedTotals = showTransactions
+                    ? Optional.empty()
+                    : pointsHistoryIndex.pointsByMonth(customerId, startDate, endDate);
+            RewardsResponse response;
+            if (indexedTotals.isPresent()) {
+                response = toResponse(getCustomerById(customerId), indexedTotals.get());
+            } else {
+                response = readOnlyTransaction(deadline).execute(status -> {
+                    checkDeadline(deadline, "looking up customer " + customerId);
+                    Customer customer = getCustomerById(customerId);
+                    Optional<MonthRange> closedMonths = showTransactions
+                            ? Optional.empty()
+                            : monthlySnapshotStore.closedMonthsWithin(startDate, endDate);
+                    checkDeadline(deadline, "loading transactions for customer " + customerId);
+                    if (closedMonths.isPresent()) {
+                        return calculateFromSnapshots(customer, startDate, endDate, closedMonths.get());
+                    }
+                    List<Transaction> transactions = getRewardEligibleTransactions(customerId, startDate, endDate);
+                    return calculateMonthlyBreakdown(customer, transactions, showTransactions);
+                });
+            }
 
-            log.info("Successfully calculated rewards for customer: {}. Total points: {}. Transactions included: {}",
-                    customerId, response.getTotalPoints(), showTransactions);
+            if (log.isInfoEnabled()) {
+                log.info("Successfully calculated rewards for customer: {}. Total points: {}. Transactions included: {}",
+                        customerId, response.getTotalPoints(), showTransactions);
+            }
             return response;
+        } catch (TransactionTimedOutException | QueryTimeoutException e) {
+            if (deadline == null) {
+                throw e;
+            }
+            log.warn("Abandoned rewards for customer: {}, deadline of {} ms exceeded", customerId,
+                    deadline.getTimeout().toMillis());
+            throw new DeadlineExceededException(String.format("Deadline of %d ms exceeded calculating rewards " +
+                    "for customer %d", deadline.getTimeout().toMillis(), customerId), e);
+        } catch (DeadlineExceededException e) {
+            log.warn("Abandoned rewards for customer: {}: {}", customerId, e.getMessage());
+            throw e;
+        } catch (CustomerNotFoundException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error calculating rewards for customer: {}", customerId, e);
             throw e;
         }
     }
 
+    /**
+     * Read-only transaction for one rewards calculation. With a request deadline the transaction gets the
+     * remaining time as its timeout, which Spring applies to every JPA and JDBC query run inside it, so a
+     * slow scan is cancelled by the database instead of outliving the request.
+     */
+    private TransactionTemplate readOnlyTransaction(Deadline deadline) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        if (deadline != null) {
+            template.setTimeout(deadline.remainingSeconds());
+        }
+        return template;
+    }
+
+    private static void checkDeadline(Deadline deadline, String operation) {
+        if (deadline != null) {
+            deadline.check(operation);
+        }
+    }
+
     @Value("${rewards.cache.clear-cache-fixed-rate:360000}")
     private long cacheClearIntervalMs;
 
@@ -94,23 +228,53 @@ public class RewardsService {
     }
 
 
-    private RewardsResponse calculateMonthlyBreakdown(Customer customer, List<Transaction> transactions, boolean listTransactions) {
-        log.debug("Calculating monthly breakdown for customer: {} with {} transactions",
-                customer.getId(), transactions.size());
+    /**
+     * Reads the closed months inside the window from their month-close snapshots and only scans
+     * transactions for the parts of the window before and after them.
+     */
+    private RewardsResponse calculateFromSnapshots(Customer customer, LocalDateTime startDate, LocalDateTime endDate,
+                                                   MonthRange closedMonths) {
+        if (log.isDebugEnabled()) {
+            log.debug("Using snapshots for {} to {} for customer: {}", closedMonths.first(), closedMonths.last(),
+                    customer.getId());
+        }
+        NavigableMap<YearMonth, Integer> pointsByMonth =
+                new TreeMap<>(monthlySnapshotStore.findPoints(customer.getId(), closedMonths));
 
-        // Create a formatter for the month-year display
-        DateTimeFormatter monthYearFormatter = DateTimeFormatter.ofPattern("MMMM yyyy");
+        if (startDate == null || startDate.isBefore(closedMonths.startInclusive())) {
+            transactionRepository.findEligibleTransactionsBefore(customer.getId(), COMPLETED_STATUS,
+                            RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS, startDate, closedMonths.startInclusive())
+                    .forEach(t -> RewardsUtil.addPoints(pointsByMonth, t));
+        }
+        if (endDate == null || !endDate.isBefore(closedMonths.endExclusive())) {
+            getRewardEligibleTransactions(customer.getId(), closedMonths.endExclusive(), endDate)
+                    .forEach(t -> RewardsUtil.addPoints(pointsByMonth, t));
+        }
 
-        // Create a TreeMap to sort by YearMonth in descending order
-        Map<String, Integer> monthlyPoints = RewardsUtil.getMonthlyPoints(transactions, monthYearFormatter);
+        return toResponse(customer, pointsByMonth);
+    }
 
-        int totalPoints = monthlyPoints.values().stream().mapToInt(Integer::intValue).sum();
+    private static RewardsResponse toResponse(Customer customer, NavigableMap<YearMonth, Integer> pointsByMonth) {
+        Map<String, Integer> monthlyPoints = RewardsUtil.formatMonthlyPoints(pointsByMonth, RewardsUtil.MONTH_YEAR_FORMATTER);
+        return new RewardsResponse(customer, RewardsUtil.getTotalPoints(monthlyPoints), monthlyPoints, null);
+    }
 
-        log.debug("Monthly points breakdown for customer {}: {}", customer.getId(), monthlyPoints);
-        log.debug("Total points calculated: {}", totalPoints);
-        return new RewardsResponse(customer, totalPoints, monthlyPoints, listTransactions ? transactions.stream()
-                .sorted((t1, t2) -> t2.getTransactionDate().compareTo(t1.getTransactionDate()))
-                .toList() : null);
+    private RewardsResponse calculateMonthlyBreakdown(Customer customer, List<Transaction> transactions, boolean listTransactions) {
+        if (log.isDebugEnabled()) {
+            log.debug("Calculating monthly breakdown for customer: {} with {} transactions",
+                    customer.getId(), transactions.size());
+        }
+
+        Map<String, Integer> monthlyPoints = RewardsUtil.getMonthlyPoints(transactions, RewardsUtil.MONTH_YEAR_FORMATTER);
+
+        int totalPoints = RewardsUtil.getTotalPoints(monthlyPoints);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Monthly points breakdown for customer {}: {}", customer.getId(), monthlyPoints);
+            log.debug("Total points calculated: {}", totalPoints);
+        }
+        // Transactions arrive ordered newest first from the repository query
+        return new RewardsResponse(customer, totalPoints, monthlyPoints, listTransactions ? transactions : null);
     }
 
 
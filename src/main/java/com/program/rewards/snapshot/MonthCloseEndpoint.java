@@ -0,0 +1,40 @@
+package com.program.rewards.snapshot;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * {@code GET /actuator/monthclose} lists the closed months; {@code POST /actuator/monthclose}
+ * with {@code {"month": "2025-09"}} closes (or resumes closing) a past month on demand. A month that is
+ * malformed or not yet over, or a close that cannot start now, is answered with {@code 400} and the reason.
+ */
+@Component
+@Endpoint(id = "monthclose")
+@RequiredArgsConstructor
+public class MonthCloseEndpoint {
+
+    private final MonthCloseJob monthCloseJob;
+    private final MonthlySnapshotStore store;
+
+    @ReadOperation
+    public List<String> closedMonths() {
+        return store.getClosedMonths().stream().map(YearMonth::toString).toList();
+    }
+
+    @WriteOperation
+    public MonthCloseResult close(String month) {
+        try {
+            return monthCloseJob.close(YearMonth.parse(month));
+        } catch (DateTimeParseException | IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
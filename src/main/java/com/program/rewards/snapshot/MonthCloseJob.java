@@ -0,0 +1,224 @@
+package com.program.rewards.snapshot;
+
+import com.program.rewards.loading.DataLoadTracker;
+import com.program.rewards.util.PointsBuffer;
+import com.program.rewards.util.RewardsUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Freezes every customer's points for a finished month into {@code MONTHLY_REWARDS_SNAPSHOTS}.
+ * <p>
+ * Customer IDs are cut into fixed, aligned ranges of {@code rewards.month-close.partition-size}.
+ * The ranges are processed on a fork/join pool: each leaf reads the month's eligible transactions
+ * for its range in one query, folds them into points per customer and writes the snapshot rows in
+ * JDBC batches together with a checkpoint in one transaction. Because ranges are aligned and
+ * checkpointed, a close that was interrupted resumes with the ranges it had not finished. The month
+ * is marked closed only once every range is done; from then on the rewards service reads it from
+ * the snapshots.
+ * <p>
+ * While {@link RuleRecomputeJob} has not yet brought the snapshots to this build's rule version, a
+ * scheduled close is deferred until the recompute activates the version.
+ */
+@Slf4j
+@Component
+public class MonthCloseJob {
+
+    private final MonthlySnapshotStore store;
+    private final DataLoadTracker dataLoadTracker;
+    private final int partitionSize;
+    private final int parallelism;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean closeDeferred = new AtomicBoolean();
+
+    private final Timer closeTimer;
+    private final Counter customersCounter;
+    private final Counter snapshotsCounter;
+    private volatile double lastCustomersPerSecond;
+
+    public MonthCloseJob(MonthlySnapshotStore store,
+                         DataLoadTracker dataLoadTracker,
+                         MeterRegistry meterRegistry,
+                         @Value("${rewards.month-close.partition-size:1000}") int partitionSize,
+                         @Value("${rewards.month-close.parallelism:0}") int parallelism,
+                         @Value("${rewards.month-close.batch-size:1000}") int batchSize) {
+        this.store = store;
+        this.dataLoadTracker = dataLoadTracker;
+        this.partitionSize = partitionSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        this.closeTimer = Timer.builder("rewards.month.close")
+                .description("Duration of month-close runs")
+                .register(meterRegistry);
+        this.customersCounter = Counter.builder("rewards.month.close.customers")
+                .description("Customers processed by month-close runs")
+                .register(meterRegistry);
+        this.snapshotsCounter = Counter.builder("rewards.month.close.snapshots")
+                .description("Monthly snapshot rows written by month-close runs")
+                .register(meterRegistry);
+        Gauge.builder("rewards.month.close.throughput", this, job -> job.lastCustomersPerSecond)
+                .description("Customers per second of the last month-close run")
+                .baseUnit("customers/s")
+                .register(meterRegistry);
+    }
+
+    /** Runs at the start of each month (default 00:30 on the 1st) and closes the previous month. */
+    @Scheduled(cron = "${rewards.month-close.cron:0 30 0 1 * *}")
+    public void closePreviousMonth() {
+        if (!dataLoadTracker.isReady()) {
+            log.warn("Skipping month close: initial data load has not finished");
+            return;
+        }
+        if (!store.isRuleVersionCurrent()) {
+            log.warn("Deferring month close until rule version {} has been recomputed", RewardsUtil.RULE_VERSION);
+            closeDeferred.set(true);
+            return;
+        }
+        close(YearMonth.now().minusMonths(1));
+    }
+
+    /** Runs a scheduled close that was deferred while the rule version was being recomputed. */
+    public void closeDeferredMonth() {
+        if (closeDeferred.compareAndSet(true, false)) {
+            closePreviousMonth();
+        }
+    }
+
+    public MonthCloseResult close(YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("Only past months can be closed, got " + month);
+        }
+        if (!store.isRuleVersionCurrent()) {
+            throw new IllegalStateException("Snapshots are at rule version " + store.getActiveRuleVersion()
+                    + "; months can be closed once version " + RewardsUtil.RULE_VERSION + " has been recomputed");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A month close is already running");
+        }
+        try {
+            if (store.isClosed(month)) {
+                log.info("Month {} is already closed", month);
+                return new MonthCloseResult(month, 0, 0, 0, 0, 0, 0);
+            }
+            return closeRanges(month);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private MonthCloseResult closeRanges(YearMonth month) {
+        long start = System.nanoTime();
+        long[] bounds = store.customerIdBounds();
+        List<long[]> pending = new ArrayList<>();
+        int skipped = 0;
+        if (bounds != null) {
+            Set<Long> completed = store.completedRangeStarts(month);
+            // Ranges are aligned to multiples of the partition size so they match across restarts
+            for (long from = alignedStart(bounds[0]); from <= bounds[1]; from += partitionSize) {
+                if (completed.contains(from)) {
+                    skipped++;
+                } else {
+                    pending.add(new long[]{from, Math.min(from + partitionSize - 1, bounds[1])});
+                }
+            }
+        }
+        log.info("Closing {}: {} customer ranges to process, {} already checkpointed", month, pending.size(), skipped);
+
+        long[] totals;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            totals = pending.isEmpty() ? new long[2] : pool.invoke(new CloseRangesTask(month, pending, 0, pending.size()));
+        } finally {
+            pool.shutdown();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        double customersPerSecond = totals[0] / Math.max(elapsedNanos / 1_000_000_000d, 1e-9);
+        store.markClosed(month, totals[0], store.checkpointedSnapshots(month), elapsedMs);
+
+        closeTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        customersCounter.increment(totals[0]);
+        snapshotsCounter.increment(totals[1]);
+        lastCustomersPerSecond = customersPerSecond;
+        log.info("Closed {}: {} customers, {} snapshots in {} ms ({} customers/s)",
+                month, totals[0], totals[1], elapsedMs, Math.round(customersPerSecond));
+        return new MonthCloseResult(month, pending.size(), skipped, totals[0], totals[1], elapsedMs, customersPerSecond);
+    }
+
+    private long alignedStart(long id) {
+        return Math.floorDiv(id - 1, partitionSize) * (long) partitionSize + 1;
+    }
+
+    /** Computes and writes one range, returning {@code {customers in range, snapshots written}}. */
+    private long[] closeRange(YearMonth month, long from, long to) {
+        // Bucket = customer offset in the range, so points are summed per customer in one batch
+        int width = Math.toIntExact(to - from + 1);
+        int[] transactionCounts = new int[width];
+        PointsBuffer amounts = new PointsBuffer(width);
+        store.forEachEligibleTransaction(month, from, to, (RowCallbackHandler) rs -> {
+            int offset = (int) (rs.getLong(1) - from);
+            amounts.add(rs.getLong(2), offset);
+            transactionCounts[offset]++;
+        });
+        long[] points = new long[width];
+        amounts.addPointsTo(points);
+
+        List<long[]> snapshots = new ArrayList<>();
+        for (int offset = 0; offset < width; offset++) {
+            if (transactionCounts[offset] > 0) {
+                snapshots.add(new long[]{from + offset, points[offset], transactionCounts[offset]});
+            }
+        }
+        store.writeRange(month, from, to, snapshots, batchSize);
+        // IDs deleted or skipped by the sequence are not customers, so the throughput counts existing ones
+        return new long[]{store.countCustomers(from, to), snapshots.size()};
+    }
+
+    private class CloseRangesTask extends RecursiveTask<long[]> {
+
+        private final YearMonth month;
+        private final List<long[]> ranges;
+        private final int lo;
+        private final int hi;
+
+        CloseRangesTask(YearMonth month, List<long[]> ranges, int lo, int hi) {
+            this.month = month;
+            this.ranges = ranges;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (hi - lo == 1) {
+                long[] range = ranges.get(lo);
+                return closeRange(month, range[0], range[1]);
+            }
+            int mid = (lo + hi) >>> 1;
+            CloseRangesTask left = new CloseRangesTask(month, ranges, lo, mid);
+            CloseRangesTask right = new CloseRangesTask(month, ranges, mid, hi);
+            invokeAll(left, right);
+            long[] a = left.join();
+            long[] b = right.join();
+            return new long[]{a[0] + b[0], a[1] + b[1]};
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.program.rewards.snapshot;
+
+import java.time.YearMonth;
+
+/**
+ * Outcome of closing one month. {@code rangesSkipped} counts ranges already checkpointed by an
+ * earlier, interrupted run; throughput covers only the ranges processed by this run.
+ */
+public record MonthCloseResult(
+        YearMonth month,
+        int rangesProcessed,
+        int rangesSkipped,
+        long customersProcessed,
+        long snapshotsWritten,
+        long elapsedMs,
+        double customersPerSecond) {
+}
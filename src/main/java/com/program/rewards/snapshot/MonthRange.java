@@ -0,0 +1,18 @@
+package com.program.rewards.snapshot;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Contiguous run of calendar months, both ends inclusive.
+ */
+public record MonthRange(YearMonth first, YearMonth last) {
+
+    public LocalDateTime startInclusive() {
+        return first.atDay(1).atStartOfDay();
+    }
+
+    public LocalDateTime endExclusive() {
+        return last.plusMonths(1).atDay(1).atStartOfDay();
+    }
+}
@@ -0,0 +1,273 @@
+package com.program.rewards.snapshot;
+
+import com.program.rewards.service.RewardsService;
+import com.program.rewards.util.RewardsUtil;
+import com.program.rewards.window.WindowAlignment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * JDBC access to the month-close tables: frozen per-customer monthly points, the range
+ * checkpoints that make a close resumable, and the list of closed months.
+ * <p>
+ * Snapshot rows carry the {@link RewardsUtil#RULE_VERSION} they were computed under. Only rows of
+ * the active version are read, and only while it is the version this build computes with; until a
+ * recompute has activated it, closed months are answered by scanning instead.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class MonthlySnapshotStore {
+
+    /** Version of snapshots written before rules were versioned, active while {@code RULE_VERSIONS} is empty. */
+    static final int BASELINE_RULE_VERSION = 1;
+
+    private static final String INSERT_SNAPSHOT =
+            "INSERT INTO MONTHLY_REWARDS_SNAPSHOTS (customer_id, reward_month, rule_version, points, transaction_count, " +
+            "created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CHECKPOINT =
+            "INSERT INTO MONTH_CLOSE_CHECKPOINTS (reward_month, range_start, range_end, snapshots, completed_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_RECOMPUTE_CHECKPOINT =
+            "INSERT INTO RULE_RECOMPUTE_CHECKPOINTS (rule_version, range_start, range_end, snapshots, completed_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String ELIGIBLE_IN_RANGE =
+            "SELECT customer_id, amount_cents, transaction_date FROM TRANSACTIONS WHERE customer_id BETWEEN ? AND ? " +
+            "AND status = ? AND amount_cents > ? AND transaction_date >= ? AND transaction_date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NavigableSet<YearMonth> closedMonths = new ConcurrentSkipListSet<>();
+    private volatile boolean closedMonthsLoaded;
+    private volatile Integer activeRuleVersion;
+
+    public NavigableSet<YearMonth> getClosedMonths() {
+        if (!closedMonthsLoaded) {
+            synchronized (closedMonths) {
+                if (!closedMonthsLoaded) {
+                    jdbcTemplate.query("SELECT reward_month FROM MONTH_CLOSE_RUNS",
+                            (RowCallbackHandler) rs -> closedMonths.add(YearMonth.from(rs.getDate(1).toLocalDate())));
+                    closedMonthsLoaded = true;
+                }
+            }
+        }
+        return closedMonths;
+    }
+
+    public boolean isClosed(YearMonth month) {
+        return getClosedMonths().contains(month);
+    }
+
+    /** The rule version whose snapshots are served: the one activated last. */
+    public int getActiveRuleVersion() {
+        Integer version = activeRuleVersion;
+        if (version == null) {
+            List<Integer> latest = jdbcTemplate.queryForList(
+                    "SELECT rule_version FROM RULE_VERSIONS ORDER BY activated_at DESC LIMIT 1", Integer.class);
+            version = latest.isEmpty() ? BASELINE_RULE_VERSION : latest.get(0);
+            activeRuleVersion = version;
+        }
+        return version;
+    }
+
+    /** Whether the stored snapshots were computed under the rules of this build. */
+    public boolean isRuleVersionCurrent() {
+        return getActiveRuleVersion() == RewardsUtil.RULE_VERSION;
+    }
+
+    /**
+     * Returns the latest contiguous run of closed months lying entirely inside the window, if any.
+     * A month counts as inside when the window starts at or before its first instant and ends no
+     * earlier than its {@link WindowAlignment#END_OF_DAY} on its last day, the last instant a {@code TIMESTAMP}
+     * column holds; a window ending at {@code 23:59:59} leaves out the month's last second.
+     */
+    public Optional<MonthRange> closedMonthsWithin(LocalDateTime startDate, LocalDateTime endDate) {
+        // Snapshots under other rules would disagree with the scanned part of the window
+        if (!isRuleVersionCurrent()) {
+            return Optional.empty();
+        }
+        NavigableSet<YearMonth> closed = getClosedMonths();
+        if (closed.isEmpty()) {
+            return Optional.empty();
+        }
+        YearMonth last = null;
+        YearMonth first = null;
+        for (YearMonth month : closed.descendingSet()) {
+            boolean covered = (startDate == null || !startDate.isAfter(month.atDay(1).atStartOfDay()))
+                    && (endDate == null || !endDate.isBefore(month.atEndOfMonth().atTime(WindowAlignment.END_OF_DAY)));
+            if (!covered) {
+                if (last != null) {
+                    break;
+                }
+                continue;
+            }
+            if (last != null && !month.equals(first.minusMonths(1))) {
+                break;
+            }
+            if (last == null) {
+                last = month;
+            }
+            first = month;
+        }
+        return last != null ? Optional.of(new MonthRange(first, last)) : Optional.empty();
+    }
+
+    /** Snapshot points per month for one customer; months without eligible transactions are absent. */
+    public Map<YearMonth, Integer> findPoints(long customerId, MonthRange range) {
+        Map<YearMonth, Integer> points = new HashMap<>();
+        jdbcTemplate.query("SELECT reward_month, points FROM MONTHLY_REWARDS_SNAPSHOTS " +
+                        "WHERE customer_id = ? AND reward_month BETWEEN ? AND ? AND rule_version = ?",
+                (RowCallbackHandler) rs -> points.put(YearMonth.from(rs.getDate(1).toLocalDate()), rs.getInt(2)),
+                customerId, Date.valueOf(range.first().atDay(1)), Date.valueOf(range.last().atDay(1)),
+                getActiveRuleVersion());
+        return points;
+    }
+
+    /** Lowest and highest customer ID, or {@code null} when there are no customers. */
+    public long[] customerIdBounds() {
+        return jdbcTemplate.query("SELECT MIN(id), MAX(id) FROM CUSTOMERS", rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+        });
+    }
+
+    public long countCustomers(long fromCustomerId, long toCustomerId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM CUSTOMERS WHERE id BETWEEN ? AND ?", Long.class,
+                fromCustomerId, toCustomerId);
+    }
+
+    public Set<Long> completedRangeStarts(YearMonth month) {
+        Set<Long> starts = new HashSet<>();
+        jdbcTemplate.query("SELECT range_start FROM MONTH_CLOSE_CHECKPOINTS WHERE reward_month = ?",
+                (RowCallbackHandler) rs -> starts.add(rs.getLong(1)), Date.valueOf(month.atDay(1)));
+        return starts;
+    }
+
+    /** Streams {@code (customerId, amount, date)} of every reward-eligible transaction of the month in the ID range. */
+    public void forEachEligibleTransaction(YearMonth month, long fromCustomerId, long toCustomerId,
+                                           RowCallbackHandler handler) {
+        forEachEligibleTransaction(new MonthRange(month, month), fromCustomerId, toCustomerId, handler);
+    }
+
+    /**
+     * Streams {@code (customerId, amount, date)} of every reward-eligible transaction of the months in the ID range.
+     */
+    public void forEachEligibleTransaction(MonthRange months, long fromCustomerId, long toCustomerId,
+                                           RowCallbackHandler handler) {
+        jdbcTemplate.query(ELIGIBLE_IN_RANGE, handler,
+                fromCustomerId, toCustomerId, RewardsService.COMPLETED_STATUS, RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS,
+                Timestamp.valueOf(months.first().atDay(1).atStartOfDay()),
+                Timestamp.valueOf(months.last().plusMonths(1).atDay(1).atStartOfDay()));
+    }
+
+    /**
+     * Writes the snapshot rows ({@code customerId, points, transactionCount}) of one range in batches
+     * together with its checkpoint. Both commit or neither does, so a range is never half written.
+     */
+    @Transactional
+    public void writeRange(YearMonth month, long rangeStart, long rangeEnd, List<long[]> snapshots, int batchSize) {
+        Date rewardMonth = Date.valueOf(month.atDay(1));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SNAPSHOT, snapshots, batchSize, (ps, row) -> {
+            ps.setLong(1, row[0]);
+            ps.setDate(2, rewardMonth);
+            ps.setInt(3, RewardsUtil.RULE_VERSION);
+            ps.setInt(4, (int) row[1]);
+            ps.setInt(5, (int) row[2]);
+            ps.setTimestamp(6, now);
+        });
+        jdbcTemplate.update(INSERT_CHECKPOINT, rewardMonth, rangeStart, rangeEnd, snapshots.size(), now);
+    }
+
+    public Set<Long> completedRecomputeRangeStarts(int ruleVersion) {
+        Set<Long> starts = new HashSet<>();
+        jdbcTemplate.query("SELECT range_start FROM RULE_RECOMPUTE_CHECKPOINTS WHERE rule_version = ?",
+                (RowCallbackHandler) rs -> starts.add(rs.getLong(1)), ruleVersion);
+        return starts;
+    }
+
+    /**
+     * Writes the snapshot rows ({@code customerId, points, transactionCount, epochDay of the month's first day})
+     * recomputed for one range under {@code ruleVersion}, together with its checkpoint. The rows stay unread
+     * until the version is activated.
+     */
+    @Transactional
+    public void writeRecomputedRange(int ruleVersion, long rangeStart, long rangeEnd, List<long[]> snapshots,
+                                     int batchSize) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SNAPSHOT, snapshots, batchSize, (ps, row) -> {
+            ps.setLong(1, row[0]);
+            ps.setDate(2, Date.valueOf(LocalDate.ofEpochDay(row[3])));
+            ps.setInt(3, ruleVersion);
+            ps.setInt(4, (int) row[1]);
+            ps.setInt(5, (int) row[2]);
+            ps.setTimestamp(6, now);
+        });
+        jdbcTemplate.update(INSERT_RECOMPUTE_CHECKPOINT, ruleVersion, rangeStart, rangeEnd, snapshots.size(), now);
+    }
+
+    /** Snapshots written so far under a rule version according to its checkpoints. */
+    public long checkpointedRecomputedSnapshots(int ruleVersion) {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(snapshots), 0) FROM RULE_RECOMPUTE_CHECKPOINTS WHERE rule_version = ?",
+                Long.class, ruleVersion);
+        return total != null ? total : 0;
+    }
+
+    /**
+     * Makes {@code ruleVersion} the served version and drops the snapshots of every other version in the
+     * same transaction. Month-close checkpoints of months that never finished closing are dropped too:
+     * their rows were written under the old rules, so those ranges have to be closed again.
+     * Readers switch over on {@link #reloadActiveRuleVersion()}.
+     */
+    @Transactional
+    public void activateRuleVersion(int ruleVersion, int months, long customers, long snapshots, long elapsedMs) {
+        jdbcTemplate.update("MERGE INTO RULE_VERSIONS (rule_version, months, customers, snapshots, elapsed_ms, " +
+                        "activated_at) KEY (rule_version) VALUES (?, ?, ?, ?, ?, ?)",
+                ruleVersion, months, customers, snapshots, elapsedMs, Timestamp.valueOf(LocalDateTime.now()));
+        int dropped = jdbcTemplate.update("DELETE FROM MONTHLY_REWARDS_SNAPSHOTS WHERE rule_version <> ?", ruleVersion);
+        jdbcTemplate.update("DELETE FROM MONTH_CLOSE_CHECKPOINTS " +
+                "WHERE reward_month NOT IN (SELECT reward_month FROM MONTH_CLOSE_RUNS)");
+        jdbcTemplate.update("DELETE FROM RULE_RECOMPUTE_CHECKPOINTS");
+        log.info("Activating rule version {}, dropping {} snapshots of other versions", ruleVersion, dropped);
+    }
+
+    /** Re-reads the active rule version; call once an activation has committed. */
+    public void reloadActiveRuleVersion() {
+        activeRuleVersion = null;
+    }
+
+    public void markClosed(YearMonth month, long customers, long snapshots, long elapsedMs) {
+        jdbcTemplate.update("INSERT INTO MONTH_CLOSE_RUNS (reward_month, customers, snapshots, elapsed_ms, completed_at) " +
+                        "VALUES (?, ?, ?, ?, ?)",
+                Date.valueOf(month.atDay(1)), customers, snapshots, elapsedMs, Timestamp.valueOf(LocalDateTime.now()));
+        getClosedMonths().add(month);
+    }
+
+    /** Snapshots written so far for a month according to its checkpoints, including earlier interrupted runs. */
+    public long checkpointedSnapshots(YearMonth month) {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(snapshots), 0) FROM MONTH_CLOSE_CHECKPOINTS WHERE reward_month = ?",
+                Long.class, Date.valueOf(month.atDay(1)));
+        return total != null ? total : 0;
+    }
+}
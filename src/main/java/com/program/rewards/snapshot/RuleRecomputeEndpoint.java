@@ -0,0 +1,43 @@
+package com.program.rewards.snapshot;
+
+import com.program.rewards.util.RewardsUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/rulerecompute} shows the served and the deployed rule version and the progress of a
+ * running recompute; {@code POST /actuator/rulerecompute} recomputes (or resumes recomputing) the closed
+ * months under the deployed version.
+ */
+@Component
+@Endpoint(id = "rulerecompute")
+@RequiredArgsConstructor
+public class RuleRecomputeEndpoint {
+
+    private final RuleRecomputeJob ruleRecomputeJob;
+    private final MonthlySnapshotStore store;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("activeVersion", store.getActiveRuleVersion());
+        status.put("deployedVersion", RewardsUtil.RULE_VERSION);
+        status.put("running", ruleRecomputeJob.isRunning());
+        status.put("progress", ruleRecomputeJob.getProgress());
+        status.put("customersPerSecond", ruleRecomputeJob.getCustomersPerSecond());
+        double eta = ruleRecomputeJob.getEtaSeconds();
+        status.put("etaSeconds", Double.isNaN(eta) ? null : eta);
+        return status;
+    }
+
+    @WriteOperation
+    public RuleRecomputeResult recompute() {
+        return ruleRecomputeJob.recompute();
+    }
+}
@@ -0,0 +1,313 @@
+package com.program.rewards.snapshot;
+
+import com.program.rewards.invalidation.RewardsCacheInvalidator;
+import com.program.rewards.loading.DataLoadTracker;
+import com.program.rewards.util.PointsBuffer;
+import com.program.rewards.util.RewardsUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recomputes the snapshots of every closed month when {@link RewardsUtil#RULE_VERSION} changes.
+ * <p>
+ * The work is cut like a month close: aligned customer-ID ranges of
+ * {@code rewards.rule-recompute.partition-size}, processed on a fork/join pool. Each leaf reads the
+ * eligible transactions of all closed months for its range in one query and writes the new-version
+ * rows in JDBC batches together with a checkpoint, so an interrupted recompute resumes with the ranges
+ * it had not finished. The new rows are not read while the job runs; the previous version's rows stay
+ * in place. Once every range is done the version is activated in one transaction that also drops the
+ * old rows, and cached rewards are cleared on every node. A scheduled month close that was deferred
+ * meanwhile runs right after.
+ * <p>
+ * The job starts by itself once the initial data load has finished if the stored snapshots are at
+ * another version, or on demand through {@code POST /actuator/rulerecompute}.
+ */
+@Slf4j
+@Component
+public class RuleRecomputeJob implements AutoCloseable {
+
+    private final MonthlySnapshotStore store;
+    private final DataLoadTracker dataLoadTracker;
+    private final MonthCloseJob monthCloseJob;
+    private final ObjectProvider<RewardsCacheInvalidator> cacheInvalidator;
+    private final boolean autoStart;
+    private final int partitionSize;
+    private final int parallelism;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService starter = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "rule-recompute");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter customersCounter;
+    private final Counter snapshotsCounter;
+    private final AtomicLong customersDone = new AtomicLong();
+    private volatile long customersTotal;
+    private volatile long startNanos;
+    private volatile double lastCustomersPerSecond;
+
+    public RuleRecomputeJob(MonthlySnapshotStore store,
+                            DataLoadTracker dataLoadTracker,
+                            MonthCloseJob monthCloseJob,
+                            ObjectProvider<RewardsCacheInvalidator> cacheInvalidator,
+                            MeterRegistry meterRegistry,
+                            @Value("${rewards.rule-recompute.auto-start:true}") boolean autoStart,
+                            @Value("${rewards.rule-recompute.partition-size:1000}") int partitionSize,
+                            @Value("${rewards.rule-recompute.parallelism:0}") int parallelism,
+                            @Value("${rewards.rule-recompute.batch-size:1000}") int batchSize) {
+        this.store = store;
+        this.dataLoadTracker = dataLoadTracker;
+        this.monthCloseJob = monthCloseJob;
+        this.cacheInvalidator = cacheInvalidator;
+        this.autoStart = autoStart;
+        this.partitionSize = partitionSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        this.customersCounter = Counter.builder("rewards.rule.recompute.customers")
+                .description("Customers processed by rule recompute runs")
+                .register(meterRegistry);
+        this.snapshotsCounter = Counter.builder("rewards.rule.recompute.snapshots")
+                .description("Monthly snapshot rows written by rule recompute runs")
+                .register(meterRegistry);
+        Gauge.builder("rewards.rule.recompute.progress", this, RuleRecomputeJob::getProgress)
+                .description("Share of the customers of the running recompute that are done")
+                .register(meterRegistry);
+        Gauge.builder("rewards.rule.recompute.throughput", this, RuleRecomputeJob::getCustomersPerSecond)
+                .description("Customers per second of the running, or else the last, rule recompute")
+                .baseUnit("customers/s")
+                .register(meterRegistry);
+        Gauge.builder("rewards.rule.recompute.eta", this, RuleRecomputeJob::getEtaSeconds)
+                .description("Estimated time until the running rule recompute activates its version")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("rewards.rule.version", store, MonthlySnapshotStore::getActiveRuleVersion)
+                .description("Rule version of the snapshots being served")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (autoStart) {
+            dataLoadTracker.whenReady(() -> starter.execute(this::recomputeIfOutdated));
+        }
+    }
+
+    private void recomputeIfOutdated() {
+        if (store.isRuleVersionCurrent()) {
+            return;
+        }
+        try {
+            recompute();
+        } catch (RuntimeException e) {
+            log.error("Recomputing snapshots for rule version {} failed; it resumes on the next start or request",
+                    RewardsUtil.RULE_VERSION, e);
+        }
+    }
+
+    /** Recomputes the closed months under this build's rule version and activates it. */
+    public RuleRecomputeResult recompute() {
+        return recompute(RewardsUtil.RULE_VERSION);
+    }
+
+    RuleRecomputeResult recompute(int ruleVersion) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A rule recompute is already running");
+        }
+        try {
+            if (store.getActiveRuleVersion() == ruleVersion) {
+                log.info("Snapshots are already at rule version {}", ruleVersion);
+                return new RuleRecomputeResult(ruleVersion, 0, 0, 0, 0, 0, 0, 0);
+            }
+            return recomputeRanges(ruleVersion);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private RuleRecomputeResult recomputeRanges(int ruleVersion) {
+        long start = System.nanoTime();
+        List<YearMonth> months = List.copyOf(store.getClosedMonths());
+        long[] bounds = months.isEmpty() ? null : store.customerIdBounds();
+        List<long[]> pending = new ArrayList<>();
+        int skipped = 0;
+        long total = 0;
+        if (bounds != null) {
+            Set<Long> completed = store.completedRecomputeRangeStarts(ruleVersion);
+            for (long from = Math.floorDiv(bounds[0] - 1, partitionSize) * (long) partitionSize + 1;
+                 from <= bounds[1]; from += partitionSize) {
+                long to = Math.min(from + partitionSize - 1, bounds[1]);
+                if (completed.contains(from)) {
+                    skipped++;
+                } else {
+                    pending.add(new long[]{from, to});
+                    total += to - from + 1;
+                }
+            }
+        }
+        log.info("Recomputing {} closed months under rule version {}: {} customer ranges to process, {} already checkpointed",
+                months.size(), ruleVersion, pending.size(), skipped);
+
+        customersDone.set(0);
+        customersTotal = total;
+        startNanos = start;
+        long[] totals;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            totals = pending.isEmpty() ? new long[2]
+                    : pool.invoke(new RecomputeRangesTask(ruleVersion, months, pending, 0, pending.size()));
+        } finally {
+            pool.shutdown();
+            startNanos = 0;
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        double customersPerSecond = totals[0] / Math.max(elapsedNanos / 1_000_000_000d, 1e-9);
+        store.activateRuleVersion(ruleVersion, months.size(), totals[0],
+                store.checkpointedRecomputedSnapshots(ruleVersion), elapsedMs);
+        store.reloadActiveRuleVersion();
+        // Cached responses were summed from the previous version's snapshots
+        cacheInvalidator.ifAvailable(RewardsCacheInvalidator::invalidateAll);
+        lastCustomersPerSecond = customersPerSecond;
+        log.info("Activated rule version {}: {} customers, {} snapshots recomputed in {} ms ({} customers/s)",
+                ruleVersion, totals[0], totals[1], elapsedMs, Math.round(customersPerSecond));
+
+        if (ruleVersion == RewardsUtil.RULE_VERSION) {
+            monthCloseJob.closeDeferredMonth();
+        }
+        return new RuleRecomputeResult(ruleVersion, months.size(), pending.size(), skipped, totals[0], totals[1],
+                elapsedMs, customersPerSecond);
+    }
+
+    /**
+     * Computes and writes one range for all closed months, returning
+     * {@code {customers in range, snapshots written}}.
+     */
+    private long[] recomputeRange(int ruleVersion, List<YearMonth> months, long from, long to) {
+        YearMonth first = months.get(0);
+        YearMonth last = months.get(months.size() - 1);
+        // Open months between closed ones map to -1 and are skipped
+        int[] slots = new int[(int) first.until(last, ChronoUnit.MONTHS) + 1];
+        Arrays.fill(slots, -1);
+        for (int i = 0; i < months.size(); i++) {
+            slots[(int) first.until(months.get(i), ChronoUnit.MONTHS)] = i;
+        }
+
+        // Bucket = customer offset * months + month slot, so all months of the range are summed in one batch
+        int customers = Math.toIntExact(to - from + 1);
+        int[] transactionCounts = new int[customers * months.size()];
+        PointsBuffer amounts = new PointsBuffer(customers);
+        store.forEachEligibleTransaction(new MonthRange(first, last), from, to, (RowCallbackHandler) rs -> {
+            int slot = slots[(int) first.until(YearMonth.from(rs.getTimestamp(3).toLocalDateTime()), ChronoUnit.MONTHS)];
+            if (slot >= 0) {
+                int bucket = (int) (rs.getLong(1) - from) * months.size() + slot;
+                amounts.add(rs.getLong(2), bucket);
+                transactionCounts[bucket]++;
+            }
+        });
+        long[] points = new long[transactionCounts.length];
+        amounts.addPointsTo(points);
+
+        List<long[]> snapshots = new ArrayList<>();
+        for (int bucket = 0; bucket < transactionCounts.length; bucket++) {
+            if (transactionCounts[bucket] > 0) {
+                snapshots.add(new long[]{from + bucket / months.size(), points[bucket], transactionCounts[bucket],
+                        months.get(bucket % months.size()).atDay(1).toEpochDay()});
+            }
+        }
+        store.writeRecomputedRange(ruleVersion, from, to, snapshots, batchSize);
+
+        customersDone.addAndGet(customers);
+        customersCounter.increment(customers);
+        snapshotsCounter.increment(snapshots.size());
+        return new long[]{customers, snapshots.size()};
+    }
+
+    /** Share of the customers of the running, or else the last, recompute that are done. */
+    public double getProgress() {
+        long total = customersTotal;
+        return total == 0 ? 0 : (double) customersDone.get() / total;
+    }
+
+    public double getCustomersPerSecond() {
+        long started = startNanos;
+        if (started == 0) {
+            return lastCustomersPerSecond;
+        }
+        return customersDone.get() / Math.max((System.nanoTime() - started) / 1_000_000_000d, 1e-9);
+    }
+
+    /** Remaining customers at the throughput so far; {@code NaN} when no recompute is running or none is done yet. */
+    public double getEtaSeconds() {
+        double rate = getCustomersPerSecond();
+        if (startNanos == 0 || rate <= 0) {
+            return Double.NaN;
+        }
+        return (customersTotal - customersDone.get()) / rate;
+    }
+
+    @Override
+    public void close() {
+        starter.shutdownNow();
+    }
+
+    private class RecomputeRangesTask extends RecursiveTask<long[]> {
+
+        private final int ruleVersion;
+        private final List<YearMonth> months;
+        private final List<long[]> ranges;
+        private final int lo;
+        private final int hi;
+
+        RecomputeRangesTask(int ruleVersion, List<YearMonth> months, List<long[]> ranges, int lo, int hi) {
+            this.ruleVersion = ruleVersion;
+            this.months = months;
+            this.ranges = ranges;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (hi - lo == 1) {
+                long[] range = ranges.get(lo);
+                return recomputeRange(ruleVersion, months, range[0], range[1]);
+            }
+            int mid = (lo + hi) >>> 1;
+            RecomputeRangesTask left = new RecomputeRangesTask(ruleVersion, months, ranges, lo, mid);
+            RecomputeRangesTask right = new RecomputeRangesTask(ruleVersion, months, ranges, mid, hi);
+            invokeAll(left, right);
+            long[] a = left.join();
+            long[] b = right.join();
+            return new long[]{a[0] + b[0], a[1] + b[1]};
+        }
+    }
+}
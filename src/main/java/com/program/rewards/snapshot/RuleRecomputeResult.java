@@ -0,0 +1,16 @@
+package com.program.rewards.snapshot;
+
+/**
+ * Outcome of recomputing the closed months under a rule version. {@code rangesSkipped} counts ranges
+ * already checkpointed by an earlier, interrupted run; throughput covers only the ranges processed by this run.
+ */
+public record RuleRecomputeResult(
+        int ruleVersion,
+        int months,
+        int rangesProcessed,
+        int rangesSkipped,
+        long customersProcessed,
+        long snapshotsWritten,
+        long elapsedMs,
+        double customersPerSecond) {
+}
@@ -0,0 +1,209 @@
+package com.program.rewards.tracing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps whole traces based on how the request turned out instead of deciding up front.
+ * <p>
+ * Ended spans are buffered per trace until the trace's local root span (for a request, the server
+ * span) ends. The trace is then handed to the downstream processors, normally Boot's batch exporter,
+ * if it was slow (root latency of at least {@code latencyThreshold}), failed (any span with an error
+ * status or a {@code SERVER_ERROR} outcome) or is picked at random at {@code baseRate}; otherwise it
+ * is discarded. Spans that end after their trace was decided follow that decision.
+ * <p>
+ * Memory is bounded: at most {@code maxPendingTraces} traces of {@code maxSpansPerTrace} spans are
+ * buffered, and a trace whose root has not ended within {@code maxTraceDuration} is dropped.
+ * Downstream processors that need {@code onStart} still see every span start, but only kept spans end.
+ */
+@Slf4j
+public class TailSamplingSpanProcessor implements SpanProcessor {
+
+    public enum Decision {
+        SLOW,
+        ERROR,
+        SAMPLED,
+        DROPPED
+    }
+
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final String SERVER_ERROR = "SERVER_ERROR";
+
+    private final SpanProcessor downstream;
+    private final long latencyThresholdNanos;
+    private final double baseRate;
+    private final int maxSpansPerTrace;
+    private final Cache<String, TraceBuffer> pending;
+    private final Cache<String, Boolean> decided;
+
+    private final Counter slowCounter;
+    private final Counter errorCounter;
+    private final Counter sampledCounter;
+    private final Counter droppedCounter;
+    private final Counter overflowCounter;
+
+    public TailSamplingSpanProcessor(SpanProcessor downstream, Duration latencyThreshold, double baseRate,
+                                     int maxPendingTraces, int maxSpansPerTrace, Duration maxTraceDuration,
+                                     MeterRegistry meterRegistry) {
+        this.downstream = downstream;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.baseRate = baseRate;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.pending = Caffeine.newBuilder()
+                .maximumSize(maxPendingTraces)
+                .expireAfterWrite(maxTraceDuration)
+                .removalListener((String traceId, TraceBuffer buffer, RemovalCause cause) -> {
+                    if (cause.wasEvicted() && buffer != null) {
+                        overflow(buffer.spans.size());
+                    }
+                })
+                .build();
+        this.decided = Caffeine.newBuilder()
+                .maximumSize(maxPendingTraces)
+                .expireAfterWrite(maxTraceDuration)
+                .build();
+
+        this.slowCounter = traces(meterRegistry, Decision.SLOW);
+        this.errorCounter = traces(meterRegistry, Decision.ERROR);
+        this.sampledCounter = traces(meterRegistry, Decision.SAMPLED);
+        this.droppedCounter = traces(meterRegistry, Decision.DROPPED);
+        this.overflowCounter = Counter.builder("rewards.tracing.spans.overflow")
+                .description("Spans discarded because the tail-sampling buffer was full or the trace never completed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        downstream.onStart(parentContext, span);
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return downstream.isStartRequired();
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        String traceId = span.getSpanContext().getTraceId();
+        Boolean keep = decided.getIfPresent(traceId);
+        if (keep != null) {
+            if (keep) {
+                downstream.onEnd(span); // late span of a trace already decided
+            }
+            return;
+        }
+
+        TraceBuffer buffer = pending.get(traceId, id -> new TraceBuffer());
+        List<ReadableSpan> spans;
+        Decision decision;
+        synchronized (buffer) {
+            if (buffer.decision != null) {
+                // The root ended while this span was being added
+                if (buffer.decision != Decision.DROPPED) {
+                    downstream.onEnd(span);
+                }
+                return;
+            }
+            if (buffer.spans.size() >= maxSpansPerTrace) {
+                overflow(1);
+            } else {
+                buffer.spans.add(span);
+            }
+            buffer.error |= isError(span);
+            if (!isLocalRoot(span)) {
+                return;
+            }
+            decision = decide(span, buffer.error);
+            buffer.decision = decision;
+            decided.put(traceId, decision != Decision.DROPPED);
+            spans = buffer.spans;
+        }
+        pending.invalidate(traceId);
+
+        if (decision != Decision.DROPPED) {
+            spans.forEach(downstream::onEnd);
+        }
+        if (log.isTraceEnabled()) {
+            log.trace("Trace {} ({} spans, {} ms): {}", traceId, spans.size(),
+                    span.getLatencyNanos() / 1_000_000, decision);
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return downstream.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        pending.invalidateAll();
+        return downstream.shutdown();
+    }
+
+    Decision decide(ReadableSpan root, boolean error) {
+        Decision decision;
+        if (error) {
+            decision = Decision.ERROR;
+            errorCounter.increment();
+        } else if (root.getLatencyNanos() >= latencyThresholdNanos) {
+            decision = Decision.SLOW;
+            slowCounter.increment();
+        } else if (baseRate > 0 && ThreadLocalRandom.current().nextDouble() < baseRate) {
+            decision = Decision.SAMPLED;
+            sampledCounter.increment();
+        } else {
+            decision = Decision.DROPPED;
+            droppedCounter.increment();
+        }
+        return decision;
+    }
+
+    private static boolean isLocalRoot(ReadableSpan span) {
+        SpanContext parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    private static boolean isError(ReadableSpan span) {
+        return SERVER_ERROR.equals(span.getAttribute(OUTCOME))
+                || span.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR;
+    }
+
+    private void overflow(int spans) {
+        overflowCounter.increment(spans);
+    }
+
+    private static Counter traces(MeterRegistry meterRegistry, Decision decision) {
+        return Counter.builder("rewards.tracing.traces")
+                .tag("decision", decision.name().toLowerCase())
+                .description("Traces completed under tail sampling, by decision")
+                .register(meterRegistry);
+    }
+
+    private static final class TraceBuffer {
+        private final List<ReadableSpan> spans = new ArrayList<>(4);
+        private boolean error;
+        private Decision decision;
+    }
+}
@@ -0,0 +1,87 @@
+package com.program.rewards.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Points for many transactions at once, for the bulk paths (month close, export) that have amounts in
+ * primitive arrays rather than as {@code Transaction} entities.
+ * <p>
+ * Results are identical to {@link RewardsUtil#calculatePoints} for every transaction above
+ * {@link RewardsUtil#MIN_AMOUNT_CENTS_FOR_REWARDS}; transactions at or below it earn nothing. Point totals are
+ * held as {@code long}, so they do not overflow past ~$10M. {@link #get()} returns an implementation on the
+ * JDK Vector API when the JVM was started with {@code --add-modules jdk.incubator.vector}, and this scalar
+ * one otherwise.
+ */
+@Slf4j
+public class BatchPoints {
+
+    private static final BatchPoints SCALAR = new BatchPoints();
+    private static final BatchPoints VECTORIZED = loadVectorized();
+    private static final BatchPoints BEST = VECTORIZED != null ? VECTORIZED : SCALAR;
+
+    BatchPoints() {
+    }
+
+    /** The fastest implementation available in this JVM. */
+    public static BatchPoints get() {
+        return BEST;
+    }
+
+    public static BatchPoints scalar() {
+        return SCALAR;
+    }
+
+    /** The Vector API implementation, or {@code null} when the incubator module is not available. */
+    public static BatchPoints vectorized() {
+        return VECTORIZED;
+    }
+
+    /** Stores the points of {@code amountCents[i]} in {@code points[i]} for the first {@code length} amounts. */
+    public void points(long[] amountCents, long[] points, int length) {
+        for (int i = 0; i < length; i++) {
+            points[i] = points(amountCents[i]);
+        }
+    }
+
+    /**
+     * Adds the points of {@code amountCents[i]} to {@code pointsByBucket[buckets[i]]} for the first
+     * {@code length} amounts. Buckets are typically month indices within a window, or customer offsets
+     * within an ID range.
+     */
+    public void addPoints(long[] amountCents, int[] buckets, int length, long[] pointsByBucket) {
+        for (int i = 0; i < length; i++) {
+            pointsByBucket[buckets[i]] += points(amountCents[i]);
+        }
+    }
+
+    public boolean isVectorized() {
+        return false;
+    }
+
+    /** {@link RewardsUtil#calculatePoints} for eligible amounts without its trace logging, 0 otherwise. */
+    static long points(long amountCents) {
+        if (amountCents <= RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS) {
+            return 0;
+        }
+        long doublePoints = Math.max(amountCents - RewardsUtil.DOUBLE_POINTS_ABOVE_CENTS, 0);
+        long singlePoints = Math.min(amountCents, RewardsUtil.DOUBLE_POINTS_ABOVE_CENTS)
+                - RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS;
+        return doublePoints * 2 / RewardsUtil.CENTS_PER_DOLLAR + singlePoints / RewardsUtil.CENTS_PER_DOLLAR;
+    }
+
+    private static BatchPoints loadVectorized() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            log.info("Batch points use the scalar implementation; start the JVM with " +
+                    "--add-modules jdk.incubator.vector to vectorise them");
+            return null;
+        }
+        try {
+            VectorBatchPoints vectorized = new VectorBatchPoints();
+            log.info("Batch points vectorised over {} lanes", vectorized.lanes());
+            return vectorized;
+        } catch (LinkageError e) {
+            log.warn("Vector API unavailable, batch points use the scalar implementation: {}", e.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.program.rewards.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable primitive arrays of {@code (amountCents, bucket)} pairs, collected row by row from a scan and
+ * then summed per bucket in one {@link BatchPoints} call.
+ */
+public final class PointsBuffer {
+
+    private long[] amountCents;
+    private int[] buckets;
+    private int size;
+
+    public PointsBuffer(int initialCapacity) {
+        amountCents = new long[Math.max(initialCapacity, 16)];
+        buckets = new int[amountCents.length];
+    }
+
+    public void add(long amount, int bucket) {
+        if (size == amountCents.length) {
+            amountCents = Arrays.copyOf(amountCents, size * 2);
+            buckets = Arrays.copyOf(buckets, size * 2);
+        }
+        amountCents[size] = amount;
+        buckets[size] = bucket;
+        size++;
+    }
+
+    /** Adds the points of every buffered amount to {@code pointsByBucket[bucket]}. */
+    public void addPointsTo(long[] pointsByBucket) {
+        BatchPoints.get().addPoints(amountCents, buckets, size, pointsByBucket);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
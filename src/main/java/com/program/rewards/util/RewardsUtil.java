@@ -4,59 +4,130 @@ import com.program.rewards.entity.Transaction;
 import lombok.extern.slf4j.Slf4j;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.TreeMap;
-import java.util.stream.Collectors;
 
 @Slf4j
 public class RewardsUtil {
 
-    public static final Double MIN_AMOUNT_FOR_REWARDS = 50.0;
+    /** Transactions must be strictly above $50 to earn points. Amounts are held as whole cents throughout. */
+    public static final long MIN_AMOUNT_CENTS_FOR_REWARDS = 50_00;
+
+    /** Every dollar above $100 earns double points. */
+    static final long DOUBLE_POINTS_ABOVE_CENTS = 100_00;
+
+    static final int CENTS_PER_DOLLAR = 100;
+
+    /**
+     * Version of the rules above. Bump it with any change to how points are earned: monthly snapshots
+     * written under another version are then recomputed by {@code RuleRecomputeJob}.
+     */
+    public static final int RULE_VERSION = 1;
+
+    public static final DateTimeFormatter MONTH_YEAR_FORMATTER = DateTimeFormatter.ofPattern("MMMM yyyy");
 
     public static Map<String, Integer> getMonthlyPoints(List<Transaction> transactions, DateTimeFormatter monthYearFormatter) {
-        Map<YearMonth, Integer> sortedMonthlyPoints = transactions.stream().filter(t -> t.getTransactionDate() != null && t.getAmount() > RewardsUtil.MIN_AMOUNT_FOR_REWARDS)
-                .collect(Collectors.groupingBy(
-                        t -> YearMonth.from(t.getTransactionDate()),
-                        TreeMap::new,  // Use TreeMap to sort by YearMonth
-                        Collectors.summingInt(t -> RewardsUtil.calculatePoints(t.getAmount()))
-                ))
-                .descendingMap();  // Sort in descending order (newest first)
-
-        // Convert to the final map with formatted month-year strings
+        NavigableMap<YearMonth, Integer> pointsByMonth = new TreeMap<>();  // Use TreeMap to sort by YearMonth
+        transactions.forEach(t -> addPoints(pointsByMonth, t));
+        return formatMonthlyPoints(pointsByMonth, monthYearFormatter);
+    }
+
+    /**
+     * Folds one transaction into a running per-month total. Lets callers that receive
+     * transactions one at a time (e.g. a reactive stream) accumulate points without
+     * holding the transactions themselves.
+     */
+    public static void addPoints(Map<YearMonth, Integer> pointsByMonth, Transaction transaction) {
+        if (transaction.getTransactionDate() != null && transaction.getAmountCents() > MIN_AMOUNT_CENTS_FOR_REWARDS) {
+            pointsByMonth.merge(YearMonth.from(transaction.getTransactionDate()),
+                    calculatePoints(transaction.getAmountCents()), Integer::sum);
+        }
+    }
+
+    public static Map<String, Integer> formatMonthlyPoints(NavigableMap<YearMonth, Integer> pointsByMonth,
+                                                           DateTimeFormatter monthYearFormatter) {
+        // Convert to the final map with formatted month-year strings, newest first
         Map<String, Integer> monthlyPoints = new LinkedHashMap<>();
-        sortedMonthlyPoints.forEach((yearMonth, points) -> {
+        pointsByMonth.descendingMap().forEach((yearMonth, points) -> {
             String monthYear = yearMonth.format(monthYearFormatter);
             monthlyPoints.put(monthYear, points);
         });
         return monthlyPoints;
     }
 
+    public static int getTotalPoints(Map<String, Integer> monthlyPoints) {
+        return monthlyPoints.values().stream().mapToInt(Integer::intValue).sum();
+    }
 
-    public static int calculatePoints(Double amount) {
-        log.trace("Calculating points for amount: {}", amount);
-        BigDecimal amountBD = BigDecimal.valueOf(amount);
-        BigDecimal minAmount = BigDecimal.valueOf(MIN_AMOUNT_FOR_REWARDS);
+    /**
+     * Resolves the start of the rewards window: an explicit {@code startDate} wins, then
+     * {@code days}, then {@code months}, all counted back from {@code endDate}. Returns
+     * {@code null} (the customer's whole history) when none is given.
+     */
+    public static LocalDateTime resolveStartDate(LocalDateTime startDate, LocalDateTime endDate,
+                                                 Integer days, Integer months) {
+        if (startDate != null) {
+            return startDate;
+        }
+        if (days != null) {
+            return endDate.minusDays(days);
+        }
+        if (months != null) {
+            return endDate.minusMonths(months);
+        }
+        return null;
+    }
+
+
+    /**
+     * Parses a decimal dollar amount such as {@code 120.5} into cents without going through
+     * {@code double}. Amounts with fractions of a cent are rejected.
+     */
+    public static long parseCents(String amount) {
+        return new BigDecimal(amount.trim()).movePointRight(2).longValueExact();
+    }
+
+    /** The dollar amount of {@code cents}, for display. */
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Points for one transaction of {@code amountCents}. Only whole dollars earn points, so each tier
+     * is truncated to dollars exactly as the former {@code BigDecimal} arithmetic did, in integer math.
+     */
+    public static int calculatePoints(long amountCents) {
+        // Called once per transaction: trace calls are guarded so the disabled path boxes nothing
+        boolean trace = log.isTraceEnabled();
+        if (trace) {
+            log.trace("Calculating points for amount: {}", toAmount(amountCents));
+        }
+        long upToDoublePoints = amountCents;
         int points = 0;
 
         // 2 points for every dollar over $100
-        if (amount > 100) {
-            points = amountBD.subtract(BigDecimal.valueOf(100))
-                    .multiply(BigDecimal.valueOf(2)).intValue();
-            log.trace("Added {} points for amount over $100", points);
-            amountBD = BigDecimal.valueOf(100);
+        if (amountCents > DOUBLE_POINTS_ABOVE_CENTS) {
+            points = (int) ((amountCents - DOUBLE_POINTS_ABOVE_CENTS) * 2 / CENTS_PER_DOLLAR);
+            if (trace) {
+                log.trace("Added {} points for amount over $100", points);
+            }
+            upToDoublePoints = DOUBLE_POINTS_ABOVE_CENTS;
         }
 
         // 1 point for every dollar between $50 and $100
 
-        int between50and100 = amountBD.subtract(minAmount).intValue();
+        int between50and100 = (int) ((upToDoublePoints - MIN_AMOUNT_CENTS_FOR_REWARDS) / CENTS_PER_DOLLAR);
         points += between50and100;
-        log.trace("Added {} points for amount between $50 and $100: {}", between50and100, between50and100);
-
-        log.trace("Total points calculated: {}", points);
+        if (trace) {
+            log.trace("Added {} points for amount between $50 and $100", between50and100);
+            log.trace("Total points calculated: {}", points);
+        }
         return points;
     }
 }
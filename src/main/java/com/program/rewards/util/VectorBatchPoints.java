@@ -0,0 +1,87 @@
+package com.program.rewards.util;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link BatchPoints} on the JDK Vector API, computing the tiers of one vector of amounts per step.
+ * <p>
+ * There is no vector integer division, so whole dollars are taken with the usual multiply-and-shift:
+ * {@code x / 100 == (x * 0x51EB851F) >>> 37} and {@code x / 50 == (x * 0x51EB851F) >>> 36} for every
+ * {@code 0 <= x < 2^32}. Vectors holding a larger amount (over $42.9M) and the tail of the arrays are done
+ * by the scalar code. Sums per bucket are added lane by lane, since buckets may repeat within a vector.
+ */
+final class VectorBatchPoints extends BatchPoints {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final long DIVIDE_MAGIC = 0x51EB851FL;
+    private static final long MAX_VECTOR_CENTS = (1L << 32) - 1;
+
+    int lanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public void points(long[] amountCents, long[] points, int length) {
+        int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            LongVector amounts = LongVector.fromArray(SPECIES, amountCents, i);
+            if (fitsVector(amounts)) {
+                points(amounts).intoArray(points, i);
+            } else {
+                for (int lane = i; lane < i + SPECIES.length(); lane++) {
+                    points[lane] = points(amountCents[lane]);
+                }
+            }
+        }
+        for (; i < length; i++) {
+            points[i] = points(amountCents[i]);
+        }
+    }
+
+    @Override
+    public void addPoints(long[] amountCents, int[] buckets, int length, long[] pointsByBucket) {
+        long[] lanePoints = new long[SPECIES.length()];
+        int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            LongVector amounts = LongVector.fromArray(SPECIES, amountCents, i);
+            if (fitsVector(amounts)) {
+                points(amounts).intoArray(lanePoints, 0);
+                for (int lane = 0; lane < lanePoints.length; lane++) {
+                    pointsByBucket[buckets[i + lane]] += lanePoints[lane];
+                }
+            } else {
+                for (int lane = i; lane < i + SPECIES.length(); lane++) {
+                    pointsByBucket[buckets[lane]] += points(amountCents[lane]);
+                }
+            }
+        }
+        for (; i < length; i++) {
+            pointsByBucket[buckets[i]] += points(amountCents[i]);
+        }
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+
+    private static boolean fitsVector(LongVector amounts) {
+        return !amounts.compare(VectorOperators.UNSIGNED_GT, MAX_VECTOR_CENTS).anyTrue();
+    }
+
+    /** The scalar {@link BatchPoints#points(long)} lane by lane; every lane is below 2^32. */
+    private static LongVector points(LongVector amounts) {
+        VectorMask<Long> eligible = amounts.compare(VectorOperators.GT, RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS);
+        LongVector doublePoints = amounts.sub(RewardsUtil.DOUBLE_POINTS_ABOVE_CENTS).max(0L)
+                .mul(DIVIDE_MAGIC).lanewise(VectorOperators.LSHR, 36);
+        LongVector singlePoints = amounts.min(RewardsUtil.DOUBLE_POINTS_ABOVE_CENTS)
+                .sub(RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS)
+                .mul(DIVIDE_MAGIC).lanewise(VectorOperators.LSHR, 37);
+        return LongVector.zero(SPECIES).blend(doublePoints.add(singlePoints), eligible);
+    }
+}
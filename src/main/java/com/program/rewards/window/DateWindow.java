@@ -0,0 +1,9 @@
+package com.program.rewards.window;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resolved rewards window, both ends inclusive. A {@code null} start means the customer's whole history.
+ */
+public record DateWindow(LocalDateTime start, LocalDateTime end) {
+}
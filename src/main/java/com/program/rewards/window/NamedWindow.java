@@ -0,0 +1,49 @@
+package com.program.rewards.window;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Calendar windows selected by name with the {@code window} request parameter. They always cover whole
+ * days or months; windows that include the current month end at its last day, which returns the same
+ * points as ending today (there are no future transactions) but keeps the window, and its cache entry,
+ * stable for the whole month.
+ */
+public enum NamedWindow {
+
+    /** The current day. */
+    TODAY,
+    /** Month to date. */
+    CURRENT_MONTH,
+    /** The whole of last month. */
+    PREVIOUS_MONTH,
+    /** The current month and the two before it. */
+    LAST_3_MONTHS,
+    /** The current month and the five before it. */
+    LAST_6_MONTHS,
+    /** The current month and the eleven before it. */
+    LAST_12_MONTHS,
+    /** January of the current year to date. */
+    YTD,
+    /** The whole of last calendar year. */
+    PREVIOUS_YEAR;
+
+    /** Resolves the window relative to {@code today}. */
+    public DateWindow resolve(LocalDate today) {
+        YearMonth month = YearMonth.from(today);
+        return switch (this) {
+            case TODAY -> new DateWindow(today.atStartOfDay(), today.atTime(WindowAlignment.END_OF_DAY));
+            case CURRENT_MONTH -> months(month, month);
+            case PREVIOUS_MONTH -> months(month.minusMonths(1), month.minusMonths(1));
+            case LAST_3_MONTHS -> months(month.minusMonths(2), month);
+            case LAST_6_MONTHS -> months(month.minusMonths(5), month);
+            case LAST_12_MONTHS -> months(month.minusMonths(11), month);
+            case YTD -> months(month.withMonth(1), month);
+            case PREVIOUS_YEAR -> months(month.minusYears(1).withMonth(1), month.minusYears(1).withMonth(12));
+        };
+    }
+
+    private static DateWindow months(YearMonth first, YearMonth last) {
+        return new DateWindow(first.atDay(1).atStartOfDay(), last.atEndOfMonth().atTime(WindowAlignment.END_OF_DAY));
+    }
+}
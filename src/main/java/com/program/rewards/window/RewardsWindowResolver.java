@@ -0,0 +1,45 @@
+package com.program.rewards.window;
+
+import com.program.rewards.util.RewardsUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Turns the window parameters of the rewards endpoints into the dates passed to the services.
+ * <p>
+ * An explicit {@code startDate} wins, then a {@link NamedWindow}, then {@code days}, then {@code months},
+ * all counted back from {@code endDate} or, when it is absent, from now. Explicit dates are used as
+ * given; everything derived from the current time is widened to {@code rewards.window.alignment}
+ * boundaries, so the resolved window is stable and the rewards cache, which is keyed by the exact
+ * window, is shared by every request in the same day (or month).
+ */
+@Component
+public class RewardsWindowResolver {
+
+    private final WindowAlignment alignment;
+
+    public RewardsWindowResolver(@Value("${rewards.window.alignment:day}") WindowAlignment alignment) {
+        this.alignment = alignment;
+    }
+
+    public DateWindow resolve(LocalDateTime startDate, LocalDateTime endDate, Integer days, Integer months,
+                              NamedWindow window) {
+        return resolve(startDate, endDate, days, months, window, LocalDateTime.now());
+    }
+
+    DateWindow resolve(LocalDateTime startDate, LocalDateTime endDate, Integer days, Integer months,
+                       NamedWindow window, LocalDateTime now) {
+        LocalDateTime end = endDate != null ? endDate : alignment.ceil(now);
+        if (startDate != null) {
+            return new DateWindow(startDate, end);
+        }
+        LocalDateTime anchor = endDate != null ? endDate : now;
+        if (window != null) {
+            return window.resolve(anchor.toLocalDate());
+        }
+        LocalDateTime start = RewardsUtil.resolveStartDate(null, anchor, days, months);
+        return new DateWindow(start != null ? alignment.floor(start) : null, end);
+    }
+}
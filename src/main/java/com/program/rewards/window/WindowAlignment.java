@@ -0,0 +1,62 @@
+package com.program.rewards.window;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+
+/**
+ * How relative windows ({@code days}, {@code months}) are widened to calendar boundaries. Aligned
+ * windows only change when the boundary is crossed, so every request within it resolves to the same
+ * window and shares one cache entry.
+ */
+public enum WindowAlignment {
+
+    /** Windows end exactly at the request time and start exactly {@code days}/{@code months} before it. */
+    NONE {
+        @Override
+        public LocalDateTime floor(LocalDateTime dateTime) {
+            return dateTime;
+        }
+
+        @Override
+        public LocalDateTime ceil(LocalDateTime dateTime) {
+            return dateTime;
+        }
+    },
+
+    /** Windows start at midnight and end at the last instant of the day. */
+    DAY {
+        @Override
+        public LocalDateTime floor(LocalDateTime dateTime) {
+            return dateTime.toLocalDate().atStartOfDay();
+        }
+
+        @Override
+        public LocalDateTime ceil(LocalDateTime dateTime) {
+            return dateTime.toLocalDate().atTime(END_OF_DAY);
+        }
+    },
+
+    /** Windows start on the 1st and end at the last instant of the month. */
+    MONTH {
+        @Override
+        public LocalDateTime floor(LocalDateTime dateTime) {
+            return dateTime.toLocalDate().withDayOfMonth(1).atStartOfDay();
+        }
+
+        @Override
+        public LocalDateTime ceil(LocalDateTime dateTime) {
+            return YearMonth.from(dateTime).atEndOfMonth().atTime(END_OF_DAY);
+        }
+    };
+
+    /**
+     * Last instant of a day at the microsecond precision of the {@code TIMESTAMP} columns;
+     * {@link LocalTime#MAX} would be rounded up to the next midnight when bound as a parameter.
+     */
+    public static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59, 999_999_000);
+
+    public abstract LocalDateTime floor(LocalDateTime dateTime);
+
+    public abstract LocalDateTime ceil(LocalDateTime dateTime);
+}
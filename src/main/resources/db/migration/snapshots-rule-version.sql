@@ -0,0 +1,23 @@
+-- Adds the rule version to MONTHLY_REWARDS_SNAPSHOTS and the tables of the rule recompute job.
+-- Run once against a database created with the previous schema.sql; existing snapshots become version 1.
+ALTER TABLE MONTHLY_REWARDS_SNAPSHOTS ADD COLUMN rule_version INT DEFAULT 1 NOT NULL;
+ALTER TABLE MONTHLY_REWARDS_SNAPSHOTS DROP PRIMARY KEY;
+ALTER TABLE MONTHLY_REWARDS_SNAPSHOTS ADD PRIMARY KEY (customer_id, reward_month, rule_version);
+
+CREATE TABLE IF NOT EXISTS RULE_RECOMPUTE_CHECKPOINTS (
+    rule_version INT NOT NULL,
+    range_start BIGINT NOT NULL,
+    range_end BIGINT NOT NULL,
+    snapshots INT NOT NULL,
+    completed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (rule_version, range_start)
+);
+
+CREATE TABLE IF NOT EXISTS RULE_VERSIONS (
+    rule_version INT PRIMARY KEY,
+    months INT NOT NULL,
+    customers BIGINT NOT NULL,
+    snapshots BIGINT NOT NULL,
+    elapsed_ms BIGINT NOT NULL,
+    activated_at TIMESTAMP NOT NULL
+);
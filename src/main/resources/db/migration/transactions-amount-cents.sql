@@ -0,0 +1,7 @@
+-- Converts TRANSACTIONS from DECIMAL(19,2) dollar amounts to whole-cent BIGINT amounts.
+-- Run once against a database created with the previous schema.sql; new databases are created
+-- with amount_cents directly. DECIMAL(19,2) holds whole cents, so the conversion is exact.
+ALTER TABLE TRANSACTIONS ADD COLUMN amount_cents BIGINT;
+UPDATE TRANSACTIONS SET amount_cents = CAST(amount * 100 AS BIGINT);
+ALTER TABLE TRANSACTIONS ALTER COLUMN amount_cents SET NOT NULL;
+ALTER TABLE TRANSACTIONS DROP COLUMN amount;
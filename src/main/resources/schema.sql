@@ -9,9 +9,62 @@ CREATE TABLE IF NOT EXISTS CUSTOMERS (
 
 CREATE TABLE IF NOT EXISTS TRANSACTIONS (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    amount DECIMAL(19,2) NOT NULL,
+    amount_cents BIGINT NOT NULL,  -- whole cents; db/migration/transactions-amount-cents.sql converts DECIMAL amounts
     status VARCHAR(20) NOT NULL,
     transaction_date TIMESTAMP NOT NULL,
     customer_id BIGINT NOT NULL,
     FOREIGN KEY (customer_id) REFERENCES CUSTOMERS(id)
 );
+
+CREATE INDEX IF NOT EXISTS idx_transactions_customer_date
+    ON TRANSACTIONS (customer_id, transaction_date DESC, id DESC);
+
+-- Frozen monthly points written by the month-close job; never updated once written
+CREATE TABLE IF NOT EXISTS MONTHLY_REWARDS_SNAPSHOTS (
+    customer_id BIGINT NOT NULL,
+    reward_month DATE NOT NULL,
+    rule_version INT DEFAULT 1 NOT NULL,
+    points INT NOT NULL,
+    transaction_count INT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (customer_id, reward_month, rule_version)
+);
+
+-- One row per customer-id range written for a month, so an interrupted close resumes where it stopped
+CREATE TABLE IF NOT EXISTS MONTH_CLOSE_CHECKPOINTS (
+    reward_month DATE NOT NULL,
+    range_start BIGINT NOT NULL,
+    range_end BIGINT NOT NULL,
+    snapshots INT NOT NULL,
+    completed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (reward_month, range_start)
+);
+
+-- A month is closed, and its snapshots are authoritative, once it has a row here
+CREATE TABLE IF NOT EXISTS MONTH_CLOSE_RUNS (
+    reward_month DATE PRIMARY KEY,
+    customers BIGINT NOT NULL,
+    snapshots BIGINT NOT NULL,
+    elapsed_ms BIGINT NOT NULL,
+    completed_at TIMESTAMP NOT NULL
+);
+
+-- One row per customer-id range recomputed under a new rule version, so an interrupted recompute resumes
+CREATE TABLE IF NOT EXISTS RULE_RECOMPUTE_CHECKPOINTS (
+    rule_version INT NOT NULL,
+    range_start BIGINT NOT NULL,
+    range_end BIGINT NOT NULL,
+    snapshots INT NOT NULL,
+    completed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (rule_version, range_start)
+);
+
+-- Snapshots of the most recently activated version are the ones served; no row means version 1
+CREATE TABLE IF NOT EXISTS RULE_VERSIONS (
+    rule_version INT PRIMARY KEY,
+    months INT NOT NULL,
+    customers BIGINT NOT NULL,
+    snapshots BIGINT NOT NULL,
+    elapsed_ms BIGINT NOT NULL,
+    activated_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,181 @@
+package com.program.rewards.batching;
+
+import com.program.rewards.deadline.Deadline;
+import com.program.rewards.exception.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchLoaderTest {
+
+    private static final long LONG_WINDOW = TimeUnit.SECONDS.toNanos(10);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<List<Long>> calls = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentLoads_ShouldShareOneBatchCall() throws Exception {
+        BatchLoader<Long, Long> loader = new BatchLoader<>(recording(BatchLoaderTest::tenfold), LONG_WINDOW, 8);
+        Future<Long> blocked = holdInFlight(loader);
+
+        List<Future<Long>> results = loadTogether(loader, 8, null);
+        // The batch closes once it holds 8 keys, long before the window ends
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals((i + 1) * 10L, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        release.countDown();
+        assertEquals(0L, blocked.get(5, TimeUnit.SECONDS));
+
+        assertEquals(2, calls.size());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), calls.get(1).stream().sorted().toList());
+    }
+
+    @Test
+    void loneLoads_ShouldNotWaitForTheWindow() {
+        BatchLoader<Long, Long> loader = new BatchLoader<>(recording(BatchLoaderTest::tenfold),
+                TimeUnit.MILLISECONDS.toNanos(50), 8);
+
+        long start = System.nanoTime();
+        for (long key = 1; key <= 5; key++) {
+            assertEquals(key * 10, loader.load(key, null));
+            sleep(100); // arrivals further apart than the window
+        }
+        assertNull(loader.load(-1L, null));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500 + 6 * 50));
+        assertEquals(6, calls.size());
+    }
+
+    @Test
+    void follower_ShouldNotWaitPastItsDeadline() throws Exception {
+        BatchLoader<Long, Long> loader = new BatchLoader<>(recording(keys -> {
+            if (keys.contains(1L)) {
+                sleep(2_000); // the leader's slow batch query
+            }
+            return tenfold(keys);
+        }), LONG_WINDOW, 2);
+        Future<Long> blocked = holdInFlight(loader);
+
+        List<Future<Long>> results = loadTogether(loader, 2, Deadline.after(Duration.ofMillis(100)));
+        int exceeded = 0;
+        for (Future<Long> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertInstanceOf(DeadlineExceededException.class, e.getCause());
+                exceeded++;
+            }
+        }
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+
+        // The leader runs the query itself; only the follower gives up on waiting for it
+        assertEquals(1, exceeded);
+    }
+
+    @Test
+    void failedBatch_ShouldFailTheLeaderAndRetryTheOthersAlone() throws Exception {
+        BatchLoader<Long, Long> loader = new BatchLoader<>(recording(keys -> {
+            if (keys.size() > 1) {
+                throw new IllegalStateException("batch query timed out");
+            }
+            return tenfold(keys);
+        }), LONG_WINDOW, 3);
+        Future<Long> blocked = holdInFlight(loader);
+
+        List<Future<Long>> results = loadTogether(loader, 3, null);
+        int failed = 0;
+        for (Future<Long> result : results) {
+            try {
+                assertNotNull(result.get(5, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+                failed++;
+            }
+        }
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, failed);
+        assertEquals(2, loader.fallbacks());
+    }
+
+    /**
+     * Starts a load of key 0 that stays in its batch call until released, then loads keys 1..n released
+     * together, so the loader sees them arriving close to each other.
+     */
+    private Future<Long> holdInFlight(BatchLoader<Long, Long> loader) throws InterruptedException {
+        Future<Long> blocked = executor.submit(() -> loader.load(0L, null));
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (calls.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(List.of(List.of(0L)), calls);
+        return blocked;
+    }
+
+    private List<Future<Long>> loadTogether(BatchLoader<Long, Long> loader, int n, Deadline deadline)
+            throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(n);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        for (long key = 1; key <= n; key++) {
+            long k = key;
+            results.add(executor.submit(() -> {
+                ready.countDown();
+                start.await();
+                return loader.load(k, deadline);
+            }));
+        }
+        ready.await();
+        start.countDown();
+        return results;
+    }
+
+    private Function<List<Long>, Map<Long, Long>> recording(Function<List<Long>, Map<Long, Long>> function) {
+        return keys -> {
+            calls.add(List.copyOf(keys));
+            if (keys.equals(List.of(0L))) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return function.apply(keys);
+        };
+    }
+
+    private static Map<Long, Long> tenfold(List<Long> keys) {
+        return keys.stream().filter(k -> k >= 0).collect(Collectors.toMap(k -> k, k -> k * 10));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
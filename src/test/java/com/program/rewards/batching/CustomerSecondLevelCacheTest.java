@@ -0,0 +1,63 @@
+package com.program.rewards.batching;
+
+import com.program.rewards.entity.Customer;
+import com.program.rewards.repository.CustomerRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Batching is on by default; the batched IN query must not take customer lookups away from the region
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerSecondLevelCacheTest {
+
+    @Autowired
+    private RewardsLookupBatcher rewardsLookupBatcher;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long customerId;
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteById(customerId);
+    }
+
+    @Test
+    void findCustomer_ShouldHitTheRegion_WhenBatchingIsEnabled() {
+        customerId = customerRepository.save(
+                new Customer("John Doe", "john@example.com", LocalDate.of(2024, 1, 1), "555", "Main St")).getId();
+        entityManagerFactory.getCache().evictAll();
+        double hitsBefore = regionHits();
+
+        // The first lookup is batched and fills the region, the others are answered from it
+        for (int i = 0; i < 3; i++) {
+            assertEquals("John Doe", rewardsLookupBatcher.findCustomer(customerId).orElseThrow().getName());
+        }
+
+        assertEquals(2, regionHits() - hitsBefore);
+    }
+
+    private double regionHits() {
+        FunctionCounter hits = meterRegistry.find("cache.gets").tag("cache", "customers").tag("result", "hit")
+                .functionCounter();
+        assertNotNull(hits);
+        return hits.count();
+    }
+}
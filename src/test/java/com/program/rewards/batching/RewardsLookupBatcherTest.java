@@ -0,0 +1,119 @@
+package com.program.rewards.batching;
+
+import com.program.rewards.entity.Customer;
+import com.program.rewards.entity.Transaction;
+import com.program.rewards.repository.CustomerRepository;
+import com.program.rewards.repository.TransactionRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RewardsLookupBatcherTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Test
+    void findCustomer_ShouldQueryByIdList() {
+        Customer customer = new Customer("John Doe", "john@example.com", LocalDate.of(2024, 1, 1), "555", "Main St");
+        customer.setId(7L);
+        when(customerRepository.findAllById(List.of(7L))).thenReturn(List.of(customer));
+        RewardsLookupBatcher batcher = new RewardsLookupBatcher(customerRepository, transactionRepository, entityManager,
+                null, true, Duration.ofMillis(2), 100);
+
+        assertSame(customer, batcher.findCustomer(7L).orElseThrow());
+        verify(customerRepository, never()).findById(any());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void findCustomer_ShouldReadCachedCustomersWithoutBatching() {
+        Customer customer = new Customer("John Doe", "john@example.com", LocalDate.of(2024, 1, 1), "555", "Main St");
+        customer.setId(7L);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        Cache secondLevelCache = mock(Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        when(secondLevelCache.contains(Customer.class, 7L)).thenReturn(true);
+        when(customerRepository.findById(7L)).thenReturn(Optional.of(customer));
+        RewardsLookupBatcher batcher = new RewardsLookupBatcher(customerRepository, transactionRepository, entityManager,
+                entityManagerFactory, true, Duration.ofMillis(2), 100);
+
+        assertSame(customer, batcher.findCustomer(7L).orElseThrow());
+        verify(customerRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void findCustomer_InTransaction_ShouldDetachTheLoadedEntities() {
+        Customer customer = new Customer("John Doe", "john@example.com", LocalDate.of(2024, 1, 1), "555", "Main St");
+        customer.setId(7L);
+        when(customerRepository.findAllById(List.of(7L))).thenReturn(List.of(customer));
+        RewardsLookupBatcher batcher = new RewardsLookupBatcher(customerRepository, transactionRepository, entityManager,
+                null, true, Duration.ofMillis(2), 100);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertSame(customer, batcher.findCustomer(7L).orElseThrow());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        // Followers get it outside the leader's persistence context
+        verify(entityManager).detach(customer);
+    }
+
+    @Test
+    void findEligibleTransactions_ShouldQueryByCustomerListAndKeepOnlyTheCallersRows() {
+        when(transactionRepository.findEligibleTransactionsForCustomers(eq(List.of(7L)), eq("COMPLETED"), eq(50_00L),
+                eq(START), isNull()))
+                .thenReturn(List.of(transaction(7L, 2), transaction(7L, 1)));
+        RewardsLookupBatcher batcher = new RewardsLookupBatcher(customerRepository, transactionRepository, entityManager,
+                null, true, Duration.ofMillis(2), 100);
+
+        List<Transaction> transactions = batcher.findEligibleTransactions(7L, START, null);
+
+        assertEquals(List.of(2L, 1L), transactions.stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    void disabled_ShouldUseSingleCustomerQueries() {
+        when(transactionRepository.findEligibleTransactions(7L, "COMPLETED", 50_00L, START, null)).thenReturn(List.of());
+        RewardsLookupBatcher batcher = new RewardsLookupBatcher(customerRepository, transactionRepository, entityManager,
+                null, false, Duration.ofMillis(2), 100);
+
+        assertTrue(batcher.findEligibleTransactions(7L, START, null).isEmpty());
+        verify(transactionRepository, never()).findEligibleTransactionsForCustomers(any(), any(), anyLong(), any(), any());
+    }
+
+    private static Transaction transaction(long customerId, long id) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setCustomerId(customerId);
+        transaction.setAmountCents(60_00);
+        transaction.setStatus("COMPLETED");
+        transaction.setTransactionDate(START.plusDays(id));
+        return transaction;
+    }
+}
@@ -0,0 +1,88 @@
+package com.program.rewards.benchmark;
+
+import com.program.rewards.util.BatchPoints;
+import com.program.rewards.util.RewardsUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Points per month for 1M transactions: one {@link RewardsUtil#calculatePoints} call per transaction, as the
+ * bulk paths did, against {@link BatchPoints} in its scalar and Vector API implementations. Amounts follow
+ * the synthetic generator's log-normal distribution around $80, so about two thirds are eligible.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="BatchPoints"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchPointsBenchmark {
+
+    private static final int MONTHS = 36;
+
+    @Param({"perTransaction", "scalar", "vector"})
+    private String implementation;
+
+    @Param({"1000000"})
+    private int size;
+
+    private long[] amountCents;
+    private int[] monthIndex;
+    private long[] pointsByMonth;
+    private BatchPoints batchPoints;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        amountCents = new long[size];
+        monthIndex = new int[size];
+        for (int i = 0; i < size; i++) {
+            double amount = Math.exp(Math.log(80) + 0.9 * random.nextGaussian());
+            amountCents[i] = Math.round(Math.min(Math.max(amount, 1.0), 5_000.0) * 100);
+            monthIndex[i] = random.nextInt(MONTHS);
+        }
+        pointsByMonth = new long[MONTHS];
+        batchPoints = switch (implementation) {
+            case "vector" -> {
+                if (BatchPoints.vectorized() == null) {
+                    throw new IllegalStateException("Run with --add-modules jdk.incubator.vector");
+                }
+                yield BatchPoints.vectorized();
+            }
+            case "scalar" -> BatchPoints.scalar();
+            default -> null;
+        };
+    }
+
+    @Benchmark
+    public long[] monthlyPoints() {
+        Arrays.fill(pointsByMonth, 0);
+        if (batchPoints != null) {
+            batchPoints.addPoints(amountCents, monthIndex, size, pointsByMonth);
+            return pointsByMonth;
+        }
+        for (int i = 0; i < size; i++) {
+            if (amountCents[i] > RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS) {
+                pointsByMonth[monthIndex[i]] += RewardsUtil.calculatePoints(amountCents[i]);
+            }
+        }
+        return pointsByMonth;
+    }
+}
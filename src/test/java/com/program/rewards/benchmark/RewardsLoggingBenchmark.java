@@ -0,0 +1,192 @@
+package com.program.rewards.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.program.rewards.batching.RewardsLookupBatcher;
+import com.program.rewards.dto.RewardsResponse;
+import com.program.rewards.entity.Customer;
+import com.program.rewards.entity.Transaction;
+import com.program.rewards.index.PointsHistoryIndex;
+import com.program.rewards.logging.LogRateLimiter;
+import com.program.rewards.lookup.CustomerExistenceFilter;
+import com.program.rewards.repository.CustomerRepository;
+import com.program.rewards.repository.TransactionRepository;
+import com.program.rewards.service.RewardsService;
+import com.program.rewards.snapshot.MonthlySnapshotStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of logging on the rewards request path: one {@code showTransactions} calculation over a
+ * customer's transactions with in-memory repositories, so only computation and logging remain.
+ * Log output goes through a real encoder into a discarding stream.
+ * <ul>
+ *   <li>{@code off}: logging disabled, the floor</li>
+ *   <li>{@code dev}: the default configuration, {@code com.program.rewards} at DEBUG with a synchronous appender</li>
+ *   <li>{@code prod}: the {@code prod} profile, INFO with an asynchronous appender and per-logger rate sampling</li>
+ * </ul>
+ * Run with {@code -Djmh.args="RewardsLogging -prof gc"} to see the allocation per call as well, and with
+ * {@code -t 8} to add contention on the appender.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RewardsLoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    @Param({"off", "dev", "prod"})
+    private String logging;
+
+    @Param({"36"})
+    private int transactionCount;
+
+    private RewardsService rewardsService;
+    private LoggerContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        configureLogging();
+        TransactionRepository transactionRepository = transactionRepository(transactionCount);
+        rewardsService = new RewardsService(transactionRepository,
+                new MonthlySnapshotStore(null), new NoOpTransactionManager(),
+                new CustomerExistenceFilter(null, null, false, 1, 0.01, Duration.ofSeconds(30), 1),
+                new PointsHistoryIndex(null, null, false),
+                new RewardsLookupBatcher(customerRepository(), transactionRepository, null, null, false, Duration.ofMillis(2), 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public RewardsResponse calculateMonthlyRewards() {
+        return rewardsService.calculateMonthlyRewards(1L, null, null, true);
+    }
+
+    private void configureLogging() {
+        context.reset();
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        if ("off".equals(logging)) {
+            root.setLevel(ch.qos.logback.classic.Level.OFF);
+            return;
+        }
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setName("SINK");
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        Appender<ILoggingEvent> appender = sink;
+        if ("prod".equals(logging)) {
+            LogRateLimiter rateLimiter = new LogRateLimiter();
+            rateLimiter.setContext(context);
+            rateLimiter.start();
+            context.addTurboFilter(rateLimiter);
+
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC");
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(sink);
+            async.start();
+            appender = async;
+        } else {
+            context.getLogger("com.program.rewards").setLevel(ch.qos.logback.classic.Level.DEBUG);
+        }
+        root.addAppender(appender);
+    }
+
+    private static CustomerRepository customerRepository() {
+        Customer customer = new Customer("John Doe", "john.doe@example.com",
+                LocalDate.of(2023, 1, 15), "+1-555-0101", "123 Main St, Anytown, USA");
+        customer.setId(1L);
+        return stub(CustomerRepository.class, "findById", Optional.of(customer));
+    }
+
+    private static TransactionRepository transactionRepository(int transactionCount) {
+        Random random = new Random(42);
+        LocalDateTime end = LocalDateTime.of(2025, 12, 31, 23, 59, 59);
+        List<Transaction> transactions = new ArrayList<>(transactionCount);
+        for (int i = 0; i < transactionCount; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i + 1);
+            transaction.setCustomerId(1L);
+            transaction.setAmountCents(Math.round((50 + random.nextDouble() * 950) * 100));
+            transaction.setStatus("COMPLETED");
+            transaction.setTransactionDate(end.minusMinutes(random.nextInt(36 * 30 * 24 * 60)));
+            transactions.add(transaction);
+        }
+        return stub(TransactionRepository.class, "findEligibleTransactions", transactions);
+    }
+
+    /** Repository whose only implemented method returns {@code result}. */
+    private static <T> T stub(Class<T> type, String method, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, m, args) -> {
+            if (m.getName().equals(method)) {
+                return result;
+            }
+            throw new UnsupportedOperationException(m.getName());
+        }));
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
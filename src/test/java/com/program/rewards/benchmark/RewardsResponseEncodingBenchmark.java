@@ -0,0 +1,117 @@
+package com.program.rewards.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.program.rewards.dto.RewardsResponse;
+import com.program.rewards.entity.Customer;
+import com.program.rewards.entity.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares serialisation time and bytes on the wire of a 36 month
+ * {@code showTransactions=true} response across the negotiated encodings.
+ * The encoded size of each variant is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RewardsResponseEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String encoding;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"36", "1000"})
+    private int transactionCount;
+
+    private ObjectMapper mapper;
+    private RewardsResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper = switch (encoding) {
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            default -> builder.build();
+        };
+        response = buildResponse(transactionCount);
+        System.out.printf("%n[%s gzip=%s transactions=%d] %d bytes on the wire%n",
+                encoding, gzip, transactionCount, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (!gzip) {
+            return mapper.writeValueAsBytes(response);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            mapper.writeValue(out, response);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static RewardsResponse buildResponse(int transactionCount) {
+        Random random = new Random(42);
+        Customer customer = new Customer("John Doe", "john.doe@example.com",
+                LocalDate.of(2023, 1, 15), "+1-555-0101", "123 Main St, Anytown, USA");
+        customer.setId(1L);
+
+        LocalDateTime end = LocalDateTime.of(2025, 12, 31, 23, 59, 59);
+        List<Transaction> transactions = new ArrayList<>(transactionCount);
+        for (int i = 0; i < transactionCount; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i + 1);
+            transaction.setCustomerId(1L);
+            transaction.setAmountCents(Math.round((50 + random.nextDouble() * 950) * 100));
+            transaction.setStatus("COMPLETED");
+            transaction.setTransactionDate(end.minusMinutes(random.nextInt(36 * 30 * 24 * 60)));
+            transactions.add(transaction);
+        }
+
+        DateTimeFormatter monthYearFormatter = DateTimeFormatter.ofPattern("MMMM yyyy");
+        Map<String, Integer> monthlyPoints = new LinkedHashMap<>();
+        int totalPoints = 0;
+        for (int i = 0; i < 36; i++) {
+            int points = 100 + random.nextInt(2000);
+            monthlyPoints.put(YearMonth.from(end).minusMonths(i).format(monthYearFormatter), points);
+            totalPoints += points;
+        }
+        return new RewardsResponse(customer, totalPoints, monthlyPoints, transactions);
+    }
+}
@@ -1,12 +1,18 @@
 package com.program.rewards.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.program.rewards.dto.RewardsResponse;
 import com.program.rewards.entity.Customer;
 import com.program.rewards.service.RewardsService;
+import com.program.rewards.window.NamedWindow;
+import com.program.rewards.window.RewardsWindowResolver;
+import com.program.rewards.window.WindowAlignment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -21,6 +27,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -33,6 +40,9 @@ class RewardsControllerTest {
     @Mock
     private RewardsService rewardsService;
 
+    @Spy
+    private RewardsWindowResolver windowResolver = new RewardsWindowResolver(WindowAlignment.DAY);
+
     @InjectMocks
     private RewardsController rewardsController;
 
@@ -131,6 +141,41 @@ class RewardsControllerTest {
                 .andExpect(jsonPath("$.customer.name").value("John Doe"));
     }
 
+    @Test
+    void getMonthlyRewards_WithNamedWindow_ShouldQueryWholeCalendarMonths() throws Exception {
+        var window = NamedWindow.LAST_3_MONTHS.resolve(LocalDate.now());
+        when(rewardsService.calculateMonthlyRewards(eq(1L), eq(window.start()), eq(window.end()), eq(false)))
+                .thenReturn(testResponse);
+
+        mockMvc.perform(get("/api/customers/1/rewards?window=LAST_3_MONTHS&days=30")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customer.name").value("John Doe"));
+    }
+
+    @Test
+    void getMonthlyRewards_WithUnknownWindow_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/customers/1/rewards?window=LAST_FORTNIGHT")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getMonthlyRewards_WithCborAcceptHeader_ShouldReturnCbor() throws Exception {
+        when(rewardsService.calculateMonthlyRewards(anyLong(), any(), any(),anyBoolean()))
+                .thenReturn(testResponse);
+
+        byte[] body = mockMvc.perform(get("/api/customers/1/rewards?days=30")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode decoded = new CBORMapper().readTree(body);
+        assertEquals("John Doe", decoded.path("customer").path("name").asText());
+        assertEquals(270, decoded.path("totalPoints").asInt());
+    }
+
     @Test
     void getMonthlyRewards_WithInvalidBoolean_ShouldReturnBadRequest() throws Exception {
         mockMvc.perform(get("/api/customers/1/rewards?showTransactions=notABoolean")
@@ -0,0 +1,70 @@
+package com.program.rewards.controller;
+
+import com.program.rewards.exception.GlobalExceptionHandler;
+import com.program.rewards.service.RewardsExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class RewardsExportControllerTest {
+
+    @Mock
+    private RewardsExportService rewardsExportService;
+
+    @InjectMocks
+    private RewardsExportController rewardsExportController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(rewardsExportController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void exportRewards_WithValidRange_ShouldStreamCsv() throws Exception {
+        mockMvc.perform(get("/api/rewards/export")
+                        .param("startDate", "2024-01-01T00:00:00")
+                        .param("endDate", "2024-05-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"rewards-2024-01-01-2024-05-01.csv\""));
+
+        verify(rewardsExportService).export(eq(LocalDateTime.of(2024, 1, 1, 0, 0)), eq(LocalDateTime.of(2024, 5, 1, 0, 0)),
+                eq(RewardsExportService.Format.CSV), anyInt(), any());
+    }
+
+    @Test
+    void exportRewards_WithStartAfterEnd_ShouldReturnBadRequestAsJson() throws Exception {
+        mockMvc.perform(get("/api/rewards/export")
+                        .param("startDate", "2024-05-01T00:00:00")
+                        .param("endDate", "2024-01-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("Content-Disposition"))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.error").value(
+                        "startDate 2024-05-01T00:00 must not be after endDate 2024-01-01T00:00"));
+
+        verifyNoInteractions(rewardsExportService);
+    }
+}
@@ -0,0 +1,71 @@
+package com.program.rewards.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDataGeneratorTest {
+
+    private static final LocalDate END_DATE = LocalDate.of(2025, 12, 31);
+
+    private static SyntheticDataGenerator.Settings settings(long seed) {
+        return new SyntheticDataGenerator.Settings(10_000, 20, 10_000, 1.0, 24, END_DATE, seed, 0.05, 1000, 4);
+    }
+
+    @Test
+    void transactionRows_ShouldBeIdenticalForTheSameSeed() {
+        SyntheticDataGenerator first = new SyntheticDataGenerator(null, settings(42));
+        SyntheticDataGenerator second = new SyntheticDataGenerator(null, settings(42));
+
+        assertArrayEquals(first.customerRow(7), second.customerRow(7));
+        assertEquals(rows(first.transactionRows(7, 50, 100)), rows(second.transactionRows(7, 50, 100)));
+        assertArrayEquals(SyntheticDataGenerator.transactionCounts(settings(42)),
+                SyntheticDataGenerator.transactionCounts(settings(42)));
+    }
+
+    @Test
+    void transactionRows_ShouldDifferForDifferentSeeds() {
+        SyntheticDataGenerator first = new SyntheticDataGenerator(null, settings(42));
+        SyntheticDataGenerator second = new SyntheticDataGenerator(null, settings(43));
+
+        assertNotEquals(rows(first.transactionRows(7, 50, 100)), rows(second.transactionRows(7, 50, 100)));
+    }
+
+    @Test
+    void transactionRows_ShouldFallWithinTheGeneratedMonthsWithSequentialIds() {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(null, settings(42));
+
+        List<Object[]> rows = generator.transactionRows(3, 500, 1_000);
+
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            LocalDateTime date = (LocalDateTime) row[3];
+            assertEquals(1_000L + i, row[0]);
+            assertFalse(date.toLocalDate().isBefore(LocalDate.of(2024, 1, 1)));
+            assertFalse(date.toLocalDate().isAfter(END_DATE));
+            assertEquals(3L, row[4]);
+        }
+    }
+
+    @Test
+    void transactionCounts_ShouldBeSkewedAroundTheConfiguredMean() {
+        int[] counts = SyntheticDataGenerator.transactionCounts(settings(42));
+
+        double mean = Arrays.stream(counts).average().orElseThrow();
+        int max = Arrays.stream(counts).max().orElseThrow();
+        long belowMean = Arrays.stream(counts).filter(count -> count < mean).count();
+
+        assertEquals(20, mean, 2);
+        assertTrue(max > 100 * mean, "the heaviest customer should dominate under Zipf");
+        assertTrue(belowMean > counts.length / 2, "most customers should be below the mean");
+    }
+
+    private static List<List<Object>> rows(List<Object[]> rows) {
+        return rows.stream().map(Arrays::asList).toList();
+    }
+}
@@ -0,0 +1,228 @@
+package com.program.rewards.index;
+
+import com.program.rewards.entity.Customer;
+import com.program.rewards.entity.Transaction;
+import com.program.rewards.loading.DataLoadTracker;
+import com.program.rewards.repository.CustomerRepository;
+import com.program.rewards.repository.TransactionRepository;
+import com.program.rewards.service.RewardsService;
+import com.program.rewards.util.RewardsUtil;
+import com.program.rewards.window.DateWindow;
+import com.program.rewards.window.RewardsWindowResolver;
+import com.program.rewards.window.WindowAlignment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Differential test: every answer of the index must equal what {@code RewardsService} computes from
+ * {@link TransactionRepository#findEligibleTransactions} over the same rows.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class PointsHistoryIndexTest {
+
+    private static final LocalDate FIRST_JOIN = LocalDate.of(2019, 3, 1);
+    private static final int CUSTOMERS = 25;
+    /** Customers saved without history, so their first transaction reaches the index as an append. */
+    private static final int NEW_CUSTOMERS = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private PointsHistoryIndex index;
+    private final List<Long> customerIds = new ArrayList<>();
+    private final Random random = new Random(48);
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS + NEW_CUSTOMERS; i++) {
+            LocalDate joinDate = FIRST_JOIN.plusDays(random.nextInt(1_000));
+            // Flushed so the rows inserted below see the customer
+            long customerId = customerRepository.saveAndFlush(new Customer("Customer " + i,
+                    "customer" + i + "@example.com", joinDate, "555-0100", i + " Main St")).getId();
+            customerIds.add(customerId);
+            if (i >= CUSTOMERS) {
+                continue;
+            }
+            // Histories from a few days to several years, so the trees grow through several capacities; some
+            // start before the join date, as the seed data does
+            LocalDate firstDay = random.nextInt(3) == 0 ? joinDate.minusDays(random.nextInt(400)) : joinDate;
+            int historyDays = 1 + random.nextInt(random.nextBoolean() ? 60 : 2_500);
+            for (int j = 0, count = random.nextInt(300); j < count; j++) {
+                LocalDateTime date = firstDay.plusDays(random.nextInt(historyDays)).atStartOfDay()
+                        .plusNanos(random.nextLong(86_400_000_000L) * 1_000);
+                rows.add(row(transaction(customerId, date)));
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO TRANSACTIONS (amount_cents, status, transaction_date, customer_id) " +
+                "VALUES (?, ?, ?, ?)", rows);
+        index = new PointsHistoryIndex(jdbcTemplate, new DataLoadTracker(), true);
+        index.onApplicationReady();
+    }
+
+    @Test
+    void pointsByMonth_ShouldMatchScan_ForRandomWholeDayWindows() {
+        for (int i = 0; i < 2_000; i++) {
+            long customerId = customer(random.nextInt(CUSTOMERS + 1));
+            LocalDate from = FIRST_JOIN.plusDays(random.nextInt(4_000) - 600);
+            LocalDateTime start = random.nextInt(10) == 0 ? null : from.atStartOfDay();
+            LocalDate to = from.plusDays(random.nextInt(random.nextBoolean() ? 40 : 1_500));
+            LocalDateTime end = random.nextInt(4) == 0 ? null : to.atTime(WindowAlignment.END_OF_DAY);
+
+            assertEquals(Optional.of(scan(customerId, start, end)), index.pointsByMonth(customerId, start, end),
+                    "customer " + customerId + " from " + start + " to " + end);
+        }
+    }
+
+    @Test
+    void pointsByMonth_ShouldAnswerCustomersWithTransactionsBeforeTheirJoinDate() {
+        long customerId = customer(0);
+        Customer customer = customerRepository.findById(customerId).orElseThrow();
+        LocalDateTime date = customer.getJoinDate().minusDays(90).atTime(LocalTime.NOON);
+        Transaction early = eligible(customerId, date);
+        jdbcTemplate.update("INSERT INTO TRANSACTIONS (amount_cents, status, transaction_date, customer_id) " +
+                "VALUES (?, ?, ?, ?)", row(early));
+        index.rebuild();
+
+        Optional<NavigableMap<YearMonth, Integer>> indexed = index.pointsByMonth(customerId, null, null);
+
+        assertTrue(indexed.isPresent());
+        assertEquals(Optional.of(scan(customerId, null, null)), indexed);
+    }
+
+    @Test
+    void pointsByMonth_ShouldAnswerRelativeWindows_ForSeededCustomers() {
+        // As DataInitializer and transactions.csv seed them: joined 0-4 months ago, transacting since January 2025
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = LocalDate.of(2025, 1, 1);
+        List<Long> seeded = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            long customerId = customerRepository.saveAndFlush(new Customer("Seeded " + i,
+                    "seeded" + i + "@example.com", today.minusMonths(i), "555-0100", i + " Elm St")).getId();
+            seeded.add(customerId);
+            for (LocalDate day = firstDay; !day.isAfter(today); day = day.plusDays(1 + random.nextInt(5))) {
+                rows.add(row(transaction(customerId, day.atTime(LocalTime.NOON))));
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO TRANSACTIONS (amount_cents, status, transaction_date, customer_id) " +
+                "VALUES (?, ?, ?, ?)", rows);
+        index.rebuild();
+        RewardsWindowResolver resolver = new RewardsWindowResolver(WindowAlignment.DAY);
+
+        for (int days : new int[]{30, 90, 365}) {
+            DateWindow window = resolver.resolve(null, null, days, null, null);
+            for (long customerId : seeded) {
+                assertEquals(Optional.of(scan(customerId, window.start(), window.end())),
+                        index.pointsByMonth(customerId, window.start(), window.end()),
+                        "customer " + customerId + " days=" + days);
+            }
+        }
+    }
+
+    @Test
+    void pointsByMonth_ShouldMatchScan_AfterAppendsInAnyOrder() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long customerId = customer(random.nextInt(CUSTOMERS + NEW_CUSTOMERS));
+            LocalDateTime date = FIRST_JOIN.plusDays(1_000 + random.nextInt(3_000)).atTime(LocalTime.NOON);
+            Transaction transaction = transaction(customerId, date);
+            rows.add(row(transaction));
+            index.added(transaction);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO TRANSACTIONS (amount_cents, status, transaction_date, customer_id) " +
+                "VALUES (?, ?, ?, ?)", rows);
+
+        for (int i = 0; i < CUSTOMERS + NEW_CUSTOMERS; i++) {
+            long customerId = customer(i);
+            LocalDateTime start = FIRST_JOIN.plusDays(1_000).atStartOfDay();
+            LocalDateTime end = FIRST_JOIN.plusDays(4_000).atTime(WindowAlignment.END_OF_DAY);
+            Optional<NavigableMap<YearMonth, Integer>> indexed = index.pointsByMonth(customerId, start, end);
+            // Customers new to the index are based on their first append and decline once an earlier one arrives
+            if (i < CUSTOMERS || indexed.isPresent()) {
+                assertEquals(Optional.of(scan(customerId, start, end)), indexed, "customer " + customerId);
+            }
+        }
+    }
+
+    @Test
+    void pointsByMonth_ShouldDeclinePartialDays() {
+        LocalDateTime start = FIRST_JOIN.atStartOfDay();
+        long customerId = customer(0);
+
+        assertTrue(index.pointsByMonth(customerId, start.plusHours(6), null).isEmpty());
+        assertTrue(index.pointsByMonth(customerId, start, start.plusDays(30).withHour(12)).isEmpty());
+        // Such an end excludes the day's last second, which daily sums cannot
+        assertTrue(index.pointsByMonth(customerId, start, start.plusDays(30).toLocalDate().atTime(23, 59, 59))
+                .isEmpty());
+    }
+
+    @Test
+    void pointsByMonth_ShouldDeclineCustomersWithChangedOrEarlierTransactions() {
+        long newCustomerId = customer(CUSTOMERS);
+        index.changed(customer(0));
+        index.added(eligible(newCustomerId, LocalDate.of(2024, 5, 10).atTime(LocalTime.NOON)));
+        index.added(eligible(newCustomerId, LocalDate.of(2024, 5, 9).atTime(LocalTime.NOON)));
+
+        assertTrue(index.pointsByMonth(customer(0), null, null).isEmpty());
+        assertTrue(index.pointsByMonth(newCustomerId, null, null).isEmpty());
+        assertTrue(index.pointsByMonth(customer(1), null, null).isPresent());
+    }
+
+    /** The customer saved {@code i}-th, or an ID no customer has when {@code i} is past them all. */
+    private long customer(int i) {
+        return i < customerIds.size() ? customerIds.get(i) : customerIds.get(customerIds.size() - 1) + 1;
+    }
+
+    private Transaction transaction(long customerId, LocalDateTime date) {
+        // Amounts either side of the eligibility threshold
+        long amountCents = random.nextInt(4) == 0 ? RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS + random.nextInt(3) - 1
+                : random.nextInt(400_00);
+        String status = random.nextInt(8) == 0 ? "FAILED" : RewardsService.COMPLETED_STATUS;
+        return new Transaction(null, amountCents, status, date, customerId);
+    }
+
+    private static Transaction eligible(long customerId, LocalDateTime date) {
+        return new Transaction(null, 120_00, RewardsService.COMPLETED_STATUS, date, customerId);
+    }
+
+    private static Object[] row(Transaction transaction) {
+        return new Object[]{transaction.getAmountCents(), transaction.getStatus(),
+                Timestamp.valueOf(transaction.getTransactionDate()), transaction.getCustomerId()};
+    }
+
+    /** What {@code RewardsService} computes from {@code findEligibleTransactions}. */
+    private NavigableMap<YearMonth, Integer> scan(long customerId, LocalDateTime start, LocalDateTime end) {
+        NavigableMap<YearMonth, Integer> pointsByMonth = new TreeMap<>();
+        transactionRepository.findEligibleTransactions(customerId, RewardsService.COMPLETED_STATUS,
+                        RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS, start, end)
+                .forEach(t -> RewardsUtil.addPoints(pointsByMonth, t));
+        return pointsByMonth;
+    }
+}
@@ -0,0 +1,54 @@
+package com.program.rewards.invalidation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvalidationMessageTest {
+
+    @Test
+    void encode_ShouldRoundTrip() {
+        InvalidationMessage message = InvalidationMessage.customers(-42L, 17, 3, Long.MAX_VALUE, 0, -5);
+
+        byte[] data = message.encode();
+        InvalidationMessage decoded = InvalidationMessage.decode(data, 0, data.length);
+
+        assertEquals(message, decoded);
+        assertArrayEquals(new long[]{-5, 0, 3, 17, Long.MAX_VALUE}, decoded.customerIds());
+    }
+
+    @Test
+    void encode_ShouldRoundTripClearAll() {
+        byte[] data = InvalidationMessage.everything(7).encode();
+
+        InvalidationMessage decoded = InvalidationMessage.decode(data, 0, data.length);
+
+        assertTrue(decoded.all());
+        assertEquals(7, decoded.sender());
+        assertEquals(0, decoded.customerIds().length);
+    }
+
+    @Test
+    void encode_ShouldUseAboutOneBytePerCustomerForDenseIds() {
+        long[] customerIds = LongStream.rangeClosed(100_001, 101_000).toArray();
+
+        byte[] data = InvalidationMessage.customers(1, customerIds).encode();
+
+        assertTrue(data.length < 1_020, "encoded size " + data.length);
+        assertArrayEquals(customerIds, InvalidationMessage.decode(data, 0, data.length).customerIds());
+    }
+
+    @Test
+    void decode_ShouldRejectTruncatedMessages() {
+        byte[] data = InvalidationMessage.customers(1, 1, 2, 300).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> InvalidationMessage.decode(Arrays.copyOf(data, data.length - 1), 0, data.length - 1));
+    }
+}
@@ -0,0 +1,124 @@
+package com.program.rewards.invalidation;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.program.rewards.service.RewardsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RewardsCacheInvalidatorTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2025, 3, 31, 23, 59);
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    void invalidate_ShouldEvictCustomerOnAllNodes() {
+        LocalInvalidationBus bus = new LocalInvalidationBus();
+        Node first = node(bus);
+        Node second = node(bus);
+        first.cacheRewards(1L, 2L);
+        second.cacheRewards(1L, 2L);
+
+        first.invalidator.invalidate(1L);
+        assertNull(first.cached(1L));
+        assertNotNull(second.cached(1L));
+
+        first.invalidator.flush();
+        assertNull(second.cached(1L));
+        assertNotNull(first.cached(2L));
+        assertNotNull(second.cached(2L));
+    }
+
+    @Test
+    void invalidate_ShouldEvictEveryWindowOfTheCustomer() {
+        Node node = node(new LocalInvalidationBus());
+        node.cacheRewards(1L, 2L);
+        Object otherWindow = RewardsService.rewardsCacheKey(1L, null, END, true);
+        node.cache.put(otherWindow, "all rewards 1");
+
+        node.invalidator.invalidate(1L);
+
+        assertNull(node.cached(1L));
+        assertNull(node.cache.get(otherWindow));
+        assertNotNull(node.cached(2L));
+    }
+
+    @Test
+    void invalidateAll_ShouldClearAllNodes() {
+        LocalInvalidationBus bus = new LocalInvalidationBus();
+        Node first = node(bus);
+        Node second = node(bus);
+        second.cacheRewards(1L, 2L);
+
+        first.invalidator.invalidateAll();
+
+        assertNull(second.cached(1L));
+        assertNull(second.cached(2L));
+    }
+
+    @Test
+    void invalidate_ShouldReachPeersOverUdp() throws Exception {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        DatagramSocket firstSocket = new DatagramSocket(new InetSocketAddress(loopback, 0));
+        DatagramSocket secondSocket = new DatagramSocket(new InetSocketAddress(loopback, 0));
+        Node first = node(new UdpInvalidationBus(firstSocket,
+                List.of((InetSocketAddress) secondSocket.getLocalSocketAddress())));
+        Node second = node(new UdpInvalidationBus(secondSocket,
+                List.of((InetSocketAddress) firstSocket.getLocalSocketAddress())));
+        second.cacheRewards(1L, 2L);
+
+        first.invalidator.invalidate(1L);
+        first.invalidator.flush();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (second.cached(1L) != null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNull(second.cached(1L));
+        assertNotNull(second.cached(2L));
+    }
+
+    private Node node(InvalidationBus bus) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(CustomerIndexedCache.build(RewardsService.REWARDS_CACHE, Caffeine.newBuilder())));
+        cacheManager.initializeCaches();
+        RewardsCacheInvalidator invalidator = new RewardsCacheInvalidator(cacheManager, bus, Duration.ofHours(1), 1000);
+        resources.add(invalidator);
+        resources.add(bus);
+        return new Node(cacheManager.getCache(RewardsService.REWARDS_CACHE), invalidator);
+    }
+
+    private record Node(Cache cache, RewardsCacheInvalidator invalidator) {
+
+        void cacheRewards(Long... customerIds) {
+            for (Long customerId : customerIds) {
+                cache.put(RewardsService.rewardsCacheKey(customerId, START, END, false), "rewards " + customerId);
+            }
+        }
+
+        Object cached(Long customerId) {
+            return cache.get(RewardsService.rewardsCacheKey(customerId, START, END, false));
+        }
+    }
+}
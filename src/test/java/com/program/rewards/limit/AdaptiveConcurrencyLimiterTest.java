@@ -0,0 +1,91 @@
+package com.program.rewards.limit;
+
+import com.program.rewards.exception.ServiceOverloadedException;
+import com.program.rewards.limit.AdaptiveConcurrencyLimiter.Permit;
+import com.program.rewards.limit.AdaptiveConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private SimpleMeterRegistry registry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(true, 8, 2, 100, 1.5, 0.5, 0.5, 5, 20);
+        limiter.bindTo(registry);
+    }
+
+    @Test
+    void acquire_ShouldRejectBeyondLimitAndShedLowPriorityFirst() {
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            permits.add(limiter.acquire(Priority.LOW));
+        }
+        assertThrows(ServiceOverloadedException.class, () -> limiter.acquire(Priority.LOW));
+        for (int i = 0; i < 4; i++) {
+            permits.add(limiter.acquire(Priority.NORMAL));
+        }
+        assertThrows(ServiceOverloadedException.class, () -> limiter.acquire(Priority.NORMAL));
+        assertEquals(8, limiter.getInflight());
+
+        permits.forEach(Permit::close);
+        permits.get(0).close(); // closing twice must not release a second slot
+        assertEquals(0, limiter.getInflight());
+        assertEquals(1.0, registry.get("rewards.limiter.requests")
+                .tags("priority", "low", "outcome", "rejected").counter().count());
+        assertEquals(4.0, registry.get("rewards.limiter.requests")
+                .tags("priority", "normal", "outcome", "accepted").counter().count());
+    }
+
+    @Test
+    void limit_ShouldGrowWhileLatencyIsStableAndShrinkWhenItRises() {
+        feed(FAST, 8, 50);
+        int grown = limiter.getLimit();
+        assertTrue(grown > 8, "limit should grow under stable latency, was " + grown);
+
+        feed(SLOW, grown, 10);
+        int shrunk = limiter.getLimit();
+        assertTrue(shrunk < grown, "limit should shrink when latency rises, was " + shrunk);
+        assertTrue(shrunk >= 2);
+        assertEquals(shrunk, registry.get("rewards.limiter.limit").gauge().value());
+    }
+
+    @Test
+    void limit_ShouldNotGrowWhenMostOfItIsUnused() {
+        feed(FAST, 1, 50);
+
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    void acquire_WhenDisabled_ShouldNeverReject() {
+        AdaptiveConcurrencyLimiter disabled = new AdaptiveConcurrencyLimiter(false, 1, 1, 1, 1.5, 0.5, 0.5, 5, 20);
+
+        Permit first = disabled.acquire(Priority.NORMAL);
+        Permit second = disabled.acquire(Priority.LOW);
+
+        assertEquals(2, disabled.getInflight());
+        first.close();
+        second.close();
+        assertEquals(0, disabled.getInflight());
+    }
+
+    private void feed(long rttNanos, int inflight, int windows) {
+        for (int i = 0; i < windows * 5; i++) {
+            limiter.onSample(rttNanos, inflight);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.program.rewards.limit;
+
+import com.program.rewards.exception.ServiceOverloadedException;
+import com.program.rewards.service.RewardsService;
+import com.program.rewards.window.NamedWindow;
+import com.program.rewards.window.RewardsWindowResolver;
+import com.program.rewards.window.WindowAlignment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private AdaptiveConcurrencyLimiter limiter;
+    private ConcurrentMapCache cache;
+    private ConcurrencyLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(true, 1, 1, 1, 1.5, 0.2, 0.5, 20, 100);
+        cache = new ConcurrentMapCache(RewardsService.REWARDS_CACHE);
+        interceptor = new ConcurrencyLimitInterceptor(limiter, cache, new RewardsWindowResolver(WindowAlignment.DAY));
+    }
+
+    @Test
+    void preHandle_CacheHit_ShouldBypassLimiter() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 6, 30, 23, 59, 59);
+        cache.put(RewardsService.rewardsCacheKey(1L, start, end, false), "cached");
+        MockHttpServletRequest holder = request(2L, false);
+        interceptor.preHandle(holder, response, null);
+
+        MockHttpServletRequest hit = request(1L, false);
+        hit.setParameter("startDate", start.toString());
+        hit.setParameter("endDate", end.toString());
+
+        assertTrue(interceptor.preHandle(hit, response, null));
+        assertThrows(ServiceOverloadedException.class,
+                () -> interceptor.preHandle(request(1L, false), response, null));
+    }
+
+    @Test
+    void preHandle_NamedWindowCacheHit_ShouldBypassLimiter() {
+        var window = NamedWindow.LAST_3_MONTHS.resolve(LocalDate.now());
+        cache.put(RewardsService.rewardsCacheKey(1L, window.start(), window.end(), false), "cached");
+        interceptor.preHandle(request(2L, false), response, null);
+
+        MockHttpServletRequest hit = request(1L, false);
+        hit.setParameter("window", "LAST_3_MONTHS");
+
+        assertTrue(interceptor.preHandle(hit, response, null));
+    }
+
+    @Test
+    void afterCompletion_ShouldReleasePermit() {
+        MockHttpServletRequest request = request(1L, false);
+
+        interceptor.preHandle(request, response, null);
+        assertEquals(1, limiter.getInflight());
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(0, limiter.getInflight());
+        assertTrue(interceptor.preHandle(request(1L, true), response, null));
+    }
+
+    private static MockHttpServletRequest request(long customerId, boolean showTransactions) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers/" + customerId + "/rewards");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+                Map.of("customerId", Long.toString(customerId)));
+        request.setParameter("showTransactions", Boolean.toString(showTransactions));
+        return request;
+    }
+}
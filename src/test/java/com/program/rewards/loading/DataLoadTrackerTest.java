@@ -0,0 +1,59 @@
+package com.program.rewards.loading;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataLoadTrackerTest {
+
+    private final DataLoadTracker tracker = new DataLoadTracker();
+    private final DataLoadHealthIndicator healthIndicator = new DataLoadHealthIndicator(tracker);
+
+    @Test
+    void withoutLoader_ShouldBeReady() {
+        assertTrue(tracker.isReady());
+        assertTrue(tracker.isCustomerAvailable(42));
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+    }
+
+    @Test
+    void whileLoading_ShouldOnlyServeLoadedCustomersAndReportOutOfService() {
+        tracker.pending("csv");
+        assertFalse(tracker.isReady());
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+
+        tracker.started(100);
+        tracker.rowsLoaded(40);
+        tracker.customersLoaded(1, 3);
+
+        assertTrue(tracker.isCustomerAvailable(2));
+        assertFalse(tracker.isCustomerAvailable(4));
+        assertEquals(0.4, tracker.getProgress(), 1e-9);
+        assertEquals(40L, healthIndicator.health().getDetails().get("rowsLoaded"));
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+    }
+
+    @Test
+    void afterCompletion_ShouldServeEveryCustomer() {
+        tracker.pending("generator");
+        tracker.started(10);
+        tracker.rowsLoaded(10);
+        tracker.completed();
+
+        assertTrue(tracker.isReady());
+        assertTrue(tracker.isCustomerAvailable(4));
+        assertEquals(1.0, tracker.getProgress());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+    }
+
+    @Test
+    void afterFailure_ShouldReportDown() {
+        tracker.pending("csv");
+        tracker.started(10);
+        tracker.failed(new IllegalStateException("boom"));
+
+        assertFalse(tracker.isReady());
+        assertEquals(Status.DOWN, healthIndicator.health().getStatus());
+    }
+}
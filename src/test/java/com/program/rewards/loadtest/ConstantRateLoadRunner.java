@@ -0,0 +1,154 @@
+package com.program.rewards.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a fixed request rate over a fixed number of connections, each of which sends
+ * one request at a time on its own schedule (the wrk2 model).
+ * <p>
+ * Latency is measured from the time a request <em>should</em> have been sent, not from
+ * when the connection got round to sending it. When the server stalls, the requests that
+ * queue up behind the stall are charged for the time they waited, which is what a client
+ * issuing requests at that rate would actually see. Without this correction a stall shows
+ * up as a single slow sample and the upper percentiles look far better than they are
+ * (coordinated omission). The plain service time is recorded alongside for comparison.
+ */
+final class ConstantRateLoadRunner {
+
+    static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final RequestMix mix;
+    private final Duration requestTimeout;
+
+    ConstantRateLoadRunner(HttpClient client, URI baseUri, RequestMix mix, Duration requestTimeout) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.mix = mix;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Runs {@code warmup} followed by {@code duration} at {@code requestsPerSecond} spread
+     * evenly over {@code connections}. Only requests scheduled after the warm-up are recorded.
+     */
+    Result run(int connections, double requestsPerSecond, Duration warmup, Duration duration, long seed)
+            throws InterruptedException {
+        long intervalNanos = (long) (connections * 1_000_000_000d / requestsPerSecond);
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        ExecutorService pool = Executors.newFixedThreadPool(connections);
+        try {
+            List<Future<Result>> futures = new ArrayList<>(connections);
+            for (int i = 0; i < connections; i++) {
+                // Stagger the connections so requests are spread evenly instead of arriving in bursts.
+                long firstSend = start + i * intervalNanos / connections;
+                Random random = new Random(seed + i);
+                futures.add(pool.submit(() -> runConnection(firstSend, intervalNanos, measureFrom, end, random)));
+            }
+
+            Result total = new Result(duration);
+            for (Future<Result> future : futures) {
+                total.add(future.get());
+            }
+            return total;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load connection failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Result runConnection(long firstSend, long intervalNanos, long measureFrom, long end, Random random) {
+        Result result = new Result(Duration.ofNanos(end - measureFrom));
+        for (long intended = firstSend; intended < end; intended += intervalNanos) {
+            HttpRequest request = HttpRequest.newBuilder(mix.next(baseUri, random))
+                    .timeout(requestTimeout)
+                    .GET()
+                    .build();
+
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+
+            long sent = System.nanoTime();
+            int status = send(request);
+            long done = System.nanoTime();
+
+            if (intended >= measureFrom) {
+                result.record(done - intended, done - sent, status);
+            }
+        }
+        return result;
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    static final class Result {
+
+        /** Latency from the intended send time (corrected for coordinated omission). */
+        final Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        /** Latency from the actual send time, i.e. what the server alone took. */
+        final Histogram serviceTime = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        final Duration duration;
+        long errors;
+        int peakThreads;
+        long peakHeapUsedBytes;
+
+        Result(Duration duration) {
+            this.duration = duration;
+        }
+
+        void record(long latencyNanos, long serviceNanos, int status) {
+            latency.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+            serviceTime.recordValue(Math.min(serviceNanos, HIGHEST_TRACKABLE_NANOS));
+            if (status < 200 || status >= 300) {
+                errors++;
+            }
+        }
+
+        void add(Result other) {
+            latency.add(other.latency);
+            serviceTime.add(other.serviceTime);
+            errors += other.errors;
+        }
+
+        long requests() {
+            return latency.getTotalCount();
+        }
+
+        double throughput() {
+            return requests() / (duration.toNanos() / 1_000_000_000d);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.program.rewards.loadtest;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted mix of rewards requests. Each request picks a customer uniformly from the
+ * generated id range and one of the supported window styles; {@code showTransactions}
+ * is switched on for the configured fraction of requests.
+ * <p>
+ * Weights are given as {@code days:40,months:30,range:20,all:10}.
+ */
+final class RequestMix {
+
+    enum Window {
+        /** {@code ?days=N} */
+        DAYS,
+        /** {@code ?months=N} */
+        MONTHS,
+        /** explicit {@code startDate}/{@code endDate} */
+        RANGE,
+        /** no window, the customer's whole history */
+        ALL
+    }
+
+    private static final int[] DAYS = {7, 30, 90, 180, 365};
+    private static final int[] MONTHS = {1, 3, 6, 12, 24};
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final String pathTemplate;
+    private final int customers;
+    private final int rangeMonths;
+    private final double showTransactionsRatio;
+    private final Window[] windows;
+    private final int[] cumulativeWeights;
+
+    RequestMix(String pathTemplate, int customers, int rangeMonths, Map<Window, Integer> weights,
+               double showTransactionsRatio) {
+        this.pathTemplate = pathTemplate;
+        this.customers = customers;
+        this.rangeMonths = rangeMonths;
+        this.showTransactionsRatio = showTransactionsRatio;
+        this.windows = weights.keySet().toArray(Window[]::new);
+        this.cumulativeWeights = new int[windows.length];
+        int total = 0;
+        for (int i = 0; i < windows.length; i++) {
+            total += weights.get(windows[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Request mix needs at least one positive weight: " + weights);
+        }
+    }
+
+    static Map<Window, Integer> parseWeights(String spec) {
+        Map<Window, Integer> weights = new EnumMap<>(Window.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected window:weight but got '" + entry + "'");
+            }
+            weights.put(Window.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    /**
+     * Builds the next request URI relative to {@code baseUri}. The {@code random} is owned
+     * by the calling connection so runs with the same seed issue the same request sequence.
+     */
+    URI next(URI baseUri, Random random) {
+        long customerId = 1 + random.nextInt(customers);
+        StringBuilder uri = new StringBuilder(pathTemplate.replace("{customerId}", Long.toString(customerId)));
+        uri.append("?showTransactions=").append(random.nextDouble() < showTransactionsRatio);
+
+        switch (pick(random)) {
+            case DAYS -> uri.append("&days=").append(DAYS[random.nextInt(DAYS.length)]);
+            case MONTHS -> uri.append("&months=").append(MONTHS[random.nextInt(MONTHS.length)]);
+            case RANGE -> {
+                LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+                LocalDateTime start = now.minusDays(random.nextInt(rangeMonths * 30) + 1L);
+                LocalDateTime end = start.plusDays(random.nextInt(180) + 1L);
+                uri.append("&startDate=").append(start.format(ISO))
+                        .append("&endDate=").append((end.isAfter(now) ? now : end).format(ISO));
+            }
+            case ALL -> {
+            }
+        }
+        return baseUri.resolve(uri.toString());
+    }
+
+    private Window pick(Random random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return windows[i];
+            }
+        }
+        return windows[windows.length - 1];
+    }
+}
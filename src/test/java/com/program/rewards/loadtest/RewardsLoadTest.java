@@ -0,0 +1,172 @@
+package com.program.rewards.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end latency of the rewards endpoint at a fixed request rate against a dataset
+ * from the {@code generator} profile. Excluded from the normal build; run it with
+ * <pre>
+ * mvn -Ploadtest test [-Dloadtest.rate=500 -Dloadtest.duration=60 ...]
+ * </pre>
+ * Every run writes a report to {@code target/loadtest/} containing the settings, a summary
+ * and the full HdrHistogram percentile distribution in {@code .hgrm} format, so two builds
+ * can be compared directly or plotted together.
+ */
+@Tag("load")
+@ActiveProfiles("generator")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "rewards.generator.customers=${loadtest.customers:2000}",
+        "rewards.generator.transactions-per-customer=${loadtest.transactions-per-customer:20}",
+        "rewards.generator.months=${loadtest.months:24}",
+        "rewards.generator.seed=${loadtest.seed:42}",
+        "logging.level.com.program.rewards=INFO",
+        "logging.level.org.springframework.cache=INFO"
+})
+class RewardsLoadTest {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+    private static final Duration READINESS_TIMEOUT = Duration.ofMinutes(10);
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void rewardsEndpoint_AtFixedRate() throws Exception {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("path", System.getProperty("loadtest.path", "/api/customers/{customerId}/rewards"));
+        settings.put("rate", Double.parseDouble(System.getProperty("loadtest.rate", "200")));
+        settings.put("connections", Integer.getInteger("loadtest.connections", 16));
+        settings.put("warmupSeconds", Integer.getInteger("loadtest.warmup", 10));
+        settings.put("durationSeconds", Integer.getInteger("loadtest.duration", 30));
+        settings.put("mix", System.getProperty("loadtest.mix", "days:40,months:30,range:20,all:10"));
+        settings.put("showTransactions", Double.parseDouble(System.getProperty("loadtest.show-transactions", "0.1")));
+        settings.put("customers", Integer.getInteger("loadtest.customers", 2000));
+        settings.put("months", Integer.getInteger("loadtest.months", 24));
+        settings.put("seed", Long.getLong("loadtest.seed", 42L));
+
+        RequestMix mix = new RequestMix((String) settings.get("path"), (int) settings.get("customers"),
+                (int) settings.get("months"), RequestMix.parseWeights((String) settings.get("mix")),
+                (double) settings.get("showTransactions"));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        URI baseUri = URI.create("http://localhost:" + port);
+        ConstantRateLoadRunner runner = new ConstantRateLoadRunner(client, baseUri, mix, Duration.ofSeconds(30));
+        awaitReadiness(client, baseUri);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        threads.resetPeakThreadCount();
+        AtomicLong peakHeapUsed = new AtomicLong();
+        ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor();
+        heapSampler.scheduleAtFixedRate(() -> peakHeapUsed.accumulateAndGet(
+                memory.getHeapMemoryUsage().getUsed(), Math::max), 0, 100, TimeUnit.MILLISECONDS);
+
+        ConstantRateLoadRunner.Result result;
+        try {
+            result = runner.run(
+                    (int) settings.get("connections"),
+                    (double) settings.get("rate"),
+                    Duration.ofSeconds((int) settings.get("warmupSeconds")),
+                    Duration.ofSeconds((int) settings.get("durationSeconds")),
+                    (long) settings.get("seed"));
+        } finally {
+            heapSampler.shutdownNow();
+        }
+        // Client and server share this JVM, so these are upper bounds; compare them between endpoints or builds
+        result.peakThreads = threads.getPeakThreadCount();
+        result.peakHeapUsedBytes = peakHeapUsed.get();
+
+        Path report = writeReport(settings, result);
+        System.out.println("Load test report written to " + report.toAbsolutePath());
+        summary(System.out, result);
+
+        assertTrue(result.requests() > 0, "No requests were recorded");
+        assertEquals(0, result.errors, "Requests failed, see " + report);
+    }
+
+    /** The dataset is generated in the background; wait until the readiness probe reports it complete. */
+    private static void awaitReadiness(HttpClient client, URI baseUri) throws IOException, InterruptedException {
+        HttpRequest readiness = HttpRequest.newBuilder(baseUri.resolve("/actuator/health/readiness")).GET().build();
+        long deadline = System.nanoTime() + READINESS_TIMEOUT.toNanos();
+        while (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Application not ready after " + READINESS_TIMEOUT);
+            }
+            Thread.sleep(250);
+        }
+    }
+
+    private static Path writeReport(Map<String, Object> settings, ConstantRateLoadRunner.Result result)
+            throws IOException {
+        Path directory = Path.of(System.getProperty("loadtest.report-dir", "target/loadtest"));
+        Files.createDirectories(directory);
+        Path report = directory.resolve("rewards-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".txt");
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(report))) {
+            out.println("# Rewards load test");
+            out.println("# started " + LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            out.println("# java " + System.getProperty("java.version")
+                    + ", " + Runtime.getRuntime().availableProcessors() + " cpus");
+            settings.forEach((key, value) -> out.println("# " + key + "=" + value));
+            out.println();
+            summary(out, result);
+            out.println();
+            out.println("## Latency from intended send time (coordinated omission corrected), ms");
+            result.latency.outputPercentileDistribution(out, 5, NANOS_PER_MILLI);
+            out.println();
+            out.println("## Service time from actual send time (uncorrected), ms");
+            result.serviceTime.outputPercentileDistribution(out, 5, NANOS_PER_MILLI);
+        }
+        return report;
+    }
+
+    private static void summary(PrintStream out, ConstantRateLoadRunner.Result result) {
+        out.printf("requests=%d errors=%d throughput=%.1f/s peakThreads=%d peakHeapUsed=%.1fMB%n",
+                result.requests(), result.errors, result.throughput(),
+                result.peakThreads, result.peakHeapUsedBytes / (1024d * 1024d));
+        out.println(percentiles("latency     ", result.latency));
+        out.println(percentiles("serviceTime ", result.serviceTime));
+    }
+
+    private static String percentiles(String label, Histogram histogram) {
+        return String.format("%s p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                label,
+                histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                histogram.getMaxValue() / NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,81 @@
+package com.program.rewards.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogRateLimiterTest {
+
+    private Logger logger;
+    private Logger otherLogger;
+    private LogRateLimiter limiter;
+    private long now = 1_000_000;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = new LoggerContext();
+        logger = context.getLogger("com.program.rewards.service.RewardsService");
+        logger.setLevel(Level.DEBUG);
+        otherLogger = context.getLogger("com.program.rewards.util.RewardsUtil");
+        otherLogger.setLevel(Level.INFO);
+
+        limiter = new LogRateLimiter();
+        limiter.setContext(context);
+        limiter.setMaxEventsPerSecond(3);
+        limiter.setClock(() -> now);
+        limiter.start();
+    }
+
+    @Test
+    void decide_ShouldDropEventsBeyondBudgetPerLogger() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(logger, Level.INFO));
+        }
+        assertEquals(FilterReply.DENY, decide(logger, Level.DEBUG));
+        assertEquals(FilterReply.DENY, decide(logger, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(otherLogger, Level.INFO));
+        assertEquals(2, limiter.getDroppedEvents());
+
+        now += 1000;
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.INFO));
+    }
+
+    @Test
+    void decide_ShouldAlwaysPassWarningsAndErrors() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN));
+            assertEquals(FilterReply.NEUTRAL, decide(logger, Level.ERROR));
+        }
+        assertEquals(0, limiter.getDroppedEvents());
+    }
+
+    @Test
+    void decide_LevelCheck_ShouldReflectBudgetWithoutConsumingIt() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, limiter.decide(null, logger, Level.INFO, null, null, null));
+        }
+        for (int i = 0; i < 3; i++) {
+            decide(logger, Level.INFO);
+        }
+        assertEquals(FilterReply.DENY, limiter.decide(null, logger, Level.INFO, null, null, null));
+        assertEquals(0, limiter.getDroppedEvents());
+    }
+
+    @Test
+    void decide_DisabledLevel_ShouldNotUseBudget() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(otherLogger, Level.TRACE));
+        }
+        assertEquals(FilterReply.NEUTRAL, decide(otherLogger, Level.INFO));
+        assertEquals(0, limiter.getDroppedEvents());
+    }
+
+    private FilterReply decide(Logger target, Level level) {
+        return limiter.decide(null, target, level, "message {}", new Object[]{1}, null);
+    }
+}
@@ -0,0 +1,122 @@
+package com.program.rewards.lookup;
+
+import com.program.rewards.loading.DataLoadTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomerExistenceFilterTest {
+
+    private EmbeddedDatabase database;
+    private DataLoadTracker tracker;
+    private CustomerExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE CUSTOMERS (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.update("INSERT INTO CUSTOMERS (id) SELECT x FROM SYSTEM_RANGE(1, 1000)");
+        tracker = new DataLoadTracker();
+        filter = new CustomerExistenceFilter(jdbcTemplate, tracker, true, 1000, 0.01, Duration.ofMinutes(1), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void isKnownAbsent_ShouldBeFalse_UntilDataLoadCompletes() {
+        tracker.pending("test");
+        filter.onApplicationReady();
+        assertFalse(filter.isKnownAbsent(5000));
+
+        tracker.completed();
+        assertTrue(filter.isKnownAbsent(5000));
+    }
+
+    @Test
+    void isKnownAbsent_ShouldNeverRejectExistingCustomers() {
+        filter.onApplicationReady();
+
+        for (long id = 1; id <= 1000; id++) {
+            assertFalse(filter.isKnownAbsent(id), "customer " + id);
+        }
+    }
+
+    @Test
+    void isKnownAbsent_ShouldRejectMostUnknownIds() {
+        filter.onApplicationReady();
+
+        int rejected = 0;
+        for (long id = 1001; id <= 11_000; id++) {
+            if (filter.isKnownAbsent(id)) {
+                rejected++;
+            }
+        }
+        // 1% false positives expected; leave room for variance
+        assertTrue(rejected > 9_700, "rejected " + rejected);
+    }
+
+    @Test
+    void recordAbsent_ShouldRejectFalsePositives_UntilAdded() {
+        filter.onApplicationReady();
+        long falsePositive = firstFalsePositive();
+
+        filter.recordAbsent(falsePositive);
+        assertTrue(filter.isKnownAbsent(falsePositive));
+
+        filter.added(falsePositive);
+        assertFalse(filter.isKnownAbsent(falsePositive));
+    }
+
+    @Test
+    void recordAbsent_ShouldBeIgnored_ForCustomersAddedDuringTheLookup() {
+        filter.onApplicationReady();
+        long falsePositive = firstFalsePositive();
+
+        // The lookup missed the customer, whose insert then committed before the miss was recorded
+        filter.added(falsePositive);
+        filter.recordAbsent(falsePositive);
+
+        assertFalse(filter.isKnownAbsent(falsePositive));
+    }
+
+    @Test
+    void added_ShouldAcceptNewCustomers() {
+        filter.onApplicationReady();
+        long newId = 1_000_000;
+
+        filter.added(newId);
+        assertFalse(filter.isKnownAbsent(newId));
+    }
+
+    @Test
+    void recordAbsent_ShouldBeIgnored_BeforeFilterIsBuilt() {
+        filter.recordAbsent(42);
+        filter.onApplicationReady();
+
+        assertFalse(filter.isKnownAbsent(42));
+    }
+
+    private long firstFalsePositive() {
+        long id = 1001;
+        while (filter.isKnownAbsent(id)) {
+            id++;
+        }
+        return id;
+    }
+}
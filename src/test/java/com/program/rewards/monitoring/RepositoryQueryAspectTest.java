@@ -0,0 +1,54 @@
+package com.program.rewards.monitoring;
+
+import com.program.rewards.repository.CustomerRepository;
+import com.program.rewards.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "rewards.jpa.statistics.enabled=true",
+        "rewards.jpa.slow-query.threshold=0ms",
+        "rewards.jpa.slow-query.capacity=10000"
+})
+@ActiveProfiles("test")
+class RepositoryQueryAspectTest {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void inheritedRepositoryMethods_ShouldBeTimedAndLogged() {
+        slowQueryLog.clear();
+
+        transactionRepository.findById(-1L);
+        customerRepository.findAllById(List.of(-1L, -2L));
+
+        List<SlowQuery> logged = slowQueryLog.getSlowest();
+        SlowQuery findById = logged.stream()
+                .filter(q -> q.repositoryMethod().equals("TransactionRepository.findById")).findFirst().orElseThrow();
+        assertEquals(RepositoryQueryAspect.DERIVED_QUERY, findById.query());
+        assertEquals(0, findById.rows());
+        assertTrue(logged.stream().anyMatch(q -> q.repositoryMethod().equals("CustomerRepository.findAllById")));
+
+        assertNotNull(meterRegistry.find("rewards.repository.query")
+                .tag("method", "TransactionRepository.findById").timer());
+        assertNotNull(meterRegistry.find("rewards.repository.query")
+                .tag("method", "CustomerRepository.findAllById").timer());
+    }
+}
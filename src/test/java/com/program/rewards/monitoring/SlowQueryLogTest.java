@@ -0,0 +1,47 @@
+package com.program.rewards.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    @Test
+    void isSlow_ShouldCompareAgainstThreshold() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(50_000_000L, 3);
+
+        assertFalse(slowQueryLog.isSlow(49_999_999L));
+        assertTrue(slowQueryLog.isSlow(50_000_000L));
+    }
+
+    @Test
+    void getSlowest_ShouldKeepOnlyTheSlowestEntries_SlowestFirst() {
+        // Arrange
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0, 3);
+
+        // Act
+        for (double durationMs : new double[]{120, 80, 300, 60, 200}) {
+            slowQueryLog.record(query(durationMs));
+        }
+
+        // Assert
+        List<Double> durations = slowQueryLog.getSlowest().stream().map(SlowQuery::durationMs).toList();
+        assertEquals(List.of(300.0, 200.0, 120.0), durations);
+    }
+
+    @Test
+    void parameterShapes_ShouldDescribeTypesAndNulls() {
+        List<String> shapes = RepositoryQueryAspect.parameterShapes(new Object[]{1L, null, new ArrayList<>(List.of(1L, 2L))});
+
+        assertEquals(List.of("Long", "null", "ArrayList[2]"), shapes);
+    }
+
+    private static SlowQuery query(double durationMs) {
+        return new SlowQuery("TransactionRepository.findEligibleTransactions", "SELECT t FROM Transaction t",
+                List.of("Long"), 1, durationMs, Instant.now());
+    }
+}
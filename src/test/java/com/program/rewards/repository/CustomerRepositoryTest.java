@@ -1,10 +1,14 @@
 package com.program.rewards.repository;
 
 import com.program.rewards.entity.Customer;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.Optional;
@@ -18,6 +22,9 @@ class CustomerRepositoryTest {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     void findById_ShouldReturnCustomer_WhenCustomerExists() {
         // Arrange
@@ -62,4 +69,24 @@ class CustomerRepositoryTest {
         assertTrue(retrieved.isPresent());
         assertEquals(savedCustomer.getId(), retrieved.get().getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void findById_ShouldPopulateSecondLevelCache() {
+        // Arrange - committed outside the test transaction so the load goes through the cache region
+        Customer customer = customerRepository.save(new Customer("Cached User", "cached@example.com",
+                LocalDate.now(), "555-0000", "1 Cache Ln"));
+        Cache secondLevelCache = entityManagerFactory.getCache();
+        secondLevelCache.evict(Customer.class);
+
+        try {
+            // Act
+            customerRepository.findById(customer.getId());
+
+            // Assert
+            assertTrue(secondLevelCache.contains(Customer.class, customer.getId()));
+        } finally {
+            customerRepository.delete(customer);
+        }
+    }
+}
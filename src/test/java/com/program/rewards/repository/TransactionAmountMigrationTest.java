@@ -0,0 +1,57 @@
+package com.program.rewards.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransactionAmountMigrationTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        // TRANSACTIONS as created by the previous schema.sql
+        jdbcTemplate.execute("CREATE TABLE TRANSACTIONS (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "amount DECIMAL(19,2) NOT NULL, status VARCHAR(20) NOT NULL, " +
+                "transaction_date TIMESTAMP NOT NULL, customer_id BIGINT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO TRANSACTIONS (amount, status, transaction_date, customer_id) VALUES " +
+                "(820.63, 'COMPLETED', TIMESTAMP '2025-01-07 21:49:53', 1), " +
+                "(0.01, 'COMPLETED', TIMESTAMP '2025-01-08 10:00:00', 1), " +
+                "(99999.99, 'FAILED', TIMESTAMP '2025-01-09 10:00:00', 2)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void migration_ShouldConvertDecimalAmountsToExactCents() throws SQLException {
+        try (Connection connection = database.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/transactions-amount-cents.sql"));
+        }
+
+        assertEquals(List.of(82063L, 1L, 9999999L),
+                jdbcTemplate.queryForList("SELECT amount_cents FROM TRANSACTIONS ORDER BY id", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_NAME = 'TRANSACTIONS' AND COLUMN_NAME = 'AMOUNT'", Integer.class));
+    }
+}
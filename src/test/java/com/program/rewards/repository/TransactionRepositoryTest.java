@@ -6,9 +6,11 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -50,11 +52,11 @@ class TransactionRepositoryTest {
         // Act
         List<Transaction> transactions = transactionRepository
                 .findEligibleTransactions(
-                        testCustomer1.getId(), "COMPLETED", 50.0, null, null);
+                        testCustomer1.getId(), "COMPLETED", 50_00L, null, null);
 
         // Assert
         assertEquals(1, transactions.size());
-        assertEquals(60.0, transactions.get(0).getAmount());
+        assertEquals(60_00, transactions.get(0).getAmountCents());
         assertEquals("COMPLETED", transactions.get(0).getStatus());
     }
 
@@ -77,14 +79,14 @@ class TransactionRepositoryTest {
                 .findEligibleTransactions(
                         testCustomer1.getId(),
                         "COMPLETED",
-                        50.0,
+                        50_00L,
                         now.minusDays(10),
                         now.minusDays(4)
                 );
 
         // Assert
         assertEquals(1, transactions.size());
-        assertEquals(60.0, transactions.get(0).getAmount());
+        assertEquals(60_00, transactions.get(0).getAmountCents());
         assertTrue(transactions.get(0).getTransactionDate().isBefore(now));
     }
 
@@ -105,7 +107,7 @@ class TransactionRepositoryTest {
                 .findEligibleTransactions(
                         testCustomer1.getId(),
                         "COMPLETED",
-                        50.0,
+                        50_00L,
                         now.minusDays(10),null
                 );
 
@@ -131,7 +133,7 @@ class TransactionRepositoryTest {
                 .findEligibleTransactions(
                         testCustomer1.getId(),
                         "COMPLETED",
-                        50.0, null,
+                        50_00L, null,
                         now.minusDays(10)
                 );
 
@@ -140,6 +142,46 @@ class TransactionRepositoryTest {
         assertTrue(transactions.get(0).getTransactionDate().isBefore(now));
     }
 
+    @Test
+    void findEligibleTransactionsPage_ShouldReturnNewestFirstAndContinueAfterCursor() {
+        // Arrange - whole seconds so cursor values match the stored column precision
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Transaction oldest = createTestTransaction("COMPLETED", 60.0, testCustomer1.getId(), now.minusDays(3));
+        Transaction tieLow = createTestTransaction("COMPLETED", 70.0, testCustomer1.getId(), now.minusDays(2));
+        Transaction tieHigh = createTestTransaction("COMPLETED", 80.0, testCustomer1.getId(), now.minusDays(2));
+        Transaction newest = createTestTransaction("COMPLETED", 90.0, testCustomer1.getId(), now.minusDays(1));
+        createTestTransaction("COMPLETED", 40.0, testCustomer1.getId(), now);  // Amount too low
+
+        // Act
+        List<Transaction> firstPage = transactionRepository.findEligibleTransactionsPage(
+                testCustomer1.getId(), "COMPLETED", 50_00L, null, null, null, null, Limit.of(2));
+        Transaction last = firstPage.get(firstPage.size() - 1);
+        List<Transaction> secondPage = transactionRepository.findEligibleTransactionsPage(
+                testCustomer1.getId(), "COMPLETED", 50_00L, null, null,
+                last.getTransactionDate(), last.getId(), Limit.of(2));
+
+        // Assert
+        assertEquals(List.of(newest.getId(), tieHigh.getId()), firstPage.stream().map(Transaction::getId).toList());
+        assertEquals(List.of(tieLow.getId(), oldest.getId()), secondPage.stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    void findEligibleTransactionsForCustomers_ShouldReturnEveryRequestedCustomerNewestFirst() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Transaction older = createTestTransaction("COMPLETED", 60.0, testCustomer1.getId(), now.minusDays(2));
+        Transaction newer = createTestTransaction("COMPLETED", 70.0, testCustomer2.getId(), now.minusDays(1));
+        createTestTransaction("COMPLETED", 40.0, testCustomer2.getId(), now);  // Amount too low
+        createTestTransaction("COMPLETED", 80.0, testCustomer1.getId(), now.minusDays(10));  // Before the window
+
+        // Act
+        List<Transaction> transactions = transactionRepository.findEligibleTransactionsForCustomers(
+                List.of(testCustomer1.getId(), testCustomer2.getId()), "COMPLETED", 50_00L, now.minusDays(5), null);
+
+        // Assert
+        assertEquals(List.of(newer.getId(), older.getId()), transactions.stream().map(Transaction::getId).toList());
+    }
+
     // Helper methods
     private Transaction createTestTransaction(String status, double amount, Long customerId) {
         return createTestTransaction(status, amount, customerId, LocalDateTime.now());
@@ -148,7 +190,7 @@ class TransactionRepositoryTest {
     private Transaction createTestTransaction(String status, double amount, Long customerId, LocalDateTime date) {
         Transaction transaction = new Transaction();
         transaction.setCustomerId(customerId);
-        transaction.setAmount(amount);
+        transaction.setAmountCents(Math.round(amount * 100));
         transaction.setStatus(status);
         transaction.setTransactionDate(date);
         return transactionRepository.save(transaction);
@@ -0,0 +1,58 @@
+package com.program.rewards.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int CUSTOMERS = 30_000;
+    private static final List<String> MEMBERS =
+            List.of("http://localhost:8082", "http://localhost:8083", "http://localhost:8084");
+
+    @Test
+    void owner_ShouldNotDependOnMemberOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(MEMBERS, 160);
+        ConsistentHashRing reversed = new ConsistentHashRing(List.of(MEMBERS.get(2), MEMBERS.get(0), MEMBERS.get(1)), 160);
+
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            assertEquals(ring.owner(customerId), reversed.owner(customerId));
+        }
+    }
+
+    @Test
+    void owner_ShouldSpreadCustomersEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(MEMBERS, 160);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            owned.merge(ring.owner(customerId), 1, Integer::sum);
+        }
+
+        assertEquals(3, owned.size());
+        owned.forEach((member, count) ->
+                assertTrue(count > CUSTOMERS / 4 && count < CUSTOMERS * 5 / 12, member + " owns " + count));
+    }
+
+    @Test
+    void owner_ShouldOnlyMoveCustomersToJoiningMember() {
+        ConsistentHashRing before = new ConsistentHashRing(MEMBERS, 160);
+        String joining = "http://localhost:8085";
+        ConsistentHashRing after = new ConsistentHashRing(
+                List.of(MEMBERS.get(0), MEMBERS.get(1), MEMBERS.get(2), joining), 160);
+
+        int moved = 0;
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            if (!before.owner(customerId).equals(after.owner(customerId))) {
+                assertEquals(joining, after.owner(customerId));
+                moved++;
+            }
+        }
+        assertTrue(moved > CUSTOMERS / 6 && moved < CUSTOMERS / 3, "moved " + moved);
+    }
+}
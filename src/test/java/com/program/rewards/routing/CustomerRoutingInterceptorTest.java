@@ -0,0 +1,122 @@
+package com.program.rewards.routing;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomerRoutingInterceptorTest {
+
+    private static final String SELF = "http://localhost:1";
+    private static final String BODY = "{\"totalPoints\":90}";
+
+    private HttpServer peer;
+    private String peerUrl;
+    private final AtomicReference<String> forwardedRequest = new AtomicReference<>();
+    private CustomerRouter router;
+    private CustomerRoutingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        peer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        peer.createContext("/actuator/health/readiness", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        peer.createContext("/api/customers", exchange -> {
+            forwardedRequest.set(exchange.getRequestURI() + " by "
+                    + exchange.getRequestHeaders().getFirst(CustomerRoutingInterceptor.FORWARDED_HEADER));
+            byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        peer.start();
+        peerUrl = "http://localhost:" + peer.getAddress().getPort();
+        router = new CustomerRouter(SELF, List.of(SELF, peerUrl), 160, Duration.ofHours(1), Duration.ofSeconds(1),
+                HttpClient.newHttpClient());
+        router.checkPeers();
+        interceptor = new CustomerRoutingInterceptor(router, "X-Request-Timeout", new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        router.close();
+        peer.stop(0);
+    }
+
+    @Test
+    void preHandle_ShouldRelayOwnersResponse() throws Exception {
+        long customerId = customerOwnedBy(peerUrl);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean handledLocally = interceptor.preHandle(request(customerId), response, null);
+
+        assertFalse(handledLocally);
+        assertEquals(200, response.getStatus());
+        assertEquals(BODY, response.getContentAsString());
+        assertEquals("application/json", response.getContentType());
+        assertEquals(peerUrl, response.getHeader(CustomerRoutingInterceptor.SERVED_BY_HEADER));
+        assertEquals("/api/customers/" + customerId + "/rewards?days=30 by " + SELF, forwardedRequest.get());
+    }
+
+    @Test
+    void preHandle_ShouldServeOwnCustomersLocally() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request(customerOwnedBy(SELF)), response, null));
+        assertEquals(SELF, response.getHeader(CustomerRoutingInterceptor.SERVED_BY_HEADER));
+    }
+
+    @Test
+    void preHandle_ShouldNotForwardForwardedRequests() throws Exception {
+        MockHttpServletRequest request = request(customerOwnedBy(peerUrl));
+        request.addHeader(CustomerRoutingInterceptor.FORWARDED_HEADER, "http://localhost:2");
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void preHandle_ShouldServeLocallyAndDropOwner_WhenOwnerIsDown() throws Exception {
+        long customerId = customerOwnedBy(peerUrl);
+        peer.stop(0);
+
+        assertTrue(interceptor.preHandle(request(customerId), new MockHttpServletResponse(), null));
+        assertEquals(List.of(SELF), router.members());
+        assertEquals(SELF, router.owner(customerId));
+    }
+
+    private long customerOwnedBy(String member) {
+        long customerId = 1;
+        while (!router.owner(customerId).equals(member)) {
+            customerId++;
+        }
+        return customerId;
+    }
+
+    private static MockHttpServletRequest request(long customerId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers/" + customerId + "/rewards");
+        request.setQueryString("days=30");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+                Map.of("customerId", Long.toString(customerId)));
+        return request;
+    }
+}
@@ -0,0 +1,101 @@
+package com.program.rewards.service;
+
+import com.program.rewards.dto.RewardsResponse;
+import com.program.rewards.entity.Transaction;
+import com.program.rewards.lookup.CustomerExistenceFilter;
+import com.program.rewards.util.RewardsUtil;
+import io.r2dbc.h2.CloseableConnectionFactory;
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveRewardsServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 15, 12, 0);
+
+    private CloseableConnectionFactory connectionFactory;
+    private ReactiveRewardsService reactiveRewardsService;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = H2ConnectionFactory.inMemory("reactive-rewards-" + System.nanoTime(), "sa", "");
+        DatabaseClient client = DatabaseClient.create(connectionFactory);
+        Flux.just(
+                "CREATE TABLE CUSTOMERS (id BIGINT PRIMARY KEY, name VARCHAR(100), email VARCHAR(100), " +
+                        "join_date DATE, phone VARCHAR(20), address VARCHAR(255))",
+                "CREATE TABLE TRANSACTIONS (id BIGINT PRIMARY KEY, amount_cents BIGINT, status VARCHAR(20), " +
+                        "transaction_date TIMESTAMP, customer_id BIGINT)",
+                "INSERT INTO CUSTOMERS VALUES (1, 'John Doe', 'john@example.com', DATE '2023-01-15', '555', 'Main St')",
+                "INSERT INTO TRANSACTIONS VALUES (1, 12000, 'COMPLETED', TIMESTAMP '2025-06-10 10:00:00', 1)",
+                "INSERT INTO TRANSACTIONS VALUES (2, 7500, 'COMPLETED', TIMESTAMP '2025-05-20 10:00:00', 1)",
+                "INSERT INTO TRANSACTIONS VALUES (3, 20000, 'COMPLETED', TIMESTAMP '2025-05-02 10:00:00', 1)",
+                "INSERT INTO TRANSACTIONS VALUES (4, 50000, 'FAILED', TIMESTAMP '2025-05-03 10:00:00', 1)",
+                "INSERT INTO TRANSACTIONS VALUES (5, 4000, 'COMPLETED', TIMESTAMP '2025-06-01 10:00:00', 1)",
+                "INSERT INTO TRANSACTIONS VALUES (6, 15000, 'COMPLETED', TIMESTAMP '2024-12-24 10:00:00', 1)")
+                .concatMap(sql -> client.sql(sql).then())
+                .blockLast();
+        reactiveRewardsService = new ReactiveRewardsService(client,
+                new CustomerExistenceFilter(null, null, false, 1, 0.01, Duration.ofSeconds(30), 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.close();
+    }
+
+    @Test
+    void calculateMonthlyRewards_ShouldMatchBlockingCalculation() {
+        RewardsResponse response = reactiveRewardsService
+                .calculateMonthlyRewards(1L, NOW.minusMonths(3), NOW, false)
+                .block();
+
+        assertNotNull(response);
+        assertEquals("John Doe", response.getCustomer().getName());
+        // June: 120 -> 90; May: 75 -> 25, 200 -> 250
+        assertEquals(List.of("June 2025", "May 2025"), List.copyOf(response.getMonthlyPoints().keySet()));
+        assertEquals(90, response.getMonthlyPoints().get("June 2025"));
+        assertEquals(275, response.getMonthlyPoints().get("May 2025"));
+        assertEquals(365, response.getTotalPoints());
+        assertNull(response.getTransactions());
+    }
+
+    @Test
+    void calculateMonthlyRewards_ShouldNotRunOnTheSubscribingThread() {
+        String thread = reactiveRewardsService
+                .calculateMonthlyRewards(1L, NOW.minusMonths(3), NOW, false)
+                .map(response -> Thread.currentThread().getName())
+                .block();
+
+        assertNotEquals(Thread.currentThread().getName(), thread);
+        assertTrue(thread.startsWith("boundedElastic"), thread);
+    }
+
+    @Test
+    void calculateMonthlyRewards_WithTransactions_ShouldReturnThemNewestFirst() {
+        RewardsResponse response = reactiveRewardsService
+                .calculateMonthlyRewards(1L, null, NOW, true)
+                .block();
+
+        assertNotNull(response);
+        List<Long> ids = response.getTransactions().stream().map(Transaction::getId).toList();
+        assertEquals(List.of(1L, 2L, 3L, 6L), ids);
+        assertEquals(RewardsUtil.getMonthlyPoints(response.getTransactions(), RewardsUtil.MONTH_YEAR_FORMATTER),
+                response.getMonthlyPoints());
+    }
+
+    @Test
+    void calculateMonthlyRewards_WhenCustomerNotFound_ShouldError() {
+        assertThrows(NoSuchElementException.class,
+                () -> reactiveRewardsService.calculateMonthlyRewards(999L, null, NOW, false).block());
+    }
+}
@@ -0,0 +1,118 @@
+package com.program.rewards.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Partitions are exported from worker threads, so test data has to be committed
+@JdbcTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RewardsExportServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 5, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2025, 6, 30, 23, 59, 59);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private RewardsExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("INSERT INTO CUSTOMERS (id, name, email, join_date, phone, address) VALUES (?, ?, ?, ?, ?, ?)",
+                    id, "Customer " + id, "c" + id + "@example.com", Date.valueOf(LocalDate.of(2024, 1, 1)), "555", "Main St");
+        }
+        insertTransaction(1, 200.0, "COMPLETED", LocalDateTime.of(2025, 6, 1, 0, 0));    // 250
+        insertTransaction(1, 120.0, "COMPLETED", LocalDateTime.of(2025, 5, 3, 10, 0));   // 90
+        insertTransaction(1, 75.0, "COMPLETED", LocalDateTime.of(2025, 5, 31, 23, 59, 59)); // 25
+        insertTransaction(2, 500.0, "FAILED", LocalDateTime.of(2025, 5, 10, 10, 0));
+        insertTransaction(3, 40.0, "COMPLETED", LocalDateTime.of(2025, 5, 10, 10, 0));   // below minimum
+        insertTransaction(4, 150.0, "COMPLETED", LocalDateTime.of(2025, 5, 1, 0, 0));    // 150
+        insertTransaction(5, 60.0, "COMPLETED", LocalDateTime.of(2025, 4, 30, 23, 59, 59)); // before the period
+        insertTransaction(5, 99.5, "COMPLETED", LocalDateTime.of(2025, 6, 15, 12, 0));   // 49
+
+        exportService = new RewardsExportService(dataSource, 2, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM TRANSACTIONS");
+        jdbcTemplate.update("DELETE FROM CUSTOMERS");
+    }
+
+    @Test
+    void export_Csv_ShouldWriteOneRowPerCustomerAndMonthInOrder() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(START, END, RewardsExportService.Format.CSV, 1, out);
+
+        assertEquals(4, rows);
+        assertEquals("""
+                customer_id,month,points,transaction_count
+                1,2025-05,115,2
+                1,2025-06,250,1
+                4,2025-05,150,1
+                5,2025-06,49,1
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void export_Ndjson_ShouldWriteOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(START, END, RewardsExportService.Format.NDJSON, 1, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("{\"customerId\":1,\"month\":\"2025-05\",\"points\":115,\"transactionCount\":2}", lines[0]);
+        assertEquals("{\"customerId\":5,\"month\":\"2025-06\",\"points\":49,\"transactionCount\":1}", lines[3]);
+    }
+
+    @Test
+    void export_Partitioned_ShouldMatchSequentialOutput() throws IOException {
+        ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+        ByteArrayOutputStream partitioned = new ByteArrayOutputStream();
+
+        long sequentialRows = exportService.export(START, END, RewardsExportService.Format.CSV, 1, sequential);
+        long partitionedRows = exportService.export(START, END, RewardsExportService.Format.CSV, 3, partitioned);
+
+        assertEquals(sequentialRows, partitionedRows);
+        assertEquals(sequential.toString(StandardCharsets.UTF_8), partitioned.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void export_WithoutCustomers_ShouldWriteHeaderOnly() throws IOException {
+        tearDown();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.export(START, END, RewardsExportService.Format.CSV, 2, out));
+        assertEquals("customer_id,month,points,transaction_count\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private void insertTransaction(long customerId, double amount, String status, LocalDateTime date) {
+        jdbcTemplate.update("INSERT INTO TRANSACTIONS (amount_cents, status, transaction_date, customer_id) VALUES (?, ?, ?, ?)",
+                Math.round(amount * 100), status, Timestamp.valueOf(date), customerId);
+    }
+}
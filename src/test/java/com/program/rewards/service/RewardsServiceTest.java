@@ -1,17 +1,35 @@
 package com.program.rewards.service;
 
+import com.program.rewards.batching.RewardsLookupBatcher;
+import com.program.rewards.deadline.Deadline;
+import com.program.rewards.deadline.DeadlineContext;
 import com.program.rewards.dto.RewardsResponse;
+import com.program.rewards.dto.TransactionCursor;
+import com.program.rewards.dto.TransactionPage;
 import com.program.rewards.entity.Customer;
 import com.program.rewards.entity.Transaction;
+import com.program.rewards.exception.CustomerNotFoundException;
+import com.program.rewards.exception.DeadlineExceededException;
+import com.program.rewards.index.PointsHistoryIndex;
+import com.program.rewards.lookup.CustomerExistenceFilter;
 import com.program.rewards.repository.CustomerRepository;
 import com.program.rewards.repository.TransactionRepository;
+import com.program.rewards.snapshot.MonthRange;
+import com.program.rewards.snapshot.MonthlySnapshotStore;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,13 +45,34 @@ class RewardsServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
-    @InjectMocks
+    @Mock
+    private MonthlySnapshotStore monthlySnapshotStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CustomerExistenceFilter customerExistenceFilter;
+
+    @Mock
+    private PointsHistoryIndex pointsHistoryIndex;
+
     private RewardsService rewardsService;
 
     private Customer testCustomer;
 
+    @AfterEach
+    void clearDeadline() {
+        DeadlineContext.clear();
+    }
+
     @BeforeEach
     void setUp() {
+        // Batching disabled: lookups go straight to the mocked repositories
+        rewardsService = new RewardsService(transactionRepository, monthlySnapshotStore, transactionManager,
+                customerExistenceFilter, pointsHistoryIndex,
+                new RewardsLookupBatcher(customerRepository, transactionRepository, null, null, false, Duration.ofMillis(2), 100));
+
         // Setup test customer
         testCustomer = new Customer("John Doe", "john.doe@example.com",
                 LocalDateTime.now().toLocalDate(), "123-456-7890", "123 Main St");
@@ -64,12 +103,40 @@ class RewardsServiceTest {
         assertThrows(NoSuchElementException.class, () -> {
             rewardsService.getCustomerById(999L);
         });
+        verify(customerExistenceFilter).recordAbsent(999L);
+    }
+
+    @Test
+    void calculateMonthlyRewards_ShouldUsePointsHistory_WhenIndexCoversWindow() {
+        LocalDateTime start = LocalDateTime.now().toLocalDate().minusDays(30).atStartOfDay();
+        LocalDateTime end = LocalDateTime.now().toLocalDate().atTime(23, 59, 59);
+        NavigableMap<YearMonth, Integer> pointsByMonth = new TreeMap<>(Map.of(
+                YearMonth.of(2025, 5), 40, YearMonth.of(2025, 6), 90));
+        when(pointsHistoryIndex.pointsByMonth(1L, start, end)).thenReturn(Optional.of(pointsByMonth));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+
+        RewardsResponse response = rewardsService.calculateMonthlyRewards(1L, start, end, false);
+
+        assertEquals(130, response.getTotalPoints());
+        assertEquals(List.of("June 2025", "May 2025"), List.copyOf(response.getMonthlyPoints().keySet()));
+        verifyNoInteractions(transactionRepository, transactionManager);
+    }
+
+    @Test
+    void calculateMonthlyRewards_ShouldNotQuery_WhenCustomerKnownAbsent() {
+        when(customerExistenceFilter.isKnownAbsent(999L)).thenReturn(true);
+
+        CustomerNotFoundException e = assertThrows(CustomerNotFoundException.class,
+                () -> rewardsService.calculateMonthlyRewards(999L, null, null, false));
+
+        assertEquals(0, e.getStackTrace().length);
+        verifyNoInteractions(customerRepository, transactionRepository, transactionManager);
     }
 
     private Transaction createTestTransaction(Long id, double amount, int daysAgo) {
         Transaction transaction = new Transaction();
         transaction.setId(id);
-        transaction.setAmount(amount);
+        transaction.setAmountCents(Math.round(amount * 100));
         transaction.setStatus("COMPLETED");
         transaction.setTransactionDate(LocalDateTime.now().minusDays(daysAgo));
         return transaction;
@@ -83,7 +150,7 @@ class RewardsServiceTest {
         Transaction t3 = createTestTransaction(3L, 310.0, 0);
 
         when(transactionRepository.findEligibleTransactions(
-                eq(1L), eq("COMPLETED"), eq(50.0), isNull(), isNull()))
+                eq(1L), eq("COMPLETED"), eq(50_00L), isNull(), isNull()))
                 .thenReturn(Arrays.asList(t1, t2, t3));
 
         // Act
@@ -91,7 +158,7 @@ class RewardsServiceTest {
 
         // Assert
         assertEquals(3, result.size());
-        verify(transactionRepository).findEligibleTransactions(1L, "COMPLETED", 50.0, null, null);
+        verify(transactionRepository).findEligibleTransactions(1L, "COMPLETED", 50_00L, null, null);
     }
 
     @Test
@@ -104,7 +171,7 @@ class RewardsServiceTest {
         Transaction t1 = createTestTransaction(1L, 120.0, 5); // Within range
 
         when(transactionRepository.findEligibleTransactions(
-                eq(1L), eq("COMPLETED"), eq(50.0), eq(startDate), eq(endDate)))
+                eq(1L), eq("COMPLETED"), eq(50_00L), eq(startDate), eq(endDate)))
                 .thenReturn(Collections.singletonList(t1));
 
         // Act
@@ -112,7 +179,7 @@ class RewardsServiceTest {
 
         // Assert
         assertEquals(1, result.size());
-        verify(transactionRepository).findEligibleTransactions(1L, "COMPLETED", 50.0, startDate, endDate);
+        verify(transactionRepository).findEligibleTransactions(1L, "COMPLETED", 50_00L, startDate, endDate);
     }
 
     @Test
@@ -124,7 +191,7 @@ class RewardsServiceTest {
         Transaction t3 = createTestTransaction(3L, 310.0, 0); // After start date
 
         when(transactionRepository.findEligibleTransactions(
-                eq(1L), eq("COMPLETED"), eq(50.0), eq(startDate), isNull()))
+                eq(1L), eq("COMPLETED"), eq(50_00L), eq(startDate), isNull()))
                 .thenReturn(Arrays.asList(t2, t3));
 
         // Act
@@ -132,7 +199,7 @@ class RewardsServiceTest {
 
         // Assert
         assertEquals(2, result.size());
-        verify(transactionRepository).findEligibleTransactions(1L, "COMPLETED", 50.0, startDate, null);
+        verify(transactionRepository).findEligibleTransactions(1L, "COMPLETED", 50_00L, startDate, null);
     }
 
     @Test
@@ -144,7 +211,7 @@ class RewardsServiceTest {
         Transaction t2 = createTestTransaction(2L, 80.0, 5);   // Before end date
 
         when(transactionRepository.findEligibleTransactions(
-                eq(1L), eq("COMPLETED"), eq(50.0), isNull(), eq(endDate)))
+                eq(1L), eq("COMPLETED"), eq(50_00L), isNull(), eq(endDate)))
                 .thenReturn(Arrays.asList(t1, t2));
 
         // Act
@@ -152,7 +219,7 @@ class RewardsServiceTest {
 
         // Assert
         assertEquals(2, result.size());
-        verify(transactionRepository).findEligibleTransactions(1L, "COMPLETED", 50.0, null, endDate);
+        verify(transactionRepository).findEligibleTransactions(1L, "COMPLETED", 50_00L, null, endDate);
     }
 
     @Test
@@ -161,18 +228,18 @@ class RewardsServiceTest {
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
         Transaction t1 = new Transaction();
         t1.setId(1L);
-        t1.setAmount(120.0);
+        t1.setAmountCents(120_00);
         t1.setStatus("COMPLETED");
         t1.setTransactionDate(LocalDateTime.now().minusDays(10));
 
         Transaction t2 = new Transaction();
         t2.setId(2L);
-        t2.setAmount(80.0);
+        t2.setAmountCents(80_00);
         t2.setStatus("COMPLETED");
         t2.setTransactionDate(LocalDateTime.now().minusDays(5));
 
         List<Transaction> testTransactions = Arrays.asList(t1, t2);
-        when(transactionRepository.findEligibleTransactions(anyLong(), anyString(), anyDouble(), any(), any()))
+        when(transactionRepository.findEligibleTransactions(anyLong(), anyString(), anyLong(), any(), any()))
                 .thenReturn(testTransactions);
 
         // Act
@@ -185,11 +252,88 @@ class RewardsServiceTest {
         assertTrue(response.getTotalPoints() > 0);
     }
 
+    @Test
+    void calculateMonthlyRewards_WithDeadline_ShouldUseRemainingTimeAsTransactionTimeout() {
+        DeadlineContext.set(Deadline.after(Duration.ofMillis(2500)));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(transactionRepository.findEligibleTransactions(anyLong(), anyString(), anyLong(), any(), any()))
+                .thenReturn(List.of());
+
+        rewardsService.calculateMonthlyRewards(1L, null, null, false);
+
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.isReadOnly() && definition.getTimeout() == 3));
+    }
+
+    @Test
+    void calculateMonthlyRewards_WithExpiredDeadline_ShouldNotQuery() {
+        DeadlineContext.set(Deadline.after(Duration.ZERO));
+
+        assertThrows(DeadlineExceededException.class,
+                () -> rewardsService.calculateMonthlyRewards(1L, null, null, false));
+        verifyNoInteractions(customerRepository, transactionRepository);
+    }
+
+    @Test
+    void calculateMonthlyRewards_QueryTimeout_ShouldReportDeadlineExceeded() {
+        DeadlineContext.set(Deadline.after(Duration.ofSeconds(5)));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(transactionRepository.findEligibleTransactions(anyLong(), anyString(), anyLong(), any(), any()))
+                .thenThrow(new QueryTimeoutException("Statement was canceled"));
+
+        DeadlineExceededException exception = assertThrows(DeadlineExceededException.class,
+                () -> rewardsService.calculateMonthlyRewards(1L, null, null, false));
+        assertInstanceOf(QueryTimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    void calculateMonthlyRewards_WithoutDeadline_ShouldUseDefaultTimeout() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(transactionRepository.findEligibleTransactions(anyLong(), anyString(), anyLong(), any(), any()))
+                .thenReturn(List.of());
+
+        rewardsService.calculateMonthlyRewards(1L, null, null, false);
+
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getTimeout() == TransactionDefinition.TIMEOUT_DEFAULT));
+    }
+
+    @Test
+    void calculateMonthlyRewards_ShouldReadClosedMonthsFromSnapshots() {
+        // Arrange - March and April are closed; the window starts mid-February and ends mid-May
+        LocalDateTime start = LocalDateTime.of(2025, 2, 15, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 5, 15, 0, 0);
+        MonthRange closed = new MonthRange(YearMonth.of(2025, 3), YearMonth.of(2025, 4));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(monthlySnapshotStore.closedMonthsWithin(start, end)).thenReturn(Optional.of(closed));
+        when(monthlySnapshotStore.findPoints(1L, closed))
+                .thenReturn(Map.of(YearMonth.of(2025, 3), 100, YearMonth.of(2025, 4), 200));
+
+        Transaction february = createTestTransaction(1L, 120.0, 0);
+        february.setTransactionDate(LocalDateTime.of(2025, 2, 20, 10, 0));
+        Transaction may = createTestTransaction(2L, 80.0, 0);
+        may.setTransactionDate(LocalDateTime.of(2025, 5, 2, 10, 0));
+        when(transactionRepository.findEligibleTransactionsBefore(1L, "COMPLETED", 50_00L, start,
+                LocalDateTime.of(2025, 3, 1, 0, 0))).thenReturn(List.of(february));
+        when(transactionRepository.findEligibleTransactions(1L, "COMPLETED", 50_00L,
+                LocalDateTime.of(2025, 5, 1, 0, 0), end)).thenReturn(List.of(may));
+
+        // Act
+        RewardsResponse response = rewardsService.calculateMonthlyRewards(1L, start, end, false);
+
+        // Assert
+        assertEquals(List.of("May 2025", "April 2025", "March 2025", "February 2025"),
+                List.copyOf(response.getMonthlyPoints().keySet()));
+        assertEquals(30, response.getMonthlyPoints().get("May 2025"));
+        assertEquals(90, response.getMonthlyPoints().get("February 2025"));
+        assertEquals(420, response.getTotalPoints());
+    }
+
     @Test
     void calculateMonthlyRewards_ShouldHandleNoTransactions() {
         // Arrange
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
-        when(transactionRepository.findEligibleTransactions(anyLong(), anyString(), anyDouble(), any(), any()))
+        when(transactionRepository.findEligibleTransactions(anyLong(), anyString(), anyLong(), any(), any()))
                 .thenReturn(Collections.emptyList());
 
         // Act
@@ -202,6 +346,44 @@ class RewardsServiceTest {
         assertEquals(0, response.getTotalPoints());
     }
 
+    @Test
+    void getTransactionPage_ShouldReturnNextCursor_WhenMoreRowsExist() {
+        // Arrange
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        Transaction t1 = createTestTransaction(3L, 120.0, 1);
+        Transaction t2 = createTestTransaction(2L, 80.0, 2);
+        Transaction t3 = createTestTransaction(1L, 310.0, 3);
+        when(transactionRepository.findEligibleTransactionsPage(
+                eq(1L), eq("COMPLETED"), eq(50_00L), isNull(), isNull(), isNull(), isNull(), eq(Limit.of(3))))
+                .thenReturn(Arrays.asList(t1, t2, t3));
+
+        // Act
+        TransactionPage page = rewardsService.getTransactionPage(1L, null, null, null, 2);
+
+        // Assert
+        assertEquals(List.of(t1, t2), page.getTransactions());
+        assertEquals(TransactionCursor.of(t2), TransactionCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getTransactionPage_ShouldOmitNextCursor_OnLastPage() {
+        // Arrange
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        Transaction t1 = createTestTransaction(1L, 120.0, 1);
+        TransactionCursor cursor = new TransactionCursor(LocalDateTime.now(), 9L);
+        when(transactionRepository.findEligibleTransactionsPage(
+                eq(1L), eq("COMPLETED"), eq(50_00L), isNull(), isNull(),
+                eq(cursor.transactionDate()), eq(9L), eq(Limit.of(3))))
+                .thenReturn(Collections.singletonList(t1));
+
+        // Act
+        TransactionPage page = rewardsService.getTransactionPage(1L, null, null, cursor.encode(), 2);
+
+        // Assert
+        assertEquals(List.of(t1), page.getTransactions());
+        assertNull(page.getNextCursor());
+    }
+
     @Test
     void clearRewardsCache_ShouldBeCallable() {
         // This test just verifies the method can be called without errors
@@ -0,0 +1,140 @@
+package com.program.rewards.snapshot;
+
+import com.program.rewards.loading.DataLoadTracker;
+import com.program.rewards.util.RewardsUtil;
+import com.program.rewards.window.WindowAlignment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The job writes from fork/join worker threads, so test data has to be committed
+@JdbcTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MonthCloseJobTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 5);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MonthlySnapshotStore store;
+    private MonthCloseJob job;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("INSERT INTO CUSTOMERS (id, name, email, join_date, phone, address) VALUES (?, ?, ?, ?, ?, ?)",
+                    id, "Customer " + id, "c" + id + "@example.com", Date.valueOf(LocalDate.of(2024, 1, 1)), "555", "Main St");
+        }
+        insertTransaction(1, 120.0, "COMPLETED", LocalDateTime.of(2025, 5, 3, 10, 0));   // 90
+        insertTransaction(1, 75.0, "COMPLETED", LocalDateTime.of(2025, 5, 31, 23, 59, 59)); // 25
+        insertTransaction(1, 200.0, "COMPLETED", LocalDateTime.of(2025, 6, 1, 0, 0));    // next month
+        insertTransaction(2, 500.0, "FAILED", LocalDateTime.of(2025, 5, 10, 10, 0));
+        insertTransaction(3, 40.0, "COMPLETED", LocalDateTime.of(2025, 5, 10, 10, 0));   // below minimum
+        insertTransaction(4, 150.0, "COMPLETED", LocalDateTime.of(2025, 5, 1, 0, 0));    // 150
+        insertTransaction(5, 60.0, "COMPLETED", LocalDateTime.of(2025, 4, 30, 23, 59, 59)); // previous month
+
+        store = new MonthlySnapshotStore(jdbcTemplate);
+        job = new MonthCloseJob(store, new DataLoadTracker(), new SimpleMeterRegistry(), 2, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM MONTH_CLOSE_RUNS");
+        jdbcTemplate.update("DELETE FROM MONTH_CLOSE_CHECKPOINTS");
+        jdbcTemplate.update("DELETE FROM MONTHLY_REWARDS_SNAPSHOTS");
+        jdbcTemplate.update("DELETE FROM TRANSACTIONS");
+        jdbcTemplate.update("DELETE FROM CUSTOMERS");
+    }
+
+    @Test
+    void close_ShouldSnapshotPointsOfEveryCustomerForTheMonth() {
+        MonthCloseResult result = job.close(MONTH);
+
+        assertEquals(3, result.rangesProcessed()); // [1-2], [3-4], [5-5]
+        assertEquals(5, result.customersProcessed());
+        assertEquals(2, result.snapshotsWritten());
+        assertTrue(store.isClosed(MONTH));
+
+        MonthRange may = new MonthRange(MONTH, MONTH);
+        assertEquals(Map.of(MONTH, RewardsUtil.calculatePoints(120_00) + RewardsUtil.calculatePoints(75_00)),
+                store.findPoints(1, may));
+        assertEquals(Map.of(MONTH, 150), store.findPoints(4, may));
+        assertTrue(store.findPoints(2, may).isEmpty());
+        assertTrue(store.findPoints(5, may).isEmpty());
+    }
+
+    @Test
+    void close_ShouldCountOnlyExistingCustomers() {
+        jdbcTemplate.update("DELETE FROM TRANSACTIONS WHERE customer_id = 3");
+        jdbcTemplate.update("DELETE FROM CUSTOMERS WHERE id = 3");
+
+        MonthCloseResult result = job.close(MONTH);
+
+        assertEquals(3, result.rangesProcessed());
+        assertEquals(4, result.customersProcessed());
+    }
+
+    @Test
+    void close_ShouldResumeFromCheckpoints() {
+        // A previous run finished the first range before it was interrupted
+        store.writeRange(MONTH, 1, 2, java.util.List.of(new long[]{1, 999, 1}), 10);
+
+        MonthCloseResult result = job.close(MONTH);
+
+        assertEquals(1, result.rangesSkipped());
+        assertEquals(2, result.rangesProcessed());
+        assertEquals(Map.of(MONTH, 999), store.findPoints(1, new MonthRange(MONTH, MONTH)));
+        assertEquals(Map.of(MONTH, 150), store.findPoints(4, new MonthRange(MONTH, MONTH)));
+    }
+
+    @Test
+    void closedMonthsWithin_ShouldOnlyIncludeFullyCoveredClosedMonths() {
+        job.close(MONTH);
+        job.close(MONTH.minusMonths(1));
+
+        assertEquals(new MonthRange(YearMonth.of(2025, 4), MONTH),
+                store.closedMonthsWithin(LocalDateTime.of(2025, 3, 15, 0, 0), LocalDateTime.of(2025, 6, 15, 0, 0)).orElseThrow());
+        assertEquals(new MonthRange(MONTH, MONTH),
+                store.closedMonthsWithin(LocalDateTime.of(2025, 4, 2, 0, 0), LocalDate.of(2025, 5, 31).atTime(WindowAlignment.END_OF_DAY)).orElseThrow());
+        // Such an end leaves out the month's last second, which the snapshot includes
+        assertTrue(store.closedMonthsWithin(LocalDateTime.of(2025, 4, 2, 0, 0), LocalDateTime.of(2025, 5, 31, 23, 59, 59)).isEmpty());
+        assertTrue(store.closedMonthsWithin(LocalDateTime.of(2025, 5, 2, 0, 0), null).isEmpty());
+    }
+
+    @Test
+    void close_ShouldRejectTheCurrentMonth() {
+        assertThrows(IllegalArgumentException.class, () -> job.close(YearMonth.now()));
+    }
+
+    @Test
+    void endpoint_ShouldAnswerBadRequest_ForInvalidMonths() {
+        MonthCloseEndpoint endpoint = new MonthCloseEndpoint(job, store);
+
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.close(YearMonth.now().toString()));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.close("May 2025"));
+    }
+
+    private void insertTransaction(long customerId, double amount, String status, LocalDateTime date) {
+        jdbcTemplate.update("INSERT INTO TRANSACTIONS (amount_cents, status, transaction_date, customer_id) VALUES (?, ?, ?, ?)",
+                Math.round(amount * 100), status, Timestamp.valueOf(date), customerId);
+    }
+}
@@ -0,0 +1,137 @@
+package com.program.rewards.snapshot;
+
+import com.program.rewards.invalidation.RewardsCacheInvalidator;
+import com.program.rewards.loading.DataLoadTracker;
+import com.program.rewards.util.RewardsUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+// Recomputes under a version other than the deployed one, since RULE_VERSION cannot change in a test
+@JdbcTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RuleRecomputeJobTest {
+
+    private static final YearMonth APRIL = YearMonth.of(2025, 4);
+    private static final YearMonth MAY = YearMonth.of(2025, 5);
+    private static final MonthRange BOTH = new MonthRange(APRIL, MAY);
+    private static final int NEXT_VERSION = RewardsUtil.RULE_VERSION + 1;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MonthlySnapshotStore store;
+    private MonthCloseJob monthCloseJob;
+    private RewardsCacheInvalidator cacheInvalidator;
+    private RuleRecomputeJob job;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("INSERT INTO CUSTOMERS (id, name, email, join_date, phone, address) VALUES (?, ?, ?, ?, ?, ?)",
+                    id, "Customer " + id, "c" + id + "@example.com", Date.valueOf(LocalDate.of(2024, 1, 1)), "555", "Main St");
+        }
+        insertTransaction(1, 120.0, LocalDateTime.of(2025, 4, 3, 10, 0));    // 90
+        insertTransaction(1, 75.0, LocalDateTime.of(2025, 5, 31, 23, 59, 59)); // 25
+        insertTransaction(4, 150.0, LocalDateTime.of(2025, 5, 1, 0, 0));     // 150
+        insertTransaction(5, 60.0, LocalDateTime.of(2025, 6, 1, 0, 0));      // open month
+
+        store = new MonthlySnapshotStore(jdbcTemplate);
+        monthCloseJob = new MonthCloseJob(store, new DataLoadTracker(), new SimpleMeterRegistry(), 2, 2, 10);
+        monthCloseJob.close(APRIL);
+        monthCloseJob.close(MAY);
+        cacheInvalidator = mock(RewardsCacheInvalidator.class);
+        job = new RuleRecomputeJob(store, new DataLoadTracker(), monthCloseJob,
+                new StaticListableBeanFactory(Map.of("cacheInvalidator", cacheInvalidator))
+                        .getBeanProvider(RewardsCacheInvalidator.class),
+                new SimpleMeterRegistry(), false, 2, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM RULE_VERSIONS");
+        jdbcTemplate.update("DELETE FROM RULE_RECOMPUTE_CHECKPOINTS");
+        jdbcTemplate.update("DELETE FROM MONTH_CLOSE_RUNS");
+        jdbcTemplate.update("DELETE FROM MONTH_CLOSE_CHECKPOINTS");
+        jdbcTemplate.update("DELETE FROM MONTHLY_REWARDS_SNAPSHOTS");
+        jdbcTemplate.update("DELETE FROM TRANSACTIONS");
+        jdbcTemplate.update("DELETE FROM CUSTOMERS");
+    }
+
+    @Test
+    void recompute_ShouldRewriteEveryClosedMonthAndActivateTheVersion() {
+        RuleRecomputeResult result = job.recompute(NEXT_VERSION);
+
+        assertEquals(2, result.months());
+        assertEquals(3, result.rangesProcessed()); // [1-2], [3-4], [5-5]
+        assertEquals(5, result.customersProcessed());
+        assertEquals(3, result.snapshotsWritten());
+        assertEquals(NEXT_VERSION, store.getActiveRuleVersion());
+        assertEquals(Map.of(APRIL, 90, MAY, 25), store.findPoints(1, BOTH));
+        assertEquals(Map.of(MAY, 150), store.findPoints(4, BOTH));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM MONTHLY_REWARDS_SNAPSHOTS", Integer.class));
+        assertEquals(1.0, job.getProgress());
+        verify(cacheInvalidator).invalidateAll();
+    }
+
+    @Test
+    void recompute_ShouldServeThePreviousVersionUntilActivated() {
+        store.writeRecomputedRange(NEXT_VERSION, 1, 2, List.of(new long[]{1, 999, 1, MAY.atDay(1).toEpochDay()}), 10);
+
+        assertEquals(Map.of(APRIL, 90, MAY, 25), store.findPoints(1, BOTH));
+        assertTrue(store.closedMonthsWithin(APRIL.atDay(1).atStartOfDay(), null).isPresent());
+    }
+
+    @Test
+    void recompute_ShouldResumeFromCheckpoints() {
+        // A previous run finished the first range before it was interrupted
+        store.writeRecomputedRange(NEXT_VERSION, 1, 2, List.of(new long[]{1, 999, 1, MAY.atDay(1).toEpochDay()}), 10);
+
+        RuleRecomputeResult result = job.recompute(NEXT_VERSION);
+
+        assertEquals(1, result.rangesSkipped());
+        assertEquals(2, result.rangesProcessed());
+        assertEquals(Map.of(MAY, 999), store.findPoints(1, BOTH));
+        assertEquals(Map.of(MAY, 150), store.findPoints(4, BOTH));
+    }
+
+    @Test
+    void activatedVersionOtherThanDeployed_ShouldStopSnapshotReadsAndMonthCloses() {
+        job.recompute(NEXT_VERSION);
+
+        assertFalse(store.isRuleVersionCurrent());
+        assertTrue(store.closedMonthsWithin(APRIL.atDay(1).atStartOfDay(), null).isEmpty());
+        assertThrows(IllegalStateException.class, () -> monthCloseJob.close(YearMonth.of(2025, 3)));
+
+        // Going back to the deployed rules recomputes again and serves snapshots once more
+        job.recompute();
+        assertTrue(store.isRuleVersionCurrent());
+        assertEquals(Map.of(APRIL, 90, MAY, 25), store.findPoints(1, BOTH));
+    }
+
+    private void insertTransaction(long customerId, double amount, LocalDateTime date) {
+        jdbcTemplate.update("INSERT INTO TRANSACTIONS (amount_cents, status, transaction_date, customer_id) VALUES (?, ?, ?, ?)",
+                Math.round(amount * 100), "COMPLETED", Timestamp.valueOf(date), customerId);
+    }
+}
@@ -0,0 +1,147 @@
+package com.program.rewards.tracing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.testing.time.TestClock;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TailSamplingSpanProcessorTest {
+
+    private static final Duration THRESHOLD = Duration.ofMillis(500);
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+    private final TestClock clock = TestClock.create();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void fastSuccessfulTrace_ShouldBeDropped() {
+        setUp(0.0);
+
+        trace(Duration.ofMillis(20), false);
+
+        assertTrue(exporter.getFinishedSpanItems().isEmpty());
+        assertEquals(1.0, traces("dropped"));
+    }
+
+    @Test
+    void slowTrace_ShouldBeKeptWithAllItsSpans() {
+        setUp(0.0);
+
+        trace(Duration.ofMillis(600), false);
+
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        assertEquals(2, spans.size());
+        assertEquals(spans.get(0).getTraceId(), spans.get(1).getTraceId());
+        assertEquals(1.0, traces("slow"));
+    }
+
+    @Test
+    void failedTrace_ShouldBeKeptEvenWhenFast() {
+        setUp(0.0);
+
+        trace(Duration.ofMillis(5), true);
+
+        assertEquals(2, exporter.getFinishedSpanItems().size());
+        assertEquals(1.0, traces("error"));
+    }
+
+    @Test
+    void serverErrorOutcome_ShouldCountAsFailure() {
+        setUp(0.0);
+
+        Span root = tracer.spanBuilder("http get /api/customers/{customerId}/rewards")
+                .setAttribute("outcome", "SERVER_ERROR")
+                .startSpan();
+        root.end();
+
+        assertEquals(1, exporter.getFinishedSpanItems().size());
+    }
+
+    @Test
+    void baseRate_ShouldKeepRandomlySampledTraces() {
+        setUp(1.0);
+
+        trace(Duration.ofMillis(5), false);
+
+        assertEquals(2, exporter.getFinishedSpanItems().size());
+        assertEquals(1.0, traces("sampled"));
+    }
+
+    @Test
+    void rootWithRemoteParent_ShouldDecideTheLocalTrace() {
+        setUp(0.0);
+        SpanContext remote = SpanContext.createFromRemoteParent("0af7651916cd43dd8448eb211c80319c",
+                "b7ad6b7169203331", TraceFlags.getSampled(), TraceState.getDefault());
+
+        Span server = tracer.spanBuilder("server")
+                .setParent(Context.root().with(Span.wrap(remote)))
+                .startSpan();
+        clock.advance(Duration.ofSeconds(1));
+        server.end();
+
+        assertEquals(1, exporter.getFinishedSpanItems().size());
+    }
+
+    @Test
+    void spanEndingAfterItsTraceWasKept_ShouldFollowTheDecision() {
+        setUp(0.0);
+        Span root = tracer.spanBuilder("root").startSpan();
+        Span late = tracer.spanBuilder("async").setParent(Context.root().with(root)).startSpan();
+        clock.advance(Duration.ofSeconds(1));
+        root.end();
+        assertEquals(1, exporter.getFinishedSpanItems().size());
+
+        late.end();
+
+        assertEquals(2, exporter.getFinishedSpanItems().size());
+    }
+
+    private void setUp(double baseRate) {
+        TailSamplingSpanProcessor processor = new TailSamplingSpanProcessor(SimpleSpanProcessor.create(exporter),
+                THRESHOLD, baseRate, 100, 10, Duration.ofMinutes(1), registry);
+        tracerProvider = SdkTracerProvider.builder()
+                .setClock(clock)
+                .addSpanProcessor(processor)
+                .build();
+        tracer = tracerProvider.get("test");
+    }
+
+    /** A request span with one child; the child fails when {@code error} is set. */
+    private void trace(Duration duration, boolean error) {
+        Span root = tracer.spanBuilder("http get /api/customers/{customerId}/rewards").startSpan();
+        Span child = tracer.spanBuilder("rewards calculation").setParent(Context.root().with(root)).startSpan();
+        if (error) {
+            child.setStatus(StatusCode.ERROR);
+        }
+        clock.advance(duration);
+        child.end();
+        root.end();
+    }
+
+    private double traces(String decision) {
+        return registry.get("rewards.tracing.traces").tag("decision", decision).counter().count();
+    }
+}
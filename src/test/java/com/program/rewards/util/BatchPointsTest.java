@@ -0,0 +1,70 @@
+package com.program.rewards.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BatchPointsTest {
+
+    private static final long[] EDGE_CENTS = {
+            Long.MIN_VALUE, -1, 0, 1, 49_99, 50_00, 50_01, 50_99, 51_00, 99_99, 100_00, 100_01, 100_49, 100_50,
+            100_99, 101_00, 4_999_99, (1L << 32) - 1, 1L << 32, 1L << 40, 21_474_836_47L};
+
+    @Test
+    void scalar_ShouldMatchCalculatePointsExactly() {
+        assertMatchesCalculatePoints(BatchPoints.scalar());
+    }
+
+    @Test
+    void vectorized_ShouldMatchCalculatePointsExactly() {
+        assumeTrue(BatchPoints.vectorized() != null, "Vector API not available (--add-modules jdk.incubator.vector)");
+        assertTrue(BatchPoints.vectorized().isVectorized());
+
+        assertMatchesCalculatePoints(BatchPoints.vectorized());
+    }
+
+    @Test
+    void get_ShouldPreferVectorizedImplementation() {
+        assertSame(BatchPoints.vectorized() != null ? BatchPoints.vectorized() : BatchPoints.scalar(),
+                BatchPoints.get());
+    }
+
+    private static void assertMatchesCalculatePoints(BatchPoints batchPoints) {
+        // Odd length so the scalar tail after the last full vector is exercised as well
+        int length = 100_003;
+        long[] amounts = new long[length];
+        int[] buckets = new int[length];
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < length; i++) {
+            amounts[i] = i < EDGE_CENTS.length ? EDGE_CENTS[i] : random.nextLong(0, 2_000_00);
+            buckets[i] = random.nextInt(12);
+        }
+        // A vector's worth of small amounts containing one too large for the vector arithmetic
+        amounts[64] = 1L << 33;
+
+        long[] points = new long[length];
+        long[] pointsByBucket = new long[12];
+        batchPoints.points(amounts, points, length);
+        batchPoints.addPoints(amounts, buckets, length, pointsByBucket);
+
+        long[] expectedByBucket = new long[12];
+        for (int i = 0; i < length; i++) {
+            long expected = amounts[i] > RewardsUtil.MIN_AMOUNT_CENTS_FOR_REWARDS
+                    ? expectedPoints(amounts[i]) : 0;
+            assertEquals(expected, points[i], "points of " + amounts[i] + " cents");
+            expectedByBucket[buckets[i]] += expected;
+        }
+        assertArrayEquals(expectedByBucket, pointsByBucket);
+    }
+
+    /** {@link RewardsUtil#calculatePoints} returns an int, which overflows for amounts above ~$10M. */
+    private static long expectedPoints(long amountCents) {
+        if (amountCents < 10_000_000_00L) {
+            return RewardsUtil.calculatePoints(amountCents);
+        }
+        return (amountCents - 100_00) * 2 / 100 + 50;
+    }
+}
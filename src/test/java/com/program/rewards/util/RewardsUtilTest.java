@@ -2,25 +2,67 @@ package com.program.rewards.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class RewardsUtilTest {
 
     @Test
     void calculatePoints_ShouldCalculateCorrectly() {
         // Test case 1: Amount between 50 and 100
-        assertEquals(10, RewardsUtil.calculatePoints(60.0), "60 - 50 = 10 points");
+        assertEquals(10, RewardsUtil.calculatePoints(60_00), "60 - 50 = 10 points");
 
         // Test case 2: Amount greater than 100
-        assertEquals(90, RewardsUtil.calculatePoints(120.0), "2*(120-100) + 50 = 90 points");
+        assertEquals(90, RewardsUtil.calculatePoints(120_00), "2*(120-100) + 50 = 90 points");
 
         // Test case 3: Amount between 50 and 100
-        assertEquals(25, RewardsUtil.calculatePoints(75.0), "75 - 50 = 25 points");
+        assertEquals(25, RewardsUtil.calculatePoints(75_00), "75 - 50 = 25 points");
 
         // Test case 4: Amount exactly 100
-        assertEquals(50, RewardsUtil.calculatePoints(100.0), "50 points for first $50 + 0 points for next $50");
+        assertEquals(50, RewardsUtil.calculatePoints(100_00), "50 points for first $50 + 0 points for next $50");
 
         // Test case 5: Large amount
-        assertEquals(250, RewardsUtil.calculatePoints(200.0), "2*(200-100) + 50 = 250 points");
+        assertEquals(250, RewardsUtil.calculatePoints(200_00), "2*(200-100) + 50 = 250 points");
+    }
+
+    @Test
+    void calculatePoints_ShouldMatchDecimalArithmeticForEveryCentAmount() {
+        // The former implementation on BigDecimal dollars, truncating each tier to whole points
+        for (long cents = 0; cents <= 1_000_00; cents++) {
+            BigDecimal amount = BigDecimal.valueOf(cents, 2);
+            int expected = 0;
+            BigDecimal upTo100 = amount;
+            if (amount.compareTo(BigDecimal.valueOf(100)) > 0) {
+                expected = amount.subtract(BigDecimal.valueOf(100)).multiply(BigDecimal.valueOf(2)).intValue();
+                upTo100 = BigDecimal.valueOf(100);
+            }
+            expected += upTo100.subtract(BigDecimal.valueOf(50)).intValue();
+
+            assertEquals(expected, RewardsUtil.calculatePoints(cents), "amount " + amount);
+        }
+    }
+
+    @Test
+    void parseCents_ShouldParseDecimalAmountsExactly() {
+        assertEquals(82063, RewardsUtil.parseCents("820.63"));
+        assertEquals(12050, RewardsUtil.parseCents(" 120.5 "));
+        assertEquals(5000, RewardsUtil.parseCents("50"));
+        assertEquals(new BigDecimal("820.63"), RewardsUtil.toAmount(82063));
+        assertThrows(ArithmeticException.class, () -> RewardsUtil.parseCents("10.005"));
+    }
+
+    @Test
+    void resolveStartDate_ShouldPreferStartDateThenDaysThenMonths() {
+        LocalDateTime end = LocalDateTime.of(2025, 6, 15, 12, 0);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        assertEquals(start, RewardsUtil.resolveStartDate(start, end, 30, 3));
+        assertEquals(end.minusDays(30), RewardsUtil.resolveStartDate(null, end, 30, 3));
+        assertEquals(end.minusMonths(3), RewardsUtil.resolveStartDate(null, end, null, 3));
+        assertNull(RewardsUtil.resolveStartDate(null, end, null, null));
     }
 }
@@ -0,0 +1,85 @@
+package com.program.rewards.window;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RewardsWindowResolverTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 5, 14, 10, 15, 30, 123_456_789);
+    private static final LocalDateTime END_OF_TODAY = LocalDate.of(2025, 5, 14).atTime(WindowAlignment.END_OF_DAY);
+
+    @Test
+    void resolve_DayAlignment_ShouldWidenRelativeWindowsToWholeDays() {
+        RewardsWindowResolver resolver = new RewardsWindowResolver(WindowAlignment.DAY);
+
+        DateWindow window = resolver.resolve(null, null, 30, null, null, NOW);
+
+        assertEquals(LocalDate.of(2025, 4, 14).atStartOfDay(), window.start());
+        assertEquals(END_OF_TODAY, window.end());
+        assertEquals(window, resolver.resolve(null, null, 30, null, null, NOW.withHour(23)));
+    }
+
+    @Test
+    void resolve_MonthAlignment_ShouldWidenRelativeWindowsToWholeMonths() {
+        RewardsWindowResolver resolver = new RewardsWindowResolver(WindowAlignment.MONTH);
+
+        DateWindow window = resolver.resolve(null, null, null, 3, null, NOW);
+
+        assertEquals(LocalDate.of(2025, 2, 1).atStartOfDay(), window.start());
+        assertEquals(LocalDate.of(2025, 5, 31).atTime(WindowAlignment.END_OF_DAY), window.end());
+    }
+
+    @Test
+    void resolve_NoAlignment_ShouldKeepExactTimes() {
+        RewardsWindowResolver resolver = new RewardsWindowResolver(WindowAlignment.NONE);
+
+        DateWindow window = resolver.resolve(null, null, 30, null, null, NOW);
+
+        assertEquals(NOW.minusDays(30), window.start());
+        assertEquals(NOW, window.end());
+    }
+
+    @Test
+    void resolve_ExplicitDates_ShouldBeUsedAsGiven() {
+        RewardsWindowResolver resolver = new RewardsWindowResolver(WindowAlignment.DAY);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 30);
+        LocalDateTime end = LocalDateTime.of(2025, 3, 1, 17, 0);
+
+        assertEquals(new DateWindow(start, end),
+                resolver.resolve(start, end, 30, null, NamedWindow.YTD, NOW));
+        assertEquals(new DateWindow(start, END_OF_TODAY), resolver.resolve(start, null, null, null, null, NOW));
+        assertEquals(new DateWindow(null, END_OF_TODAY), resolver.resolve(null, null, null, null, null, NOW));
+    }
+
+    @Test
+    void resolve_NamedWindow_ShouldTakePrecedenceOverDaysAndMonths() {
+        RewardsWindowResolver resolver = new RewardsWindowResolver(WindowAlignment.NONE);
+
+        DateWindow window = resolver.resolve(null, null, 30, 6, NamedWindow.LAST_3_MONTHS, NOW);
+
+        assertEquals(LocalDate.of(2025, 3, 1).atStartOfDay(), window.start());
+        assertEquals(LocalDate.of(2025, 5, 31).atTime(WindowAlignment.END_OF_DAY), window.end());
+    }
+
+    @Test
+    void namedWindows_ShouldCoverWholeCalendarPeriods() {
+        LocalDate today = LocalDate.of(2025, 1, 20);
+
+        assertEquals(window(2025, 1, 20, 2025, 1, 20), NamedWindow.TODAY.resolve(today));
+        assertEquals(window(2025, 1, 1, 2025, 1, 31), NamedWindow.CURRENT_MONTH.resolve(today));
+        assertEquals(window(2024, 12, 1, 2024, 12, 31), NamedWindow.PREVIOUS_MONTH.resolve(today));
+        assertEquals(window(2024, 8, 1, 2025, 1, 31), NamedWindow.LAST_6_MONTHS.resolve(today));
+        assertEquals(window(2024, 2, 1, 2025, 1, 31), NamedWindow.LAST_12_MONTHS.resolve(today));
+        assertEquals(window(2025, 1, 1, 2025, 1, 31), NamedWindow.YTD.resolve(today));
+        assertEquals(window(2024, 1, 1, 2024, 12, 31), NamedWindow.PREVIOUS_YEAR.resolve(today));
+    }
+
+    private static DateWindow window(int fromYear, int fromMonth, int fromDay, int toYear, int toMonth, int toDay) {
+        return new DateWindow(LocalDate.of(fromYear, fromMonth, fromDay).atStartOfDay(),
+                LocalDate.of(toYear, toMonth, toDay).atTime(WindowAlignment.END_OF_DAY));
+    }
+}